@@ -0,0 +1,93 @@
+package com.proyecto.vdrt.catalogo.benchmark;
+
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+
+/**
+ * Datos de prueba con la forma de los productos reales del catálogo (ver http/Product.http).
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static ProductRequest request(int i) {
+        ProductRequest request = new ProductRequest();
+        request.setName("Laptop Gamer X" + i);
+        request.setPrice(1250.50 + i);
+        request.setGeneralDescription("Laptop de alto rendimiento para juegos y diseño gráfico, modelo " + i);
+        request.setSpecifications(specifications(i));
+        request.setTags(List.of("tecnología", "computadoras", "gaming", "oferta"));
+        return request;
+    }
+
+    static Product product(int i) {
+        Product product = new Product();
+        product.setId(new ObjectId().toHexString());
+        product.setName("Laptop Gamer X" + i);
+        product.setPrice(1250.50 + i);
+        product.setGeneralDescription("Laptop de alto rendimiento para juegos y diseño gráfico, modelo " + i);
+        product.setSpecifications(specifications(i));
+        product.setSpecs(SpecificationNormalizer.toEntries(product.getSpecifications()));
+        product.setTags(List.of("tecnología", "computadoras", "gaming", "oferta"));
+        product.setVersion((long) i);
+        return product;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    // Conversor de Spring Data como el de MongoTemplate, sin conexión
+    static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // Los productos con los bytes BSON que devolvería el driver al leerlos de la colección
+    static List<RawBsonDocument> documents(List<Product> products, MappingMongoConverter converter) {
+        List<RawBsonDocument> documents = new ArrayList<>(products.size());
+        for (Product product : products) {
+            Document document = new Document();
+            converter.write(product, document);
+            documents.add(new RawBsonDocument(document, new DocumentCodec()));
+        }
+        return documents;
+    }
+
+    private static Map<String, String> specifications(int i) {
+        Map<String, String> specifications = new LinkedHashMap<>();
+        specifications.put("procesador", "Intel Core i7");
+        specifications.put("ram", (8 << (i % 3)) + "GB");
+        specifications.put("almacenamiento", "512GB SSD");
+        specifications.put("pantalla", "15.6 pulgadas FHD");
+        specifications.put("sistema", "Windows 11 Home");
+        return specifications;
+    }
+}
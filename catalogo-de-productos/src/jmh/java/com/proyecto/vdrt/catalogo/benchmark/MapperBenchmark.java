@@ -0,0 +1,54 @@
+package com.proyecto.vdrt.catalogo.benchmark;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+
+/**
+ * Costo de las conversiones de ProductMapper que se ejecutan en cada lectura y escritura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ProductMapper mapper;
+    private Product product;
+    private ProductRequest request;
+
+    @Setup
+    public void setup() {
+        mapper = new ProductMapper();
+        product = BenchmarkData.product(1);
+        request = BenchmarkData.request(1);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    // Incluye la normalización de especificaciones al patrón de atributos
+    @Benchmark
+    public Product toDocument() {
+        return mapper.toDocument(request);
+    }
+}
@@ -0,0 +1,102 @@
+package com.proyecto.vdrt.catalogo.benchmark;
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.RawProductPageResponse;
+
+/**
+ * Serialización con Jackson de listados de ProductResponse de distintos tamaños,
+ * con y sin el mapeo previo desde Product (el camino completo de un endpoint de listado).
+ * Las variantes *Page parten de los bytes BSON que entrega el driver y comparan la página armada con
+ * Product y ProductResponse contra la escrita directamente con RawProductJson; con -prof gc se ve
+ * gc.alloc.rate.norm (bytes asignados por página).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private ObjectWriter writer;
+    private ProductMapper mapper;
+    private List<Product> products;
+    private List<ProductResponse> responses;
+    private ProductFields summaryFields;
+    private MappingMongoConverter converter;
+    private List<RawBsonDocument> documents;
+    private DocumentCodec documentCodec;
+
+    @Setup
+    public void setup() {
+        writer = new ObjectMapper().writer();
+        mapper = new ProductMapper();
+        products = BenchmarkData.products(size);
+        responses = products.stream().map(mapper::toResponse).toList();
+        summaryFields = ProductFields.parse("name,price");
+        converter = BenchmarkData.converter();
+        documents = BenchmarkData.documents(products, converter);
+        documentCodec = new DocumentCodec();
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products.stream().map(mapper::toResponse).toList());
+    }
+
+    // Listado con fields=name,price (solo mapeo y serialización; en MongoDB además se evita leer el resto)
+    @Benchmark
+    public byte[] mapAndSerializeSummary() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products.stream().map(product -> mapper.toResponse(product, summaryFields)).toList());
+    }
+
+    // GET /products hoy: el driver decodifica a Document, Spring Data arma Product, ProductMapper copia a ProductResponse
+    @Benchmark
+    public byte[] decodeMapAndSerializePage() throws JsonProcessingException {
+        List<ProductResponse> content = documents.stream()
+                .map(document -> converter.read(Product.class, document.decode(documentCodec)))
+                .map(mapper::toResponse)
+                .toList();
+        return writer.writeValueAsBytes(new ProductPageResponse(content, null));
+    }
+
+    // GET /products con catalogo.serialization.raw-bson.enabled: los bytes BSON se escriben directo en JSON
+    @Benchmark
+    public byte[] rawSerializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(new RawProductPageResponse(documents, ProductFields.ALL, null));
+    }
+}
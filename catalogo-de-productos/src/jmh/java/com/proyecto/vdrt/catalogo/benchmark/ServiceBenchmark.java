@@ -0,0 +1,96 @@
+package com.proyecto.vdrt.catalogo.benchmark;
+
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
+import com.proyecto.vdrt.catalogo.cache.CachedProduct;
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+import com.proyecto.vdrt.catalogo.repository.ProductRepository;
+import com.proyecto.vdrt.catalogo.service.ProductServiceImp;
+
+/**
+ * Lectura por ID de punta a punta en ProductServiceImp (caché + mapeo + serialización)
+ * contra un ProductRepository en memoria, para aislar el costo propio del servicio del de la red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    // 0 desactiva el caché: cada lectura pasa por el repositorio y el mapper
+    @Param({ "0", "100000" })
+    private long cacheSize;
+
+    @Param({ "false", "true" })
+    private boolean storeJson;
+
+    private ProductServiceImp service;
+    private ProductCache cache;
+    private String[] ids;
+
+    @Setup
+    public void setup() {
+        Map<String, Product> store = new HashMap<>();
+        BenchmarkData.products(CATALOG_SIZE).forEach(product -> store.put(product.getId(), product));
+        ids = store.keySet().toArray(String[]::new);
+
+        cache = new ProductCache(new ObjectMapper(), cacheSize, Duration.ofMinutes(10), storeJson);
+        // MongoTemplate y los índices en memoria no se usan en getById, por eso no se necesita una instancia real
+        service = new ProductServiceImp(inMemoryRepository(store), new ProductMapper(), null, cache, null, null,
+                new CatalogReplica(null, new CatalogVersion()),
+                new ReadRouting(ReadPreference.primary()), event -> {
+        });
+    }
+
+    // Lo que hace GET /products/{id}: la entrada del caché y su JSON, serializado solo si el caché no lo guarda
+    @Benchmark
+    public byte[] getByIdAsJson() {
+        CachedProduct cached = service.getCachedById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        return cached.json() != null ? cached.json() : cache.serialize(cached.response());
+    }
+
+    // Sustituto en memoria de MongoDB: solo implementa findById
+    private static ProductRepository inMemoryRepository(Map<String, Product> store) {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[] { ProductRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        return Optional.ofNullable(store.get((String) args[0]));
+                    }
+                    if (method.getName().equals("findAll")) {
+                        return List.copyOf(store.values());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
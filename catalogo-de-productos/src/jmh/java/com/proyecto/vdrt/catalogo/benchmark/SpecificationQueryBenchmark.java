@@ -0,0 +1,60 @@
+package com.proyecto.vdrt.catalogo.benchmark;
+
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+
+/**
+ * Construcción de la consulta de getBySpecification.
+ * 'legacyRegex' reproduce la versión anterior (un regex con \s* entre cada carácter)
+ * como línea base frente a la consulta actual sobre valores normalizados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationQueryBenchmark {
+
+    @Param({ "RAM", "Sistema Operativo" })
+    private String key;
+
+    @Param({ "16GB", "AMD Ryzen 5 7530U" })
+    private String value;
+
+    @Benchmark
+    public Document legacyRegex() {
+        String regexValue = value.replace(" ", "").chars()
+                .mapToObj(c -> Pattern.quote(String.valueOf((char) c)) + "\\s*")
+                .collect(Collectors.joining());
+
+        Query query = new Query(Criteria.where("specifications." + key.toLowerCase().replace(" ", "")).regex(regexValue, "i"));
+        return query.getQueryObject();
+    }
+
+    @Benchmark
+    public Document normalizedElemMatch() {
+        Query query = new Query(Criteria.where("specs").elemMatch(
+                Criteria.where("k").is(SpecificationNormalizer.normalize(key))
+                        .and("vNorm").is(SpecificationNormalizer.normalize(value))));
+        return query.getQueryObject();
+    }
+}
@@ -0,0 +1,143 @@
+package com.proyecto.vdrt.catalogo.loadtest;
+
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.proyecto.vdrt.catalogo.CatalogoDeProductosApplication;
+
+/**
+ * Prueba de carga de los endpoints de lectura en modo hilos de plataforma y modo hilos virtuales.
+ * Levanta la aplicación dos veces (una por modo) contra el MongoDB configurado y muestra
+ * throughput y latencias p50/p99 de cada endpoint lado a lado.
+ *
+ * Uso: ./mvnw -Ploadtest test-compile exec:java -Dloadtest.concurrency=400 -Dloadtest.duration=30
+ */
+public final class LoadTestRunner {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/products?size=50",
+            "/products/search?palabra=laptop",
+            "/products/tag?tag=tecnolog%C3%ADa",
+            "/products/specification?llave=ram&valor=16GB",
+            "/products/price?mallorigal=0&menorigual=1000");
+
+    private record Mode(String name, String profile) {
+    }
+
+    private record Result(String endpoint, String mode, long requests, long errors, double throughput,
+            double p50Millis, double p99Millis) {
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5));
+
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : List.of(new Mode("platform", "default"), new Mode("virtual", "vthreads"))) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CatalogoDeProductosApplication.class)
+                    .profiles(mode.profile())
+                    .properties("server.port=0")
+                    .run(args)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + context.getEnvironment().getProperty("server.servlet.context-path", "");
+
+                for (String endpoint : ENDPOINTS) {
+                    URI uri = URI.create(baseUrl + endpoint);
+                    run(uri, concurrency, warmup);
+                    Result result = run(uri, concurrency, duration);
+                    results.add(new Result(endpoint, mode.name(), result.requests(), result.errors(),
+                            result.throughput(), result.p50Millis(), result.p99Millis()));
+                }
+            }
+        }
+        print(results, concurrency, duration);
+    }
+
+    // Lanza 'concurrency' clientes en bucle cerrado contra el endpoint durante el tiempo indicado
+    private static Result run(URI uri, int concurrency, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        long[] errors = new long[concurrency];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int worker = w;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors[worker]++;
+                            }
+                        } catch (Exception ex) {
+                            errors[worker]++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> future : workers) {
+                long[] latencies = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+
+            return new Result(uri.getPath(), null, all.length, Arrays.stream(errors).sum(),
+                    all.length / (double) duration.toSeconds(), percentile(all, 0.50), percentile(all, 0.99));
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static void print(List<Result> results, int concurrency, Duration duration) {
+        System.out.printf("%nPrueba de carga: %d clientes concurrentes, %d s por endpoint%n%n", concurrency, duration.toSeconds());
+        System.out.printf("%-48s %-9s %10s %10s %10s %8s%n", "Endpoint", "Modo", "req/s", "p50 ms", "p99 ms", "errores");
+        for (String endpoint : ENDPOINTS) {
+            for (Result result : results) {
+                if (result.endpoint().equals(endpoint)) {
+                    System.out.printf("%-48s %-9s %10.1f %10.2f %10.2f %8d%n", endpoint, result.mode(),
+                            result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.proyecto.vdrt.catalogo.cache;
+
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import com.proyecto.vdrt.catalogo.diagnostics.QueryOriginAspect;
+
+/**
+ * Soporte para las cargas de los cachés de Caffeine (AsyncCache) sin fijar hilos virtuales.
+ * La carga corre en su propio hilo virtual y el caché guarda el futuro: el mapa interno no queda bloqueado
+ * durante la consulta, pero la carga sigue siendo atómica. Un invalidate durante la carga descarta el futuro
+ * y su resultado ya no se guarda, así una lectura que empezó antes de una escritura no deja el valor viejo.
+ */
+public final class AsyncLoads {
+
+    // Un hilo virtual por carga; no hace falta cerrarlo, sus hilos no mantienen viva la JVM
+    private static final Executor THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    /*
+    Caffeine entrega la carga al executor desde el hilo que pidió el valor: la tarea se lleva el método de servicio
+    en curso (QueryOriginAspect) y el registro de consultas lentas atribuye la consulta de la carga a ese método.
+    */
+    public static final Executor VIRTUAL_THREADS = task -> THREADS.execute(QueryOriginAspect.propagate(task));
+
+    private AsyncLoads() {
+    }
+
+    /**
+     * Espera el resultado de la carga. Un hilo virtual se desmonta mientras espera, sin ocupar el portador.
+     * @throws RuntimeException la misma excepción que lanzó el loader (por ejemplo, de MongoDB).
+     */
+    public static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.proyecto.vdrt.catalogo.cache;
+
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+
+/**
+ * Entrada del caché de productos: el DTO ya mapeado y, si está habilitado,
+ * su JSON ya serializado para responder sin volver a pasar por Jackson.
+ */
+public record CachedProduct(ProductResponse response, byte[] json) {
+}
@@ -0,0 +1,56 @@
+package com.proyecto.vdrt.catalogo.cache;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+
+/**
+ * Versión del catálogo completo: un contador que avanza con cada escritura. Es el ETag (débil) de los
+ * listados y filtros, así un If-None-Match se responde con 304 sin consultar ni serializar productos.
+ *
+ * Avanza con ProductChangedEvent (escrituras de esta instancia), con los lotes de la migración de especificaciones
+ * y con cada lote que aplica la réplica local (escrituras de cualquier instancia, vistas por el change stream).
+ * Un ETag entregado antes de que la réplica aplique un cambio queda invalidado cuando lo aplica, por eso nunca se
+ * confirma una copia desactualizada. Sin la réplica el contador no ve las escrituras de otras instancias, y
+ * ConditionalGetConfig no lo usa.
+ */
+@Component
+public class CatalogVersion {
+
+    // El contador empieza de nuevo en cada arranque: el epoch evita que un ETag anterior coincida
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        increment();
+    }
+
+    public void increment() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Versión actual. Los cachés de resultados derivados del catálogo (FacetCache, las estimaciones del planificador)
+     * la incluyen en la clave: un valor calculado antes de una escritura nunca se entrega con el ETag posterior.
+     */
+    public long current() {
+        return version.get();
+    }
+
+    // ETag débil: dos respuestas con la misma versión son equivalentes, no idénticas byte a byte
+    public String etag() {
+        return "W/\"" + epoch + "-" + version.get() + "\"";
+    }
+
+    // Milisegundos de la última escritura (o del arranque)
+    public long lastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,51 @@
+package com.proyecto.vdrt.catalogo.cache;
+
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.vdrt.catalogo.model.dto.FacetResponse;
+
+/**
+ * Caché de corta duración para los conteos de facetas, con el filtro normalizado como clave.
+ * Las páginas de categoría más visitadas comparten el resultado en lugar de repetir la agregación;
+ * a cambio, los conteos pueden tener hasta expire-after-write de antigüedad.
+ */
+@Component
+public class FacetCache {
+
+    private final AsyncCache<Object, FacetResponse> cache;
+
+    public FacetCache(@Value("${catalogo.cache.facets.maximum-size:1000}") long maximumSize,
+            @Value("${catalogo.cache.facets.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(AsyncLoads.VIRTUAL_THREADS)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve los conteos cacheados o los calcula con el loader.
+     * Igual que en ProductCache, la carga corre en un hilo virtual aparte (AsyncLoads) para no fijar hilos
+     * virtuales, y las peticiones concurrentes con el mismo filtro esperan una sola agregación.
+     */
+    public FacetResponse get(Object key, Function<Object, FacetResponse> loader) {
+        return AsyncLoads.join(cache.get(key, loader));
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -0,0 +1,94 @@
+package com.proyecto.vdrt.catalogo.cache;
+
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+
+/**
+ * Caché en memoria (read-through) de productos por ID.
+ * Caffeine usa admisión W-TinyLFU: con tráfico concentrado en pocos productos
+ * los más consultados se quedan en memoria y los de una sola lectura no desplazan a los demás.
+ */
+@Component
+public class ProductCache {
+
+    private final AsyncCache<String, CachedProduct> cache;
+    private final ObjectMapper objectMapper;
+    private final boolean storeJson;
+
+    public ProductCache(ObjectMapper objectMapper,
+            @Value("${catalogo.cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${catalogo.cache.products.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${catalogo.cache.products.store-json:false}") boolean storeJson) {
+        this.objectMapper = objectMapper;
+        this.storeJson = storeJson;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(AsyncLoads.VIRTUAL_THREADS)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve el producto desde el caché o lo carga con el loader si no está.
+     * Las lecturas concurrentes del mismo ID esperan una sola carga, y un invalidate que llega durante la carga
+     * la descarta (ver AsyncLoads).
+     * @param id Identificador del producto.
+     * @param loader Función que consulta la base de datos; si retorna null no se guarda nada.
+     * @return La entrada cacheada, o null si el producto no existe.
+     */
+    public CachedProduct get(String id, Function<String, ProductResponse> loader) {
+        return AsyncLoads.join(cache.get(id, key -> toCached(loader.apply(key))));
+    }
+
+    /**
+     * Igual que get, sin bloquear: lo usa el servicio reactivo con una carga del driver reactivo (Mono.toFuture()).
+     * El futuro de la carga queda en el caché, así que tiene las mismas garantías que get: una sola carga por ID
+     * y un invalidate durante la carga impide que se guarde el valor anterior a la escritura.
+     * @return Futuro con la entrada cacheada, o con null si el producto no existe.
+     */
+    public CompletableFuture<CachedProduct> getAsync(String id, Function<String, CompletableFuture<ProductResponse>> loader) {
+        return cache.get(id, (key, executor) -> loader.apply(key).thenApply(this::toCached));
+    }
+
+    private CachedProduct toCached(ProductResponse response) {
+        return response == null ? null : new CachedProduct(response, storeJson ? serialize(response) : null);
+    }
+
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // Aciertos, fallos y desalojos acumulados desde el inicio
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public byte[] serialize(ProductResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar el producto " + response.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Ajustes del cliente de MongoDB propios del catálogo (prefijo catalogo.mongo).
+ */
+@ConfigurationProperties(prefix = "catalogo.mongo")
+public class CatalogoMongoProperties {
+
+    private final Pool pool = new Pool();
+    private final Timeouts timeouts = new Timeouts();
+    private final WriteConcern writeConcern = new WriteConcern();
+    private final Reads reads = new Reads();
+    // Compresión del protocolo en orden de preferencia (zstd, snappy, zlib); se usa la primera que acepte el servidor
+    private List<String> compressors = new ArrayList<>(List.of("zstd", "snappy"));
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    public Reads getReads() {
+        return reads;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    /**
+     * Pool de conexiones del driver. Con hilos virtuales ya no es Tomcat quien limita la concurrencia,
+     * así que el pool pasa a ser el límite real y se dimensiona según el perfil.
+     */
+    public static class Pool {
+
+        // Conexiones máximas por servidor (valor por defecto del driver: 100)
+        private int maxSize = 100;
+        // Conexiones que se mantienen abiertas aunque no haya carga
+        private int minSize = 0;
+        // Conexiones que pueden estar estableciéndose al mismo tiempo (por defecto del driver: 2)
+        private int maxConnecting = 2;
+        // Tiempo máximo que una petición espera por una conexión libre antes de fallar
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+        // Tiempo que una conexión ociosa permanece en el pool
+        private Duration maxIdleTime = Duration.ZERO;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxConnecting() {
+            return maxConnecting;
+        }
+
+        public void setMaxConnecting(int maxConnecting) {
+            this.maxConnecting = maxConnecting;
+        }
+
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        public void setMaxWaitTime(Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+    }
+
+    /**
+     * Tiempos de espera del driver. Un valor cero es "sin límite", como en el driver.
+     */
+    public static class Timeouts {
+
+        // Establecer la conexión TCP con un servidor
+        private Duration connect = Duration.ofSeconds(10);
+        // Esperar la respuesta de una operación en el socket
+        private Duration socket = Duration.ZERO;
+        // Encontrar un servidor que cumpla la preferencia de lectura (por ejemplo, un secundario disponible)
+        private Duration serverSelection = Duration.ofSeconds(30);
+
+        public Duration getConnect() {
+            return connect;
+        }
+
+        public void setConnect(Duration connect) {
+            this.connect = connect;
+        }
+
+        public Duration getSocket() {
+            return socket;
+        }
+
+        public void setSocket(Duration socket) {
+            this.socket = socket;
+        }
+
+        public Duration getServerSelection() {
+            return serverSelection;
+        }
+
+        public void setServerSelection(Duration serverSelection) {
+            this.serverSelection = serverSelection;
+        }
+    }
+
+    /**
+     * Write concern de todas las escrituras. Sin 'w' se usa el del servidor.
+     */
+    public static class WriteConcern {
+
+        // Cantidad de nodos que deben confirmar ("1", "2", ...) o "majority"
+        private String w;
+        // Esperar a que la escritura llegue al journal
+        private Boolean journal;
+        // Tiempo máximo esperando las confirmaciones antes de responder error (la escritura no se deshace)
+        private Duration timeout;
+
+        public String getW() {
+            return w;
+        }
+
+        public void setW(String w) {
+            this.w = w;
+        }
+
+        public Boolean getJournal() {
+            return journal;
+        }
+
+        public void setJournal(Boolean journal) {
+            this.journal = journal;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Preferencia de lectura de los listados y búsquedas de ProductServiceImp. Las escrituras, la lectura por ID
+     * y el resto de las consultas siguen en el primario.
+     */
+    public static class Reads {
+
+        // primary, primaryPreferred, secondary, secondaryPreferred o nearest
+        private String lists = "primary";
+        // Atraso máximo aceptado de un secundario (mínimo 90 s según MongoDB); sin valor no se limita
+        private Duration maxStaleness = Duration.ofSeconds(90);
+
+        public String getLists() {
+            return lists;
+        }
+
+        public void setLists(String lists) {
+            this.lists = lists;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * GET condicional de los listados y filtros: ETag débil y Last-Modified con la versión del catálogo (CatalogVersion).
+ * Se resuelve antes del controlador, así un If-None-Match vigente responde 304 sin consultar MongoDB ni serializar.
+ * GET /products/{id} usa en cambio un ETag fuerte con la versión del producto (ver ProductController).
+ *
+ * Solo se aplica mientras la réplica local está lista: el change stream es lo único que hace avanzar la versión con
+ * las escrituras de otras instancias o las hechas directamente en la base. Sin él, una instancia respondería 304 con
+ * datos viejos indefinidamente; en ese caso los listados no entregan ETag y siempre responden 200.
+ */
+@Configuration
+public class ConditionalGetConfig {
+
+    // Rutas cuya respuesta depende solo del catálogo y de los parámetros de la URL
+    static final List<String> CATALOG_PATHS = List.of(
+            "/products",
+            "/products/export",
+            "/products/search",
+            "/products/tag",
+            "/products/specification",
+            "/products/price",
+            "/products/price/count",
+            "/products/price/top",
+            "/products/facets",
+            "/products/query");
+
+    /*
+    Si los listados se leen de secundarios (todas estas rutas, también facetas y query), un secundario atrasado puede
+    devolver datos anteriores a la versión que ya avanzó con la escritura, y el cliente guardaría esa respuesta con el
+    ETag nuevo hasta el próximo cambio. En ese caso no se usa GET condicional.
+    */
+    @Bean
+    @Profile("!reactive")
+    public WebMvcConfigurer catalogoConditionalGetConfigurer(CatalogVersion catalogVersion, CatalogReplica catalogReplica,
+            ReadRouting readRouting) {
+        HandlerInterceptor interceptor = new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())
+                        || !catalogReplica.isReady() || !readRouting.listsOnPrimary()) {
+                    return true;
+                }
+                // Si no hay 304, deja puestos ETag y Last-Modified para la respuesta completa
+                return !new ServletWebRequest(request, response)
+                        .checkNotModified(catalogVersion.etag(), catalogVersion.lastModified());
+            }
+        };
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns(CATALOG_PATHS);
+            }
+        };
+    }
+
+    @Bean
+    @Profile("reactive")
+    public WebFilter catalogoConditionalGetFilter(CatalogVersion catalogVersion, CatalogReplica catalogReplica,
+            ReadRouting readRouting) {
+        List<PathPattern> patterns = CATALOG_PATHS.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if ((method == HttpMethod.GET || method == HttpMethod.HEAD) && catalogReplica.isReady() && readRouting.listsOnPrimary()
+                    && patterns.stream().anyMatch(pattern -> pattern.matches(exchange.getRequest().getPath().pathWithinApplication()))
+                    && exchange.checkNotModified(catalogVersion.etag(), Instant.ofEpochMilli(catalogVersion.lastModified()))) {
+                return exchange.getResponse().setComplete();
+            }
+            return chain.filter(exchange);
+        };
+    }
+}
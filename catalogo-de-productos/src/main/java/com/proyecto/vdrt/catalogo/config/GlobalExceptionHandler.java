@@ -5,6 +5,8 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,9 +14,18 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
+import com.proyecto.vdrt.catalogo.exception.InvalidCursorException;
+import com.proyecto.vdrt.catalogo.exception.InvalidFieldsException;
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+import com.proyecto.vdrt.catalogo.exception.JobNotFoundException;
+import com.proyecto.vdrt.catalogo.exception.JobOutputNotAvailableException;
+import com.proyecto.vdrt.catalogo.exception.JobQueueFullException;
 import com.proyecto.vdrt.catalogo.exception.ProductAlreadyExistException;
 import com.proyecto.vdrt.catalogo.exception.ProductNotFoundException;
+import com.proyecto.vdrt.catalogo.exception.ProductVersionConflictException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -38,6 +49,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     } 
 
+    // Equivalente de MethodArgumentNotValidException en el modo reactivo (WebFlux)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Error de validación");
+        response.put("timestamp", new Date());
+        response.put("errors", errors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<Map<String, Object>> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
         Map<String, Object> response = new HashMap<>();
@@ -50,6 +76,51 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    // Equivalente de HttpMessageNotReadableException en el modo reactivo (WebFlux)
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Map<String, Object>> handleServerWebInputException(ServerWebInputException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Cuerpo de la solicitud mal formado o tipo de dato incorrecto");
+        response.put("timestamp", new Date());
+        response.put("message", "Verifique la sintaxis del JSON y los tipos de datos.");
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursorException(InvalidCursorException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Parámetro de paginación inválido");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidFieldsException(InvalidFieldsException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Parámetro 'fields' inválido");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidQueryException(InvalidQueryException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Consulta inválida");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleProductNotFoundException(ProductNotFoundException ex) {
         Map<String, Object> response = new HashMap<>();
@@ -71,4 +142,69 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
+
+    @ExceptionHandler(ProductVersionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleProductVersionConflictException(ProductVersionConflictException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("error", "Conflicto: versión desactualizada");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleJobNotFoundException(JobNotFoundException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.NOT_FOUND.value());
+        response.put("error", "Trabajo no encontrado");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(JobOutputNotAvailableException.class)
+    public ResponseEntity<Map<String, Object>> handleJobOutputNotAvailableException(JobOutputNotAvailableException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("error", "Resultado no disponible");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // La cola de trabajos está llena: el cliente puede reintentar más tarde
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleJobQueueFullException(JobQueueFullException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Demasiados trabajos en espera");
+        response.put("timestamp", new Date());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").body(response);
+    }
+
+    /*
+    El índice único sobre 'name' rechaza el duplicado en la misma inserción o actualización,
+    así que se responde igual que ProductAlreadyExistException (409). El mensaje de MongoDB nombra el índice
+    que rechazó la escritura: cualquier otro (un _id repetido, un índice único agregado después) es un conflicto
+    genérico, sin atribuírselo al nombre del producto.
+    */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicateKeyException(DuplicateKeyException ex) {
+        if (ProductIndexRegistry.isNameConflict(ex.getMessage())) {
+            return handleProductAlreadyExistException(new ProductAlreadyExistException());
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("error", "Conflicto: clave duplicada");
+        response.put("timestamp", new Date());
+        response.put("message", "Ya existe un registro con el mismo valor en un campo único");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
 }
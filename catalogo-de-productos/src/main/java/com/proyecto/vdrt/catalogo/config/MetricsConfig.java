@@ -0,0 +1,123 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.proyecto.vdrt.catalogo.cache.FacetCache;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.index.SuggestIndex;
+import com.proyecto.vdrt.catalogo.index.TagIndex;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas propias del catálogo. Spring Boot ya registra las de HTTP (http.server.requests), los comandos
+ * de MongoDB (mongodb.driver.commands) y el tamaño del pool (mongodb.driver.pool.*); aquí se agregan
+ * los tiempos de los servicios (@Timed), la espera por una conexión del pool y los cachés.
+ * Todo se expone en /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Hace efectivas las anotaciones @Timed de los servicios
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /*
+    Tiempo que espera cada operación hasta obtener una conexión del pool. Si crece, el pool es chico
+    para la concurrencia (ver catalogo.mongo.pool.max-size); si hay fallos, se superó max-wait-time.
+    */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer catalogoMongoPoolMetricsCustomizer(MeterRegistry registry) {
+        Timer checkedOut = poolCheckoutTimer(registry, "success");
+        return builder -> builder.applyToConnectionPoolSettings(settings -> settings.addConnectionPoolListener(new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                poolCheckoutTimer(registry, event.getReason().name().toLowerCase())
+                        .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+        }));
+    }
+
+    private static Timer poolCheckoutTimer(MeterRegistry registry, String status) {
+        return Timer.builder("mongodb.driver.pool.checkout")
+                .description("Espera hasta obtener una conexión del pool de MongoDB")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder catalogoCacheMetrics(ProductCache productCache, FacetCache facetCache) {
+        return registry -> {
+            bindCache(registry, "products", productCache::stats, productCache::estimatedSize);
+            bindCache(registry, "facets", facetCache::stats, facetCache::estimatedSize);
+        };
+    }
+
+    // Tamaño de la réplica local y segundos desde la última vez que el change stream confirmó estar al día
+    @Bean
+    public MeterBinder catalogoReplicaMetrics(CatalogReplica catalogReplica) {
+        return registry -> {
+            Gauge.builder("catalogo.replica.products", catalogReplica, r -> r.snapshot().size())
+                    .description("Productos en la réplica local").register(registry);
+            Gauge.builder("catalogo.replica.staleness", catalogReplica,
+                            r -> r.isReady() ? Duration.between(r.lastSync(), Instant.now()).toMillis() / 1000.0 : Double.NaN)
+                    .description("Antigüedad de la réplica local").baseUnit("seconds").register(registry);
+        };
+    }
+
+    // Etiquetas distintas del diccionario y memoria que ocupan sus bitmaps
+    @Bean
+    public MeterBinder catalogoTagIndexMetrics(TagIndex tagIndex) {
+        return registry -> {
+            Gauge.builder("catalogo.tag_index.tags", tagIndex, TagIndex::tagCount)
+                    .description("Etiquetas distintas en el índice de etiquetas").register(registry);
+            Gauge.builder("catalogo.tag_index.size", tagIndex, TagIndex::sizeInBytes)
+                    .description("Tamaño de los bitmaps del índice de etiquetas").baseUnit("bytes").register(registry);
+        };
+    }
+
+    // Términos (nombres y etiquetas) del índice de autocompletado
+    @Bean
+    public MeterBinder catalogoSuggestIndexMetrics(SuggestIndex suggestIndex) {
+        return registry -> Gauge.builder("catalogo.suggest.terms", suggestIndex, SuggestIndex::termCount)
+                .description("Nombres y etiquetas en el índice de autocompletado").register(registry);
+    }
+
+    // Mismos nombres que los binders de caché de Micrometer (cache.gets, cache.evictions, cache.size)
+    private static void bindCache(MeterRegistry registry, String name, Supplier<CacheStats> stats, Supplier<Long> size) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hitCount())
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().missCount())
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", size, s -> s.get())
+                .tag("cache", name).register(registry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.proyecto.vdrt.catalogo.diagnostics.SlowQueryListener;
+
+/**
+ * Personaliza el MongoClient que crea Spring Boot con los valores de catalogo.mongo.*
+ * (pool, tiempos de espera, compresión y write concern) y define el enrutamiento de lecturas de los listados.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogoMongoProperties.class)
+public class MongoClientConfig {
+
+    private static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer catalogoMongoClientCustomizer(CatalogoMongoProperties properties) {
+        CatalogoMongoProperties.Pool pool = properties.getPool();
+        return builder -> builder.applyToConnectionPoolSettings(settings -> settings
+                .maxSize(pool.getMaxSize())
+                .minSize(pool.getMinSize())
+                .maxConnecting(pool.getMaxConnecting())
+                .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    // Tiempos de espera, compresión del protocolo y write concern
+    @Bean
+    public MongoClientSettingsBuilderCustomizer catalogoMongoTuningCustomizer(CatalogoMongoProperties properties) {
+        CatalogoMongoProperties.Timeouts timeouts = properties.getTimeouts();
+        List<MongoCompressor> compressors = properties.getCompressors().stream().map(MongoClientConfig::compressor).toList();
+        WriteConcern writeConcern = writeConcern(properties.getWriteConcern());
+        return builder -> {
+            builder.applyToSocketSettings(settings -> settings
+                    .connectTimeout(timeouts.getConnect().toMillis(), TimeUnit.MILLISECONDS)
+                    .readTimeout(timeouts.getSocket().toMillis(), TimeUnit.MILLISECONDS));
+            builder.applyToClusterSettings(settings -> settings
+                    .serverSelectionTimeout(timeouts.getServerSelection().toMillis(), TimeUnit.MILLISECONDS));
+            builder.compressorList(compressors);
+            if (writeConcern != null) {
+                builder.writeConcern(writeConcern);
+            }
+        };
+    }
+
+    /**
+     * Preferencia de lectura de los listados (catalogo.mongo.reads.*). Se valida al arrancar:
+     * un nombre inválido o un atraso menor a 90 s fallarían recién en la primera consulta.
+     */
+    @Bean
+    public ReadRouting catalogoReadRouting(CatalogoMongoProperties properties) {
+        CatalogoMongoProperties.Reads reads = properties.getReads();
+        ReadPreference lists = ReadPreference.valueOf(reads.getLists());
+        Duration maxStaleness = reads.getMaxStaleness();
+        if (!lists.equals(ReadPreference.primary()) && maxStaleness != null && !maxStaleness.isZero()) {
+            if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+                throw new IllegalArgumentException("catalogo.mongo.reads.max-staleness debe ser de al menos 90s: " + maxStaleness);
+            }
+            lists = ReadPreference.valueOf(reads.getLists(), List.of(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+        }
+        return new ReadRouting(lists);
+    }
+
+    // zstd y snappy necesitan zstd-jni y snappy-java (incluidas en el pom); zlib viene con el JDK
+    private static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Compresor de MongoDB desconocido en catalogo.mongo.compressors: " + name);
+        };
+    }
+
+    private static WriteConcern writeConcern(CatalogoMongoProperties.WriteConcern properties) {
+        if (properties.getW() == null || properties.getW().isBlank()) {
+            return null;
+        }
+        String w = properties.getW().trim();
+        WriteConcern writeConcern = w.chars().allMatch(Character::isDigit) ? new WriteConcern(Integer.parseInt(w)) : new WriteConcern(w);
+        if (properties.getJournal() != null) {
+            writeConcern = writeConcern.withJournal(properties.getJournal());
+        }
+        if (properties.getTimeout() != null) {
+            writeConcern = writeConcern.withWTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return writeConcern;
+    }
+
+    // Registro de consultas lentas (/actuator/slowqueries); se aplica tanto al cliente sincrónico como al reactivo
+    @Bean
+    public MongoClientSettingsBuilderCustomizer catalogoSlowQueryCustomizer(SlowQueryListener slowQueryListener) {
+        return builder -> builder.addCommandListener(slowQueryListener);
+    }
+}
@@ -0,0 +1,295 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.proyecto.vdrt.catalogo.model.dto.ManagedIndexState;
+import com.proyecto.vdrt.catalogo.model.dto.ManagedIndexStatus;
+
+/**
+ * Reconcilia los índices de la colección "products" con ProductIndexRegistry.
+ * Se ejecuta en segundo plano cuando la aplicación ya arrancó, así el inicio no espera (ni falla si MongoDB
+ * todavía no está disponible). Según catalogo.indexes.mode:
+ * - create: crea la colección si no existe y construye los índices faltantes, cada uno con su propio createIndexes
+ *   (uno que falla, por ejemplo el único con nombres repetidos, no impide los demás) e informa el avance cada
+ *   progress-interval.
+ * - validate: solo verifica; lo que falta queda MISSING (para entornos donde los índices los administra otro).
+ * - none: solo asegura los obligatorios (el único de name y el de texto, sin los que se aceptarían nombres
+ *   repetidos y /search fallaría); los demás quedan SKIPPED (perfil dev).
+ *
+ * Nunca elimina ni modifica un índice existente: si uno tiene el nombre declarado pero otra definición queda
+ * en CONFLICT. Un índice obligatorio que no queda READY se registra como error y pone en DOWN el health
+ * 'productIndexes'.
+ */
+@Component
+public class ProductIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexInitializer.class);
+
+    public enum Mode {
+        CREATE, VALIDATE, NONE
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductIndexRegistry registry;
+
+    private final Map<String, ManagedIndexStatus> states = new LinkedHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${catalogo.indexes.mode:create}")
+    private Mode mode;
+
+    @Value("${catalogo.indexes.progress-interval:5s}")
+    private Duration progressInterval;
+
+    public ProductIndexInitializer(MongoTemplate mongoTemplate, ProductIndexRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.registry = registry;
+        registry.indexes().forEach(index -> states.put(index.name(), status(index, ManagedIndexState.UNKNOWN, null)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcileInBackground(mode);
+    }
+
+    /**
+     * Reconciliación pedida explícitamente (POST /actuator/productindexes). En modo none construye lo que
+     * falta; en modo validate sigue sin crear nada.
+     * @return false si ya hay una reconciliación en curso.
+     */
+    public boolean reconcileOnDemand() {
+        return reconcileInBackground(mode == Mode.VALIDATE ? Mode.VALIDATE : Mode.CREATE);
+    }
+
+    // Lanza la reconciliación en un hilo virtual; devuelve false si ya hay una en curso
+    private boolean reconcileInBackground(Mode effectiveMode) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("product-indexes").start(() -> {
+            try {
+                reconcile(effectiveMode);
+            } catch (RuntimeException ex) {
+                log.error("No se pudieron verificar los índices de la colección products", ex);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    // Estado de cada índice declarado, en el orden del registro
+    public synchronized List<ManagedIndexStatus> states() {
+        return states.values().stream()
+                .map(s -> new ManagedIndexStatus(s.getName(), s.getState(), s.isRequired(), s.getKeys(), s.getPurpose(),
+                        s.getDetail(), s.getProgress()))
+                .toList();
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    void reconcile(Mode runMode) {
+        if (runMode != Mode.VALIDATE && !mongoTemplate.collectionExists(ProductIndexRegistry.COLLECTION)) {
+            mongoTemplate.createCollection(ProductIndexRegistry.COLLECTION);
+            log.info("Colección {} creada", ProductIndexRegistry.COLLECTION);
+        }
+
+        Map<String, Document> existing = new HashMap<>();
+        mongoTemplate.getCollection(ProductIndexRegistry.COLLECTION).listIndexes()
+                .forEach(index -> existing.put(index.getString("name"), index));
+
+        List<ProductIndexRegistry.ManagedIndex> missing = new ArrayList<>();
+        for (ProductIndexRegistry.ManagedIndex index : registry.indexes()) {
+            if (runMode == Mode.NONE && !index.required()) {
+                update(index, ManagedIndexState.SKIPPED, null);
+                continue;
+            }
+            Document declared = specification(index);
+            Document current = existing.get(index.name());
+            if (current != null) {
+                if (sameDefinition(declared, current)) {
+                    update(index, ManagedIndexState.READY, null);
+                } else {
+                    update(index, ManagedIndexState.CONFLICT, "Existe con otra definición: " + current.toJson());
+                }
+                continue;
+            }
+            // Un índice equivalente con otro nombre sirve para las consultas, pero no para los hints por nombre
+            String equivalent = existing.values().stream()
+                    .filter(other -> sameDefinition(declared, other))
+                    .map(other -> other.getString("name"))
+                    .findFirst().orElse(null);
+            if (equivalent != null) {
+                update(index, ManagedIndexState.READY, "Existe con el nombre " + equivalent);
+            } else if (runMode != Mode.VALIDATE) {
+                missing.add(index);
+            } else {
+                update(index, ManagedIndexState.MISSING, null);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            build(missing);
+        }
+        report(runMode);
+    }
+
+    private void build(List<ProductIndexRegistry.ManagedIndex> missing) {
+        missing.forEach(index -> update(index, ManagedIndexState.BUILDING, null));
+        log.info("Construyendo {} índice(s) en products: {}", missing.size(),
+                missing.stream().map(ProductIndexRegistry.ManagedIndex::name).toList());
+
+        // Uno por comando: createIndexes es atómico y un índice único que falla se llevaría a todos los demás.
+        // Los obligatorios primero, para que estén listos cuanto antes
+        missing.stream()
+                .sorted(Comparator.comparing((ProductIndexRegistry.ManagedIndex index) -> !index.required()))
+                .forEach(this::build);
+    }
+
+    private void build(ProductIndexRegistry.ManagedIndex index) {
+        Thread progress = Thread.ofVirtual().name("product-indexes-progress").start(() -> pollProgress(index));
+        try {
+            mongoTemplate.getDb().runCommand(new Document("createIndexes", ProductIndexRegistry.COLLECTION)
+                    .append("indexes", List.of(specification(index))));
+            update(index, ManagedIndexState.READY, null);
+        } catch (MongoException ex) {
+            update(index, ManagedIndexState.FAILED, ex.getMessage());
+        } finally {
+            progress.interrupt();
+        }
+    }
+
+    // Consulta $currentOp para informar cuántos documentos lleva recorridos la construcción
+    private void pollProgress(ProductIndexRegistry.ManagedIndex building) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(progressInterval);
+                Document result = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin").runCommand(
+                        new Document("currentOp", true).append("command.createIndexes", ProductIndexRegistry.COLLECTION));
+                for (Document operation : result.getList("inprog", Document.class, List.of())) {
+                    if (operation.get("progress") instanceof Document progress
+                            && progress.get("done") instanceof Number done && progress.get("total") instanceof Number total) {
+                        String text = done + "/" + total + " (" + (total.longValue() == 0 ? 100 : done.longValue() * 100 / total.longValue()) + "%)";
+                        progress(building, text);
+                        log.info("Construcción del índice {}: {} - {}", building.name(), text, operation.getString("msg"));
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (MongoException ex) {
+            // Sin permisos sobre $currentOp la construcción sigue igual, solo sin avance
+            log.debug("No se pudo consultar el avance de la construcción de índices", ex);
+        }
+    }
+
+    // Un índice obligatorio que no quedó listo se informa como error: alguna operación va a fallar
+    private void report(Mode runMode) {
+        for (ManagedIndexStatus status : states()) {
+            if (status.getState() == ManagedIndexState.READY) {
+                continue;
+            }
+            if (status.isRequired()) {
+                log.error("Índice obligatorio {} en estado {} ({}): {}", status.getName(), status.getState(),
+                        status.getPurpose(), Objects.requireNonNullElse(status.getDetail(), "sin detalle"));
+            } else {
+                log.warn("Índice {} en estado {}: {} recorrerán la colección. {}", status.getName(), status.getState(),
+                        status.getPurpose(), Objects.requireNonNullElse(status.getDetail(), ""));
+            }
+        }
+        log.info("Índices de la colección products verificados (modo {})", runMode.name().toLowerCase());
+    }
+
+    // Documento de createIndexes: { key, name, ...opciones } tal como lo arma Spring Data para la definición
+    private static Document specification(ProductIndexRegistry.ManagedIndex index) {
+        Document specification = new Document("key", index.definition().getIndexKeys());
+        specification.putAll(index.definition().getIndexOptions());
+        return specification;
+    }
+
+    /*
+    Compara claves (en orden) y las opciones que cambian el comportamiento: unique, collation y, en los
+    índices de texto, pesos e idioma. listIndexes devuelve los de texto como { _fts: "text", _ftsx: 1 }
+    con el peso de todos los campos; la definición de Spring solo trae los pesos distintos de 1.
+    */
+    private static boolean sameDefinition(Document declared, Document current) {
+        Document declaredKeys = declared.get("key", Document.class);
+        Document currentKeys = current.get("key", Document.class);
+        if (declaredKeys.containsValue("text")) {
+            Map<String, Double> declaredWeights = new HashMap<>();
+            declaredKeys.keySet().forEach(field -> declaredWeights.put(field, 1.0));
+            declaredWeights.putAll(weights(declared.get("weights", Document.class)));
+            if (!currentKeys.containsKey("_fts")
+                    || !declaredWeights.equals(weights(current.get("weights", Document.class)))
+                    || !Objects.equals(declared.get("default_language"), current.get("default_language"))) {
+                return false;
+            }
+        } else if (!numericKeys(declaredKeys).equals(numericKeys(currentKeys))) {
+            return false;
+        }
+        return declared.getBoolean("unique", false) == current.getBoolean("unique", false)
+                && sameCollation(declared.get("collation", Document.class), current.get("collation", Document.class));
+    }
+
+    // Las direcciones pueden llegar como Integer, Long o Double según quién creó el índice
+    private static List<String> numericKeys(Document keys) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + (entry.getValue() instanceof Number n ? Integer.toString(n.intValue()) : entry.getValue()))
+                .toList();
+    }
+
+    private static Map<String, Double> weights(Document weights) {
+        Map<String, Double> normalized = new HashMap<>();
+        if (weights != null) {
+            weights.forEach((field, weight) -> normalized.put(field, ((Number) weight).doubleValue()));
+        }
+        return normalized;
+    }
+
+    // MongoDB completa la collation con todos sus valores por defecto: se comparan idioma y fuerza
+    private static boolean sameCollation(Document declared, Document current) {
+        if (declared == null || current == null) {
+            return declared == current;
+        }
+        return Objects.equals(declared.get("locale"), current.get("locale"))
+                && Objects.equals(((Number) declared.getOrDefault("strength", 3)).intValue(),
+                        ((Number) current.getOrDefault("strength", 3)).intValue());
+    }
+
+    private synchronized void update(ProductIndexRegistry.ManagedIndex index, ManagedIndexState state, String detail) {
+        states.put(index.name(), status(index, state, detail));
+    }
+
+    private synchronized void progress(ProductIndexRegistry.ManagedIndex index, String progress) {
+        ManagedIndexStatus status = states.get(index.name());
+        if (status != null && status.getState() == ManagedIndexState.BUILDING) {
+            status.setProgress(progress);
+        }
+    }
+
+    private static ManagedIndexStatus status(ProductIndexRegistry.ManagedIndex index, ManagedIndexState state, String detail) {
+        return new ManagedIndexStatus(index.name(), state, index.required(), index.definition().getIndexKeys().toJson(),
+                index.purpose(), detail, null);
+    }
+}
@@ -0,0 +1,108 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registro declarativo de los índices de la colección "products": qué índices deben existir,
+ * para qué consulta sirve cada uno y si la aplicación funciona correctamente sin él.
+ * ProductIndexInitializer compara este registro con los índices reales y crea los que faltan.
+ *
+ * Los índices se declaran aquí y no con anotaciones en Product (spring.data.mongodb.auto-index-creation=false):
+ * así se construyen en segundo plano, todos juntos y con el progreso a la vista, en lugar de al crear el contexto.
+ */
+@Component
+public class ProductIndexRegistry {
+
+    public static final String COLLECTION = "products";
+
+    public static final String TEXT_INDEX_NAME = "products_text";
+    public static final String SPECS_INDEX_NAME = "products_specs";
+    public static final String SPECS_NUMERIC_INDEX_NAME = "products_specs_numeric";
+    public static final String NAME_INDEX_NAME = "products_name_unique";
+    public static final String PRICE_INDEX_NAME = "products_price";
+    public static final String TAGS_INDEX_NAME = "products_tags";
+
+    private final List<ManagedIndex> indexes;
+
+    /**
+     * Índice administrado por la aplicación.
+     * @param name Nombre del índice en MongoDB (los hints lo usan).
+     * @param definition Claves y opciones.
+     * @param required true si sin él alguna operación falla o se comporta mal (no solo más lenta).
+     * @param purpose Consultas que lo usan.
+     */
+    public record ManagedIndex(String name, IndexDefinition definition, boolean required, String purpose) {
+    }
+
+    /**
+     * Indica si un error de clave duplicada (E11000) lo produjo el índice único de 'name'.
+     * MongoDB nombra el índice en el mensaje ("... index: products_name_unique dup key: ...").
+     */
+    public static boolean isNameConflict(String duplicateKeyMessage) {
+        return duplicateKeyMessage != null && duplicateKeyMessage.contains("index: " + NAME_INDEX_NAME + " ");
+    }
+
+    public ProductIndexRegistry(@Value("${catalogo.products.name-case-insensitive:true}") boolean nameCaseInsensitive) {
+        // Nombre único: la inserción es atómica, sin consultar antes si el nombre existe.
+        // Con la collation de fuerza 2, "Laptop" y "laptop" se consideran el mismo nombre.
+        Index nameIndex = new Index().named(NAME_INDEX_NAME).on("name", Sort.Direction.ASC).unique();
+        if (nameCaseInsensitive) {
+            nameIndex.collation(Collation.of("es").strength(Collation.ComparisonLevel.secondary()));
+        }
+
+        this.indexes = List.of(
+                new ManagedIndex(NAME_INDEX_NAME, nameIndex, true,
+                        "Unicidad del nombre (409 en altas y modificaciones)"),
+
+                // Tokeniza y aplica stemming en español, ignora acentos y mayúsculas.
+                // El nombre pesa más que la descripción al calcular la relevancia (textScore).
+                new ManagedIndex(TEXT_INDEX_NAME, TextIndexDefinition.builder()
+                        .named(TEXT_INDEX_NAME)
+                        .onField("name", 3F)
+                        .onField("generalDescription")
+                        .withDefaultLanguage("spanish")
+                        .build(), true,
+                        "/search, /facets y /query con palabra: $text falla si no existe"),
+
+                // Compuesto multikey del patrón de atributos: resuelve cualquier clave de especificación
+                new ManagedIndex(SPECS_INDEX_NAME, new Index()
+                        .named(SPECS_INDEX_NAME)
+                        .on("specs.k", Sort.Direction.ASC)
+                        .on("specs.vNorm", Sort.Direction.ASC), false,
+                        "/specification y /query con especificaciones"),
+
+                // Rangos sobre el valor numérico canónico: igualdad en clave y unidad antes del rango en 'n'
+                new ManagedIndex(SPECS_NUMERIC_INDEX_NAME, new Index()
+                        .named(SPECS_NUMERIC_INDEX_NAME)
+                        .on("specs.k", Sort.Direction.ASC)
+                        .on("specs.u", Sort.Direction.ASC)
+                        .on("specs.n", Sort.Direction.ASC), false,
+                        "/specification con mallorigal / menorigual"),
+
+                // Rango y orden por precio con desempate por _id (cursor). Incluye 'name' para que el
+                // resumen { _id, name, price } se responda solo con el índice (consulta cubierta)
+                new ManagedIndex(PRICE_INDEX_NAME, new Index()
+                        .named(PRICE_INDEX_NAME)
+                        .on("price", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .on("name", Sort.Direction.ASC), false,
+                        "/price, /price/count, /price/top, carga del índice de precios en memoria y orden por precio en /query"),
+
+                // Multikey de etiquetas
+                new ManagedIndex(TAGS_INDEX_NAME, new Index().named(TAGS_INDEX_NAME).on("tags", Sort.Direction.ASC), false,
+                        "/tag, facetas filtradas por etiqueta y /query con tags"));
+    }
+
+    public List<ManagedIndex> indexes() {
+        return indexes;
+    }
+}
@@ -0,0 +1,53 @@
+package com.proyecto.vdrt.catalogo.config;
+
+
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Enrutamiento de lecturas por operación. Los listados y búsquedas pueden ir a los secundarios
+ * (catalogo.mongo.reads.lists) para descargar al primario; el resto de las operaciones no se toca y usa
+ * la preferencia del cliente (primario), así una lectura por ID después de una escritura ve esa escritura.
+ *
+ * Usan los listados: GET /products y su exportación, búsquedas por texto, etiqueta, especificación y precio,
+ * /products/query (también su explain), las facetas, el autocompletado sin índice en memoria, los trabajos de
+ * exportación y los mismos listados del modo reactivo. Se quedan en el primario las lecturas por ID, las
+ * comprobaciones que siguen a una escritura (versión en conflicto, existentes en /products/bulk), las cargas de
+ * los índices en memoria (deben ver las escrituras anteriores a los eventos que aplican después), los documentos
+ * de una página resuelta por el índice de etiquetas (sus IDs vienen de ese índice) y las estimaciones del
+ * planificador (conteos acotados y metadatos, no listados).
+ */
+public class ReadRouting {
+
+    private final ReadPreference lists;
+
+    public ReadRouting(ReadPreference lists) {
+        this.lists = lists;
+    }
+
+    // La consulta con la preferencia de los listados; sin cambios si los listados van al primario
+    public Query forList(Query query) {
+        return listsOnPrimary() ? query : query.withReadPreference(lists);
+    }
+
+    // Lo mismo para los listados que usan el driver directamente
+    public <T> MongoCollection<T> forList(MongoCollection<T> collection) {
+        return listsOnPrimary() ? collection : collection.withReadPreference(lists);
+    }
+
+    // Lo mismo para las agregaciones (facetas)
+    public AggregationOptions.Builder forList(AggregationOptions.Builder options) {
+        return listsOnPrimary() ? options : options.readPreference(lists);
+    }
+
+    public boolean listsOnPrimary() {
+        return ReadPreference.primary().equals(lists);
+    }
+
+    public ReadPreference lists() {
+        return lists;
+    }
+}
@@ -0,0 +1,115 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.proyecto.vdrt.catalogo.model.dto.JobResponse;
+import com.proyecto.vdrt.catalogo.service.JobService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST de los trabajos en segundo plano sobre el catálogo completo.
+ * Los pedidos responden 202 con el trabajo encolado; su estado se consulta en /jobs/{id}.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/jobs")
+@Tag(name = "Trabajos en segundo plano", description = "Exportaciones y procesos que recorren todo el catálogo.")
+public class JobController {
+
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Encola una exportación del catálogo completo a un archivo gzip.
+     * @param format "ndjson" (por defecto), "json" o "csv".
+     * @param fields Campos a exportar separados por comas (opcional).
+     * @return El trabajo encolado; Location apunta a su estado.
+     */
+    @PostMapping("/export")
+    @Operation(summary = "Exporta el catálogo en segundo plano",
+            description = "Genera un archivo gzip (NDJSON, JSON o CSV) recorriendo la colección con un cursor. Al terminar se descarga desde /jobs/{id}/output.")
+    public ResponseEntity<JobResponse> export(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String fields) {
+        return accepted(jobService.submitExport(format, fields));
+    }
+
+    /**
+     * Encola la normalización de las especificaciones (campo 'specs').
+     * @param all true para recalcular todos los productos; false (por defecto) solo los que no tienen 'specs'.
+     * @return El trabajo encolado.
+     */
+    @PostMapping("/specifications")
+    @Operation(summary = "Normaliza las especificaciones en segundo plano",
+            description = "Recalcula el campo normalizado que usan las búsquedas por especificación, en lotes.")
+    public ResponseEntity<JobResponse> normalizeSpecifications(@RequestParam(defaultValue = "false") boolean all) {
+        return accepted(jobService.submitSpecificationNormalization(all));
+    }
+
+    /**
+     * Estado y avance de un trabajo.
+     * @param id Identificador del trabajo.
+     * @return Estado, elementos procesados, porcentaje y, si terminó, la ruta del archivo.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Consulta un trabajo", description = "Retorna el estado, el avance y el resultado de un trabajo.")
+    public JobResponse get(@PathVariable String id) {
+        return jobService.get(id);
+    }
+
+    /**
+     * Cancela un trabajo en cola o en ejecución.
+     * @param id Identificador del trabajo.
+     * @return El trabajo; si estaba en ejecución se detiene en su próximo avance.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancela un trabajo",
+            description = "Un trabajo en cola se cancela enseguida; uno en ejecución se detiene entre un lote y el siguiente.")
+    public JobResponse cancel(@PathVariable String id) {
+        return jobService.cancel(id);
+    }
+
+    /**
+     * Descarga el archivo generado por una exportación terminada.
+     * @param id Identificador del trabajo.
+     * @return Archivo gzip.
+     */
+    @GetMapping("/{id}/output")
+    @Operation(summary = "Descarga el resultado de un trabajo", description = "Retorna el archivo gzip de una exportación terminada.")
+    public ResponseEntity<Resource> output(@PathVariable String id) {
+        Path output = jobService.getOutput(id);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(output.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(output));
+    }
+
+    private static ResponseEntity<JobResponse> accepted(JobResponse job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/jobs/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
@@ -0,0 +1,69 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import java.io.InputStream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.vdrt.catalogo.model.dto.BulkResultResponse;
+import com.proyecto.vdrt.catalogo.service.ProductBulkService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para cargas masivas del catálogo.
+ * Los cuerpos se leen en streaming: un arreglo JSON o NDJSON (un elemento por línea).
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/products/bulk")
+@Tag(name = "Operaciones masivas", description = "Creación, actualización y eliminación de productos en lote.")
+public class ProductBulkController {
+
+    private final ProductBulkService productBulkService;
+
+    public ProductBulkController(ProductBulkService productBulkService) {
+        this.productBulkService = productBulkService;
+    }
+
+    /**
+     * Crea muchos productos en una sola petición.
+     * @param body Arreglo JSON o NDJSON de ProductRequest.
+     * @return Reporte con el resultado de cada producto.
+     */
+    @PostMapping
+    @Operation(summary = "Crea productos en lote",
+            description = "Recibe un arreglo JSON o NDJSON de productos, los valida uno a uno y los inserta en lotes. Retorna el resultado de cada elemento.")
+    public BulkResultResponse createAll(InputStream body) {
+        return productBulkService.createAll(body);
+    }
+
+    /**
+     * Actualiza muchos productos en una sola petición.
+     * @param body Arreglo JSON o NDJSON de productos, cada uno con su "id".
+     * @return Reporte con el resultado de cada producto.
+     */
+    @PutMapping
+    @Operation(summary = "Actualiza productos en lote",
+            description = "Recibe un arreglo JSON o NDJSON de productos con su ID y los actualiza en lotes. Retorna el resultado de cada elemento.")
+    public BulkResultResponse updateAll(InputStream body) {
+        return productBulkService.updateAll(body);
+    }
+
+    /**
+     * Elimina muchos productos en una sola petición.
+     * @param body Arreglo JSON o NDJSON de IDs.
+     * @return Reporte con el resultado de cada ID.
+     */
+    @DeleteMapping
+    @Operation(summary = "Elimina productos en lote",
+            description = "Recibe un arreglo JSON o NDJSON de IDs y elimina los productos existentes. Retorna el resultado de cada elemento.")
+    public BulkResultResponse deleteAll(InputStream body) {
+        return productBulkService.deleteAll(body);
+    }
+}
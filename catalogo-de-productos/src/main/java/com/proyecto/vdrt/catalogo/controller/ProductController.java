@@ -1,20 +1,44 @@
 package com.proyecto.vdrt.catalogo.controller;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.vdrt.catalogo.cache.CachedProduct;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.RawProductJson;
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
 import com.proyecto.vdrt.catalogo.service.ProductService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,26 +53,90 @@ import org.springframework.web.bind.annotation.PutMapping;
  * Expone endpoints para operaciones CRUD y búsquedas avanzadas.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/products")
 @Tag(name = "Gestión de Productos", description = "Operaciones relacionadas con la gestión de productos en el catálogo.")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
     }
 
 
     /**
-     * Obtiene el listado completo de todos los productos disponibles.
-     * @return Lista de objetos ProductResponse.
+     * Obtiene los productos del catálogo paginados por cursor.
+     * @param cursor Token opaco de continuación devuelto en la página anterior (opcional).
+     * @param size Cantidad de productos por página (opcional).
+     * @param fields Campos a devolver separados por comas, ej. "name,price" (opcional).
+     * @return Página de productos con el cursor de la siguiente página.
      */
     @GetMapping
-    @Operation(summary = "Obtiene todos los productos",
-            description = "Retorna una lista de todos los productos disponibles en el catálogo.")
-    public List<ProductResponse> getAllProducts() {
-        return productService.getAll();
+    @Operation(summary = "Obtiene los productos paginados",
+            description = "Retorna una página de productos ordenada por ID. Para pedir la siguiente página se envía el 'next_cursor' recibido como parámetro 'cursor'.")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductPageResponse.class)))
+    public Object getAllProducts(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String fields) {
+        // Con catalogo.serialization.raw-bson.enabled los documentos se escriben en JSON sin decodificarlos (mismo JSON)
+        if (productService.usesRawSerialization()) {
+            return productService.getRawPage(cursor, size, fields);
+        }
+        return productService.getPage(cursor, size, fields);
+    }
+
+    /**
+     * Exporta el catálogo completo en streaming, sin cargarlo en memoria.
+     * @param format "ndjson" (un producto por línea) o "json" (arreglo JSON enviado por chunks).
+     * @param fields Campos a exportar separados por comas (opcional).
+     * @return Cuerpo que se escribe directamente desde el cursor de MongoDB.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Exporta todos los productos",
+            description = "Envía el catálogo completo en streaming como NDJSON (por defecto) o como un arreglo JSON.")
+    public ResponseEntity<StreamingResponseBody> exportAll(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String fields) {
+        boolean ndjson = !"json".equalsIgnoreCase(format);
+        // Se valida antes de empezar a escribir, así un campo inválido todavía puede responder 400
+        ProductFields projection = ProductFields.parse(fields);
+
+        StreamingResponseBody body = productService.usesRawSerialization()
+                ? out -> export(out, ndjson, productService.streamAllRaw(fields),
+                        (document, generator) -> RawProductJson.write(document, projection, generator))
+                : out -> export(out, ndjson, productService.streamAll(fields), (product, generator) -> generator.writeObject(product));
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Escribe un elemento del export en el generador
+    @FunctionalInterface
+    private interface ExportWriter<T> {
+        void write(T item, JsonGenerator generator) throws IOException;
+    }
+
+    private <T> void export(OutputStream out, boolean ndjson, Stream<T> items, ExportWriter<T> writer) throws IOException {
+        try (items; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            Iterator<T> it = items.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next(), generator);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
     }
 
     /**
@@ -56,24 +144,40 @@ public class ProductController {
      * @param id Identificador único del producto.
      * @return El objeto ProductResponse correspondiente al ID.
      */
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Obtiene un producto por ID",
             description = "Retorna un producto específico buscando por su identificador único.")
-
-    public ProductResponse getById(@PathVariable String id) {
-        return productService.getById(id);
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductResponse.class)))
+    @ApiResponse(responseCode = "304", description = "El If-None-Match coincide con la versión actual")
+    public ResponseEntity<byte[]> getById(@PathVariable String id, WebRequest request) throws JsonProcessingException {
+        // Una sola lectura: el ETag fuerte (versión del producto) y el cuerpo salen de la misma entrada
+        CachedProduct cached = productService.getCachedById(id);
+        ProductResponse product = cached.response();
+        if (product.getVersion() != null && request.checkNotModified("\"" + product.getVersion() + "\"",
+                product.getLastModified() != null ? product.getLastModified().toEpochMilli() : -1)) {
+            return null;
+        }
+        // El JSON puede venir ya serializado desde el caché de productos; si no, se serializa solo para el 200
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.json() != null ? cached.json() : objectMapper.writeValueAsBytes(product));
     }
 
     /**
      * Busca productos que contengan una palabra clave en su nombre o descripción.
      * @param word Palabra clave para la búsqueda.
-     * @return Lista de productos que coinciden con la búsqueda.
+     * @param page Número de página (desde 0).
+     * @param size Cantidad de productos por página (opcional).
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @return Lista de productos que coinciden con la búsqueda, ordenados por relevancia.
      */
     @GetMapping("/search")
     @Operation(summary = "Busca productos por palabra clave",
-            description = "Retorna una lista de productos cuyo nombre o descripción contengan la palabra clave especificada.")
-    public List<ProductResponse> getPerWord(@RequestParam(name = "palabra") String word) {
-        return productService.getPerWord(word);
+            description = "Búsqueda de texto completo en nombre y descripción (sin distinguir acentos ni mayúsculas, con stemming en español). Los resultados se ordenan por relevancia.")
+    public List<ProductResponse> getPerWord(@RequestParam(name = "palabra") String word,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        return productService.getPerWord(word, page, size, fields);
     }
 
     /**
@@ -101,49 +205,138 @@ public class ProductController {
         return productService.updateById(id, product);
     }
 
+    /**
+     * Actualiza parcialmente un producto: solo los campos enviados.
+     * @param id Identificador del producto a actualizar.
+     * @param patch Campos a modificar, especificaciones a asignar/eliminar y etiquetas a agregar/quitar.
+     * @return El producto actualizado.
+     */
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualiza parcialmente un producto",
+            description = "Modifica solo los campos enviados en una única operación atómica. Si se envía 'version' y el producto cambió desde entonces, responde 409.")
+    public ProductResponse patchById(@PathVariable String id, @Valid @RequestBody ProductPatchRequest patch) {
+        return productService.patchById(id, patch);
+    }
+
     /**
      * Busca productos que tengan una etiqueta (tag) específica.
      * @param tag Etiqueta a buscar.
+     * @param fields Campos a devolver separados por comas (opcional).
      * @return Lista de productos asociados a esa etiqueta.
      */
     @GetMapping("/tag")
     @Operation(summary = "Busca productos por etiqueta",
             description = "Retorna una lista de productos que tienen una etiqueta (tag) específica.")
-    public List<ProductResponse> getByTag(@RequestParam String tag) {
-        return productService.getByTag(tag);
+    public List<ProductResponse> getByTag(@RequestParam String tag, @RequestParam(required = false) String fields) {
+        return productService.getByTag(tag, fields);
+    }
+
+    /**
+     * Busca productos con una expresión booleana de etiquetas.
+     * Ejemplo: ?expr=gamer AND (laptop OR pc) AND NOT usado
+     * @param expr Expresión con AND, OR, NOT (o &amp;, |, !) y paréntesis; etiquetas con espacios entre comillas.
+     * @param page Número de página (desde 0).
+     * @param size Tamaño de página (opcional).
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @return La página de productos y el total de coincidencias.
+     */
+    @GetMapping(value = "/tag", params = "expr")
+    @Operation(summary = "Busca productos por expresión de etiquetas",
+            description = "Combina etiquetas con AND, OR y NOT. Con el índice de etiquetas activo se resuelve en memoria con bitmaps.")
+    public TagQueryResponse getByTagExpression(@RequestParam String expr, @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String fields) {
+        return productService.getByTagExpression(expr, page, size, fields);
     }
     
     /**
      * Busca productos por una característica específica en sus especificaciones técnicas.
-     * Ejemplo: ?llave=RAM&valor=16GB
+     * Ejemplo: ?llave=RAM&valor=16GB, o un rango: ?llave=RAM&mallorigal=16GB&menorigual=64GB
      * 
      * @param key La clave de la especificación (ej. "Color", "Memoria").
-     * @param value El valor a buscar (ej. "Rojo", "16GB").
+     * @param value El valor a buscar (ej. "Rojo", "16GB"); si se omite se busca por rango.
+     * @param min Límite inferior del rango, con unidad opcional (ej. "16GB", "13 pulgadas").
+     * @param max Límite superior del rango, con unidad opcional.
+     * @param fields Campos a devolver separados por comas (opcional).
      * @return Lista de productos que coinciden.
      */
     @GetMapping("/specification")
     @Operation(summary = "Busca productos por especificación técnica",
-            description = "Retorna una lista de productos que tienen una especificación técnica con una clave y un valor específicos.")
-    public List<ProductResponse> getBySpecification (@RequestParam(name = "llave") String key, @RequestParam(name = "valor") String value){
-        return productService.getBySpecification(key, value);
+            description = "Retorna una lista de productos que tienen una especificación técnica con una clave y un valor específicos, "
+                    + "o cuyo valor numérico está dentro de un rango (las unidades se convierten: 16384MB = 16GB, 2.54cm = 1 pulgada).")
+    public List<ProductResponse> getBySpecification (@RequestParam(name = "llave") String key,
+            @RequestParam(name = "valor", required = false) String value,
+            @RequestParam(name = "mallorigal", required = false) String min, @RequestParam(name = "menorigual", required = false) String max,
+            @RequestParam(required = false) String fields){
+        if (value != null) {
+            return productService.getBySpecification(key, value, fields);
+        }
+        return productService.getBySpecificationRange(key, min, max, fields);
     }
         
     /**
-     * Filtra productos por un rango de precios.
+     * Filtra productos por un rango de precios, ordenados por precio y paginados por cursor.
      * 
      * @param min Precio mínimo (mayor o igual).
      * @param max Precio máximo (menor o igual).
-     * @return Lista de productos dentro del rango.
+     * @param order "asc" (por defecto) o "desc".
+     * @param cursor Cursor devuelto por la página anterior (next_cursor).
+     * @param size Cantidad de productos por página.
+     * @param summary true para devolver solo id, nombre y precio (equivale a fields=name,price).
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @return Página de productos dentro del rango.
      */
     @GetMapping("/price")
     @Operation(summary = "Filtra productos por rango de precios",
-            description = "Retorna una lista de productos cuyo precio se encuentra dentro de un rango especificado.")
-    public List<ProductResponse> getByPriceRange(@RequestParam(name = "mallorigal") Double min, @RequestParam(name = "menorigual") Double max){
-        return productService.getByPriceRange(min, max);
+            description = "Retorna una página de productos cuyo precio se encuentra dentro de un rango especificado, ordenada por precio. "
+                    + "Con resumen=true solo devuelve id, nombre y precio, leídos directamente del índice.")
+    public ProductPageResponse getByPriceRange(@RequestParam(name = "mallorigal") Double min, @RequestParam(name = "menorigual") Double max,
+            @RequestParam(name = "orden", defaultValue = "asc") String order, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(name = "resumen", defaultValue = "false") boolean summary,
+            @RequestParam(required = false) String fields){
+        return productService.getByPriceRange(min, max, isDescending(order), cursor, size, priceFields(summary, fields));
+    }
+
+    /**
+     * Cuenta los productos dentro de un rango de precios.
+     * 
+     * @param min Precio mínimo (opcional).
+     * @param max Precio máximo (opcional).
+     * @return Cantidad de productos y origen de la respuesta (memoria o MongoDB).
+     */
+    @GetMapping("/price/count")
+    @Operation(summary = "Cuenta productos por rango de precios",
+            description = "Con catalogo.price-index.enabled=true responde el índice de precios en memoria sin consultar MongoDB.")
+    public PriceCountResponse countByPriceRange(@RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max){
+        return productService.countByPriceRange(min, max);
+    }
+
+    /**
+     * Los N productos más baratos (o más caros con orden=desc) del rango.
+     * 
+     * @param min Precio mínimo (opcional).
+     * @param max Precio máximo (opcional).
+     * @param order "asc" (por defecto) o "desc".
+     * @param size Cantidad de productos.
+     * @return Lista de productos con id y precio.
+     */
+    @GetMapping("/price/top")
+    @Operation(summary = "Productos más baratos o más caros",
+            description = "Retorna solo id y precio. Con catalogo.price-index.enabled=true responde el índice en memoria sin consultar MongoDB.")
+    public List<ProductResponse> getTopByPrice(@RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max,
+            @RequestParam(name = "orden", defaultValue = "asc") String order, @RequestParam(required = false) Integer size){
+        return productService.getTopByPrice(min, max, isDescending(order), size);
+    }
+
+    private static boolean isDescending(String order) {
+        return "desc".equalsIgnoreCase(order);
+    }
+
+    // 'resumen' es un atajo de fields=name,price; si también se envía 'fields', manda 'fields'
+    private static String priceFields(boolean summary, String fields) {
+        return (summary && (fields == null || fields.isBlank())) ? "name,price" : fields;
     }
-    
-    
-    
 
     /**
      * Elimina un producto del catálogo por su ID.
@@ -0,0 +1,53 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.vdrt.catalogo.model.dto.FacetResponse;
+import com.proyecto.vdrt.catalogo.service.ProductFacetService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST de navegación por facetas.
+ * Acepta los mismos filtros que las búsquedas (palabra, etiqueta y rango de precio) y los combina.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/products/facets")
+@Tag(name = "Facetas", description = "Conteos por etiqueta, especificación e intervalo de precio.")
+public class ProductFacetController {
+
+    private final ProductFacetService productFacetService;
+
+    public ProductFacetController(ProductFacetService productFacetService) {
+        this.productFacetService = productFacetService;
+    }
+
+    /**
+     * Calcula las facetas de los productos que cumplen el filtro.
+     * @param word Búsqueda de texto completo (opcional).
+     * @param tag Etiqueta (opcional).
+     * @param min Precio mínimo (opcional).
+     * @param max Precio máximo (opcional).
+     * @param buckets Cantidad de intervalos del histograma de precios (opcional).
+     * @param limit Máximo de valores por faceta (opcional).
+     * @return Total de productos y conteos por faceta.
+     */
+    @GetMapping
+    @Operation(summary = "Facetas del catálogo",
+            description = "Retorna el total de productos, los conteos por etiqueta y por especificación, y un histograma de precios. "
+                    + "Los resultados se guardan unos segundos en caché por filtro.")
+    public FacetResponse getFacets(@RequestParam(name = "palabra", required = false) String word,
+            @RequestParam(required = false) String tag,
+            @RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max,
+            @RequestParam(name = "intervalos", required = false) Integer buckets,
+            @RequestParam(name = "limite", required = false) Integer limit) {
+        return productFacetService.getFacets(word, tag, min, max, buckets, limit);
+    }
+}
@@ -0,0 +1,78 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryResponse;
+import com.proyecto.vdrt.catalogo.service.ProductQueryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST de la búsqueda combinada: reemplaza varias llamadas a /search, /tag,
+ * /specification y /price (y la intersección en el cliente) por una sola consulta.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/products/query")
+@Tag(name = "Búsqueda combinada", description = "Texto, etiquetas, especificaciones y precio en una sola consulta.")
+public class ProductQueryController {
+
+    private final ProductQueryService productQueryService;
+
+    public ProductQueryController(ProductQueryService productQueryService) {
+        this.productQueryService = productQueryService;
+    }
+
+    /**
+     * Busca productos que cumplan todos los criterios enviados.
+     * @param word Búsqueda de texto completo (opcional).
+     * @param tags Etiquetas; se pueden repetir o separar por comas (opcional).
+     * @param tagsMode "all" (por defecto) o "any".
+     * @param specs Especificaciones "clave:valor"; se pueden repetir (opcional).
+     * @param min Precio mínimo (opcional).
+     * @param max Precio máximo (opcional).
+     * @param sort "id", "price_asc", "price_desc" o "relevance" (por defecto con palabra).
+     * @param cursor Cursor devuelto por la página anterior (next_cursor).
+     * @param size Cantidad de productos por página.
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @param explain true para incluir el plan elegido y el explain de MongoDB.
+     * @return Página de productos.
+     */
+    @GetMapping
+    @Operation(summary = "Búsqueda combinada de productos",
+            description = "Combina texto, etiquetas (todas o alguna), especificaciones y rango de precio en una sola consulta con orden y cursor. "
+                    + "Con explain=true (si catalogo.query.explain-enabled=true) incluye el plan usado.")
+    public ProductQueryResponse query(@RequestParam(name = "palabra", required = false) String word,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "modoTags", required = false) String tagsMode,
+            @RequestParam(name = "spec", required = false) List<String> specs,
+            @RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max,
+            @RequestParam(name = "orden", required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean explain) {
+        ProductQueryRequest request = new ProductQueryRequest();
+        request.setWord(word);
+        request.setTags(tags);
+        request.setTagsMode(tagsMode);
+        request.setSpecs(specs);
+        request.setMinPrice(min);
+        request.setMaxPrice(max);
+        request.setSort(sort);
+        request.setCursor(cursor);
+        request.setSize(size);
+        request.setFields(fields);
+        request.setExplain(explain);
+        return productQueryService.query(request);
+    }
+}
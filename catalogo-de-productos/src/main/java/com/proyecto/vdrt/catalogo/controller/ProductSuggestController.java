@@ -0,0 +1,46 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.vdrt.catalogo.model.dto.SuggestionResponse;
+import com.proyecto.vdrt.catalogo.service.ProductSuggestService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST de autocompletado para la caja de búsqueda.
+ * Pensado para llamarse en cada tecla: con el índice de sugerencias activo no consulta MongoDB.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/products/suggest")
+@Tag(name = "Autocompletado", description = "Sugerencias de nombres de producto y etiquetas a partir de un prefijo.")
+public class ProductSuggestController {
+
+    private final ProductSuggestService productSuggestService;
+
+    public ProductSuggestController(ProductSuggestService productSuggestService) {
+        this.productSuggestService = productSuggestService;
+    }
+
+    /**
+     * Sugerencias para el texto escrito hasta ahora.
+     * @param prefix Prefijo a completar (ej. "lap", "gam").
+     * @param size Cantidad máxima de sugerencias (opcional).
+     * @return Nombres de producto y etiquetas, de la más a la menos popular.
+     */
+    @GetMapping
+    @Operation(summary = "Autocompletado de nombres y etiquetas",
+            description = "Retorna las sugerencias más populares que empiezan con el prefijo, sin distinguir mayúsculas ni acentos. "
+                    + "Los nombres también se sugieren desde cualquiera de sus palabras.")
+    public List<SuggestionResponse> suggest(@RequestParam String prefix, @RequestParam(required = false) Integer size) {
+        return productSuggestService.suggest(prefix, size);
+    }
+}
@@ -0,0 +1,138 @@
+package com.proyecto.vdrt.catalogo.controller;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
+import com.proyecto.vdrt.catalogo.service.ReactiveProductService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST reactivo (perfil 'reactive') con las mismas rutas que ProductController.
+ * Los listados aceptan application/json, application/x-ndjson o text/event-stream:
+ * con NDJSON o SSE los productos se envían a medida que llegan de MongoDB, con contrapresión.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    public ReactiveProductController(ReactiveProductService productService) {
+        this.productService = productService;
+    }
+
+    @GetMapping
+    public Mono<ProductPageResponse> getAllProducts(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String fields) {
+        return productService.getPage(cursor, size, fields);
+    }
+
+    @GetMapping(value = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ProductResponse> exportAll(@RequestParam(required = false) String fields) {
+        return productService.streamAll(fields);
+    }
+
+    // ETag fuerte con la versión del producto; si coincide con If-None-Match se responde 304 sin cuerpo
+    @GetMapping("/{id}")
+    public Mono<ProductResponse> getById(@PathVariable String id, ServerWebExchange exchange) {
+        return productService.getById(id)
+                .filter(product -> product.getVersion() == null
+                        || !exchange.checkNotModified("\"" + product.getVersion() + "\"",
+                                Objects.requireNonNullElse(product.getLastModified(), Instant.MIN)));
+    }
+
+    @GetMapping(value = "/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ProductResponse> getPerWord(@RequestParam(name = "palabra") String word,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        return productService.getPerWord(word, page, size, fields);
+    }
+
+    @PostMapping
+    public Mono<ProductResponse> save(@RequestBody @Valid ProductRequest product) {
+        return productService.save(product);
+    }
+
+    @PutMapping("/update/{id}")
+    public Mono<ProductResponse> updateById(@PathVariable String id, @Valid @RequestBody ProductRequest product) {
+        return productService.updateById(id, product);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ProductResponse> patchById(@PathVariable String id, @Valid @RequestBody ProductPatchRequest patch) {
+        return productService.patchById(id, patch);
+    }
+
+    @GetMapping(value = "/tag", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ProductResponse> getByTag(@RequestParam String tag, @RequestParam(required = false) String fields) {
+        return productService.getByTag(tag, fields);
+    }
+
+    @GetMapping(value = "/tag", params = "expr")
+    public Mono<TagQueryResponse> getByTagExpression(@RequestParam String expr, @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String fields) {
+        return productService.getByTagExpression(expr, page, size, fields);
+    }
+
+    @GetMapping(value = "/specification", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ProductResponse> getBySpecification(@RequestParam(name = "llave") String key,
+            @RequestParam(name = "valor", required = false) String value,
+            @RequestParam(name = "mallorigal", required = false) String min, @RequestParam(name = "menorigual", required = false) String max,
+            @RequestParam(required = false) String fields) {
+        if (value != null) {
+            return productService.getBySpecification(key, value, fields);
+        }
+        return productService.getBySpecificationRange(key, min, max, fields);
+    }
+
+    @GetMapping("/price")
+    public Mono<ProductPageResponse> getByPriceRange(@RequestParam(name = "mallorigal") Double min, @RequestParam(name = "menorigual") Double max,
+            @RequestParam(name = "orden", defaultValue = "asc") String order, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(name = "resumen", defaultValue = "false") boolean summary,
+            @RequestParam(required = false) String fields) {
+        String projection = (summary && (fields == null || fields.isBlank())) ? "name,price" : fields;
+        return productService.getByPriceRange(min, max, "desc".equalsIgnoreCase(order), cursor, size, projection);
+    }
+
+    @GetMapping("/price/count")
+    public Mono<PriceCountResponse> countByPriceRange(@RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max) {
+        return productService.countByPriceRange(min, max);
+    }
+
+    @GetMapping(value = "/price/top", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ProductResponse> getTopByPrice(@RequestParam(name = "mallorigal", required = false) Double min,
+            @RequestParam(name = "menorigual", required = false) Double max,
+            @RequestParam(name = "orden", defaultValue = "asc") String order, @RequestParam(required = false) Integer size) {
+        return productService.getTopByPrice(min, max, "desc".equalsIgnoreCase(order), size);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteProduct(@PathVariable String id) {
+        return productService.delete(id);
+    }
+}
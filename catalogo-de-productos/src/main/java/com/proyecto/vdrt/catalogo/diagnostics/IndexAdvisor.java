@@ -0,0 +1,112 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.model.dto.IndexRecommendation;
+
+/**
+ * Sugiere un índice para cada forma lenta aplicando la regla ESR: primero los campos de igualdad,
+ * después los del orden y al final los de rango. Si algún índice existente ya empieza con esas claves
+ * no se sugiere uno nuevo y se explica, con los datos del explain, por qué la consulta sigue siendo lenta.
+ */
+@Component
+public class IndexAdvisor {
+
+    // Documentos examinados por cada documento devuelto a partir de los cuales el filtro se considera poco selectivo
+    private static final long POOR_SELECTIVITY_RATIO = 10;
+
+    public IndexRecommendation recommend(QueryShape shape, SlowQueryListener.ExplainSummary explain, List<IndexInfo> indexes) {
+        if (shape.text()) {
+            String textIndex = indexes.stream()
+                    .filter(index -> index.getIndexFields().stream().anyMatch(IndexField::isText))
+                    .map(IndexInfo::getName)
+                    .findFirst().orElse(null);
+            String action = textIndex == null
+                    ? "La búsqueda usa $text pero la colección no tiene índice de texto"
+                    : "Búsqueda de texto resuelta con " + textIndex + ": la lentitud depende de cuántos documentos contienen los términos";
+            return new IndexRecommendation(null, textIndex, action, null, shape.notes());
+        }
+
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        shape.equality().forEach(field -> keys.put(field, 1));
+        shape.sortKeys().forEach(keys::putIfAbsent);
+        shape.range().forEach(field -> keys.putIfAbsent(field, 1));
+        if (keys.isEmpty()) {
+            return new IndexRecommendation(null, null,
+                    "Sin campos indexables: la consulta recorre toda la colección; agregar un filtro o paginar", null, shape.notes());
+        }
+
+        IndexInfo covering = null;
+        IndexInfo partial = null;
+        int partialLength = 0;
+        for (IndexInfo index : indexes) {
+            int prefix = commonPrefix(keys, index.getIndexFields());
+            if (prefix == keys.size()) {
+                covering = index;
+                break;
+            }
+            if (prefix > partialLength) {
+                partial = index;
+                partialLength = prefix;
+            }
+        }
+
+        if (covering != null) {
+            return new IndexRecommendation(keys, covering.getName(), diagnose(covering.getName(), explain), null, shape.notes());
+        }
+        String command = "db." + shape.collection() + ".createIndex(" + keys.entrySet().stream()
+                .map(entry -> "\"" + entry.getKey() + "\": " + entry.getValue())
+                .collect(Collectors.joining(", ", "{ ", " }")) + ")";
+        String action = partial == null
+                ? "Crear el índice: ningún índice existente empieza con estos campos"
+                : "Crear el índice: " + partial.getName() + " solo cubre los primeros " + partialLength + " campos";
+        return new IndexRecommendation(keys, null, action, command, shape.notes());
+    }
+
+    // Ya hay un índice adecuado: el explain indica si se usó y cuánto trabajo hizo
+    private static String diagnose(String indexName, SlowQueryListener.ExplainSummary explain) {
+        if (explain == null) {
+            return "Cubierta por " + indexName + " (sin explain todavía)";
+        }
+        if (explain.plan().contains("COLLSCAN")) {
+            return "Existe " + indexName + " pero el plan elegido fue COLLSCAN: revisar el hint o la selectividad del filtro";
+        }
+        if (explain.returned() > 0 && explain.docsExamined() / explain.returned() >= POOR_SELECTIVITY_RATIO) {
+            return "Usa " + indexName + " pero examina " + explain.docsExamined() / explain.returned()
+                    + " documentos por resultado: el filtro es poco selectivo o el orden no sale del índice";
+        }
+        return "Cubierta por " + indexName + ": la lentitud viene del volumen devuelto, del tamaño de los documentos o de la red";
+    }
+
+    // Cantidad de claves sugeridas que coinciden, en orden, con el inicio del índice (admite el índice recorrido al revés)
+    private static int commonPrefix(Map<String, Integer> keys, List<IndexField> fields) {
+        int matched = 0;
+        Boolean reversed = null;
+        for (Map.Entry<String, Integer> key : keys.entrySet()) {
+            if (matched == fields.size()) {
+                break;
+            }
+            IndexField field = fields.get(matched);
+            if (field.getDirection() == null || !field.getKey().equals(key.getKey())) {
+                break;
+            }
+            boolean sameDirection = (field.getDirection() == Sort.Direction.ASC) == (key.getValue() > 0);
+            if (reversed == null) {
+                reversed = !sameDirection;
+            } else if (reversed == sameDirection) {
+                break;
+            }
+            matched++;
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,39 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.config.ProductIndexInitializer;
+import com.proyecto.vdrt.catalogo.model.dto.ManagedIndexStatus;
+
+/**
+ * Endpoint del actuator (/actuator/productindexes): GET devuelve el estado y el avance de cada índice declarado;
+ * POST vuelve a reconciliarlos en segundo plano: en el perfil dev (modo none) es la forma de crearlos,
+ * y en los demás sirve para reintentar después de resolver un CONFLICT o un FAILED.
+ */
+@Component
+@Endpoint(id = "productindexes")
+public class ProductIndexesEndpoint {
+
+    private final ProductIndexInitializer indexInitializer;
+
+    public ProductIndexesEndpoint(ProductIndexInitializer indexInitializer) {
+        this.indexInitializer = indexInitializer;
+    }
+
+    @ReadOperation
+    public List<ManagedIndexStatus> indexes() {
+        return indexInitializer.states();
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        return Map.of("started", indexInitializer.reconcileOnDemand());
+    }
+}
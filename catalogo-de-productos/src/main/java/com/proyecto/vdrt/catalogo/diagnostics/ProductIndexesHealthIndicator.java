@@ -0,0 +1,53 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.config.ProductIndexInitializer;
+import com.proyecto.vdrt.catalogo.model.dto.ManagedIndexState;
+import com.proyecto.vdrt.catalogo.model.dto.ManagedIndexStatus;
+
+/**
+ * Health 'productIndexes': DOWN si falta (o no coincide) un índice obligatorio de ProductIndexRegistry,
+ * OUT_OF_SERVICE mientras alguno obligatorio se construye. Los índices opcionales solo aparecen en el detalle.
+ */
+@Component
+public class ProductIndexesHealthIndicator implements HealthIndicator {
+
+    private static final Set<ManagedIndexState> BROKEN = Set.of(ManagedIndexState.MISSING, ManagedIndexState.CONFLICT, ManagedIndexState.FAILED);
+
+    private final ProductIndexInitializer indexInitializer;
+
+    public ProductIndexesHealthIndicator(ProductIndexInitializer indexInitializer) {
+        this.indexInitializer = indexInitializer;
+    }
+
+    @Override
+    public Health health() {
+        List<ManagedIndexStatus> states = indexInitializer.states();
+        Map<String, String> details = new LinkedHashMap<>();
+        states.forEach(status -> details.put(status.getName(),
+                status.getProgress() == null ? status.getState().name() : status.getState() + " " + status.getProgress()));
+
+        Health.Builder health;
+        if (indexInitializer.mode() == ProductIndexInitializer.Mode.NONE) {
+            health = Health.up();
+        } else if (states.stream().anyMatch(s -> s.isRequired() && BROKEN.contains(s.getState()))) {
+            health = Health.down();
+        } else if (states.stream().anyMatch(s -> s.isRequired() && s.getState() == ManagedIndexState.BUILDING)) {
+            health = Health.outOfService();
+        } else if (states.stream().allMatch(s -> s.getState() == ManagedIndexState.UNKNOWN)) {
+            health = Health.unknown();
+        } else {
+            health = Health.up();
+        }
+        return health.withDetail("mode", indexInitializer.mode().name().toLowerCase()).withDetails(details).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recuerda qué método de servicio está ejecutando el hilo actual (por ejemplo "ProductServiceImp.getBySpecification"),
+ * para que el registro de consultas lentas sepa desde dónde se originó cada comando de MongoDB.
+ * Con el driver sincrónico los eventos del comando se emiten en el mismo hilo que lo envía.
+ *
+ * Lo que un servicio deja corriendo en otro hilo (las cargas de los cachés en AsyncLoads, los trabajos de JobServiceImp,
+ * los getMore de un Stream que se consume después de que el servicio retornó) lleva el origen con propagate.
+ */
+@Aspect
+@Component
+public class QueryOriginAspect {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    // Método de servicio en curso en este hilo, o null si el comando no viene de un servicio
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * La tarea se ejecuta con el origen del hilo que la crea (si tiene uno), en cualquier hilo.
+     */
+    public static Runnable propagate(Runnable task) {
+        String origin = CURRENT.get();
+        if (origin == null) {
+            return task;
+        }
+        return () -> withOrigin(origin, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * El stream avanza con el origen del hilo que lo crea: los getMore del cursor quedan atribuidos al servicio
+     * aunque el stream se consuma más tarde o en otro hilo (por ejemplo, en un StreamingResponseBody).
+     */
+    public static <T> Stream<T> propagate(Stream<T> stream) {
+        String origin = CURRENT.get();
+        if (origin == null) {
+            return stream;
+        }
+        Spliterator<T> source = stream.spliterator();
+        Spliterator<T> tracked = new Spliterators.AbstractSpliterator<T>(source.estimateSize(), source.characteristics()) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return withOrigin(origin, () -> source.tryAdvance(action));
+            }
+        };
+        return StreamSupport.stream(tracked, false).onClose(stream::close);
+    }
+
+    static <T> T withOrigin(String origin, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(origin);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    @Around("execution(* com.proyecto.vdrt.catalogo.service.*Service.*(..))")
+    public Object trackOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = CURRENT.get();
+        // Se conserva el método más externo: es el que corresponde al endpoint llamado
+        if (previous == null) {
+            CURRENT.set(joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * Forma de una consulta: el filtro de un comando de MongoDB con los valores reemplazados por "?", más su orden.
+ * Dos búsquedas por precio con rangos distintos tienen la misma forma y se agregan juntas en el registro.
+ *
+ * También clasifica los campos del filtro según la regla ESR (igualdad, orden, rango), que es el orden
+ * en que conviene declarar las claves de un índice compuesto.
+ *
+ * @param collection Colección consultada.
+ * @param command Nombre del comando (find, aggregate, count, ...).
+ * @param filter Filtro sin valores, en JSON.
+ * @param sort Orden solicitado, en JSON (vacío si no hay).
+ * @param equality Campos comparados por igualdad ($eq, $in, $all o valor literal).
+ * @param sortKeys Campos del orden con su dirección (sin $meta).
+ * @param range Campos comparados por rango ($gt, $lt, $ne, $exists, regex con prefijo, ...).
+ * @param text true si el filtro usa $text.
+ * @param notes Observaciones sobre partes del filtro que ningún índice compuesto resuelve.
+ */
+public record QueryShape(String collection, String command, String filter, String sort, List<String> equality,
+        Map<String, Integer> sortKeys, List<String> range, boolean text, List<String> notes) {
+
+    private static final String MASK = "?";
+    private static final Set<String> EQUALITY_OPERATORS = Set.of("$eq", "$in", "$all");
+    private static final Set<String> RANGE_OPERATORS = Set.of("$gt", "$gte", "$lt", "$lte", "$ne", "$nin", "$exists", "$type", "$not");
+    // Operadores cuyo valor forma parte de la forma (no es un dato del usuario)
+    private static final Set<String> KEPT_OPERATORS = Set.of("$exists", "$type", "$meta");
+
+    // Clave con la que se agregan las ejecuciones de una misma forma
+    public String key() {
+        return collection + '|' + command + '|' + filter + '|' + sort;
+    }
+
+    /**
+     * Extrae la forma de un comando. Devuelve null si el comando no filtra documentos de una colección
+     * (por ejemplo un aggregate a nivel de base de datos).
+     */
+    public static QueryShape of(String commandName, BsonDocument command) {
+        BsonValue target = command.get(commandName);
+        if (target == null || !target.isString()) {
+            return null;
+        }
+        BsonDocument filter;
+        BsonDocument sort = null;
+        switch (commandName) {
+            case "find", "findAndModify" -> {
+                filter = document(command.get(commandName.equals("find") ? "filter" : "query"));
+                sort = document(command.get("sort"));
+            }
+            case "count", "distinct" -> filter = document(command.get("query"));
+            case "update" -> filter = firstStatement(command.get("updates"), "q");
+            case "delete" -> filter = firstStatement(command.get("deletes"), "q");
+            case "aggregate" -> {
+                // Solo los $match iniciales (y el $sort que los sigue) pueden usar índices
+                BsonArray matches = new BsonArray();
+                BsonValue pipeline = command.get("pipeline");
+                if (pipeline != null && pipeline.isArray()) {
+                    for (BsonValue stage : pipeline.asArray()) {
+                        BsonDocument stageDocument = stage.asDocument();
+                        if (stageDocument.containsKey("$match")) {
+                            matches.add(stageDocument.getDocument("$match"));
+                        } else {
+                            if (stageDocument.containsKey("$sort")) {
+                                sort = stageDocument.getDocument("$sort");
+                            }
+                            break;
+                        }
+                    }
+                }
+                filter = matches.size() == 1 ? matches.get(0).asDocument()
+                        : matches.isEmpty() ? new BsonDocument() : new BsonDocument("$and", matches);
+            }
+            default -> {
+                return null;
+            }
+        }
+        if (filter == null) {
+            filter = new BsonDocument();
+        }
+
+        Classifier classifier = new Classifier();
+        classifier.classify(filter, "");
+        Map<String, Integer> sortKeys = new LinkedHashMap<>();
+        if (sort != null) {
+            sort.forEach((field, direction) -> {
+                if (direction.isNumber()) {
+                    sortKeys.put(field, direction.asNumber().intValue() < 0 ? -1 : 1);
+                }
+            });
+        }
+        classifier.range.removeAll(classifier.equality);
+
+        return new QueryShape(target.asString().getValue(), commandName, mask(filter).asDocument().toJson(),
+                sort == null ? "" : sort.toJson(), List.copyOf(classifier.equality), sortKeys,
+                List.copyOf(classifier.range), classifier.text, List.copyOf(classifier.notes));
+    }
+
+    private static BsonDocument document(BsonValue value) {
+        return value != null && value.isDocument() ? value.asDocument() : null;
+    }
+
+    // En update/delete la forma es la del primer elemento del lote (el driver casi siempre envía uno)
+    private static BsonDocument firstStatement(BsonValue statements, String field) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        return document(statements.asArray().get(0).asDocument().get(field));
+    }
+
+    // Reemplaza los valores por "?" manteniendo campos, operadores y la estructura de $and/$or
+    static BsonValue mask(BsonValue value) {
+        if (!value.isDocument()) {
+            return new BsonString(MASK);
+        }
+        BsonDocument masked = new BsonDocument();
+        value.asDocument().forEach((key, entry) -> {
+            if (KEPT_OPERATORS.contains(key)) {
+                masked.put(key, entry);
+            } else if (entry.isArray() && (key.equals("$and") || key.equals("$or") || key.equals("$nor"))) {
+                BsonArray branches = new BsonArray();
+                entry.asArray().forEach(branch -> branches.add(mask(branch)));
+                masked.put(key, branches);
+            } else if (entry.isArray() && key.startsWith("$")) {
+                masked.put(key, new BsonArray(List.of(new BsonString(MASK))));
+            } else {
+                masked.put(key, mask(entry));
+            }
+        });
+        return masked;
+    }
+
+    private static final class Classifier {
+
+        private final Set<String> equality = new LinkedHashSet<>();
+        private final Set<String> range = new LinkedHashSet<>();
+        private final List<String> notes = new ArrayList<>();
+        private boolean text;
+
+        void classify(BsonDocument filter, String prefix) {
+            filter.forEach((key, value) -> {
+                switch (key) {
+                    case "$and" -> value.asArray().forEach(branch -> classify(branch.asDocument(), prefix));
+                    case "$or", "$nor" -> notes.add(key + ": cada rama necesita su propio índice para no recorrer la colección");
+                    case "$text" -> {
+                        text = true;
+                        notes.add("$text: se resuelve con el índice de texto de la colección");
+                    }
+                    case "$expr", "$where" -> notes.add(key + ": no puede usar índices, conviene reescribirlo como filtro");
+                    default -> {
+                        if (!key.startsWith("$")) {
+                            classifyField(prefix + key, value);
+                        }
+                    }
+                }
+            });
+        }
+
+        private void classifyField(String field, BsonValue value) {
+            if (value.isRegularExpression()) {
+                regex(field, value.asRegularExpression());
+            } else if (value.isDocument() && !value.asDocument().isEmpty()
+                    && value.asDocument().getFirstKey().startsWith("$")) {
+                value.asDocument().forEach((operator, operand) -> {
+                    if (EQUALITY_OPERATORS.contains(operator)) {
+                        equality.add(field);
+                    } else if (RANGE_OPERATORS.contains(operator)) {
+                        range.add(field);
+                    } else if (operator.equals("$regex")) {
+                        regex(field, operand.isRegularExpression() ? operand.asRegularExpression()
+                                : new BsonRegularExpression(operand.isString() ? operand.asString().getValue() : "",
+                                        value.asDocument().getString("$options", new BsonString("")).getValue()));
+                    } else if (operator.equals("$elemMatch") && operand.isDocument()) {
+                        BsonDocument match = operand.asDocument();
+                        if (!match.isEmpty() && match.getFirstKey().startsWith("$")) {
+                            classifyField(field, match);
+                        } else {
+                            classify(match, field + ".");
+                        }
+                    } else if (operator.equals("$size")) {
+                        notes.add(field + ": $size no usa índices");
+                    }
+                });
+            } else {
+                equality.add(field);
+            }
+        }
+
+        // Solo una expresión con prefijo fijo (^abc) sin 'i' recorre un rango acotado del índice
+        private void regex(String field, BsonRegularExpression regex) {
+            if (regex.getPattern().startsWith("^") && !regex.getOptions().contains("i")) {
+                range.add(field);
+            } else {
+                notes.add(field + ": una regex sin prefijo fijo (o con 'i') examina todo el índice; considerar el índice de texto");
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.model.dto.SlowQueryEntry;
+import com.proyecto.vdrt.catalogo.model.dto.SlowQueryReport;
+
+/**
+ * Endpoint del actuator (/actuator/slowqueries) con el ranking de formas lentas y el índice sugerido para cada una.
+ * GET devuelve el reporte (?limit=N, 20 por defecto); DELETE lo reinicia, por ejemplo después de crear un índice.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryEndpoint.class);
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SlowQueryListener slowQueries;
+    private final IndexAdvisor indexAdvisor;
+    private final MongoTemplate mongoTemplate;
+
+    public SlowQueryEndpoint(SlowQueryListener slowQueries, IndexAdvisor indexAdvisor, MongoTemplate mongoTemplate) {
+        this.slowQueries = slowQueries;
+        this.indexAdvisor = indexAdvisor;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @ReadOperation
+    public SlowQueryReport report(@Nullable Integer limit) {
+        Map<String, List<IndexInfo>> indexesByCollection = new HashMap<>();
+        List<SlowQueryEntry> entries = slowQueries.snapshot().stream()
+                .limit(limit == null || limit < 1 ? DEFAULT_LIMIT : limit)
+                .map(snapshot -> toEntry(snapshot, indexesByCollection.computeIfAbsent(snapshot.shape().collection(), this::indexesOf)))
+                .toList();
+        return new SlowQueryReport(slowQueries.threshold().toMillis(), slowQueries.dropped(), entries);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueries.reset();
+    }
+
+    private SlowQueryEntry toEntry(SlowQueryListener.ShapeSnapshot snapshot, List<IndexInfo> indexes) {
+        QueryShape shape = snapshot.shape();
+        SlowQueryEntry entry = new SlowQueryEntry();
+        entry.setCollection(shape.collection());
+        entry.setCommand(shape.command());
+        entry.setFilter(shape.filter());
+        entry.setSort(shape.sort().isEmpty() ? null : shape.sort());
+        entry.setCount(snapshot.count());
+        entry.setTotalMillis(millis(snapshot.totalNanos()));
+        entry.setAvgMillis(millis(snapshot.totalNanos() / Math.max(1, snapshot.count())));
+        entry.setMaxMillis(millis(snapshot.maxNanos()));
+        entry.setOrigins(snapshot.origins());
+        SlowQueryListener.ExplainSummary explain = snapshot.explain();
+        if (explain != null) {
+            entry.setDocsExamined(explain.docsExamined());
+            entry.setKeysExamined(explain.keysExamined());
+            entry.setReturned(explain.returned());
+            entry.setPlan(explain.plan());
+        }
+        entry.setRecommendation(indexAdvisor.recommend(shape, explain, indexes));
+        return entry;
+    }
+
+    // Índices actuales de la colección; si MongoDB no responde se sugiere como si no hubiera ninguno
+    private List<IndexInfo> indexesOf(String collection) {
+        try {
+            return mongoTemplate.indexOps(collection).getIndexInfo();
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron leer los índices de {}", collection, ex);
+            return List.of();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
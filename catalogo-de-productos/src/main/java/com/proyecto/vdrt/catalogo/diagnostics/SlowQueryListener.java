@@ -0,0 +1,287 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Registro de consultas lentas. Escucha los comandos del driver de MongoDB y, cuando uno supera
+ * catalogo.slow-queries.threshold, lo agrega por forma (QueryShape) junto con el método de servicio que lo originó.
+ *
+ * Para cada forma lenta se ejecuta, como mucho una vez por explain-interval y en segundo plano, un explain
+ * con executionStats que aporta documentos examinados, documentos devueltos y el plan elegido.
+ * Los valores de los filtros nunca se guardan: solo la forma.
+ */
+@Component
+public class SlowQueryListener implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    // Comandos que filtran documentos; el resto (insert, getMore, explain, listIndexes, ...) se ignora
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    // Campos del comando que no se reenvían dentro del explain
+    private static final Set<String> SESSION_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction",
+            "writeConcern", "apiVersion", "apiStrict", "apiDeprecationErrors");
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+    private static final int MAX_ORIGINS = 10;
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    // Un explain a la vez: repite la consulta y no debe sumar carga justo cuando la base ya está lenta
+    private final Semaphore explainPermit = new Semaphore(1);
+
+    @Value("${catalogo.slow-queries.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalogo.slow-queries.threshold:100ms}")
+    private Duration threshold;
+
+    @Value("${catalogo.slow-queries.max-shapes:500}")
+    private int maxShapes;
+
+    @Value("${catalogo.slow-queries.explain:true}")
+    private boolean explainEnabled;
+
+    @Value("${catalogo.slow-queries.explain-interval:10m}")
+    private Duration explainInterval;
+
+    public SlowQueryListener(ObjectProvider<MongoTemplate> mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private record Started(String database, String commandName, RawBsonDocument command, String origin) {
+    }
+
+    /**
+     * Resultado del último explain de una forma.
+     * @param docsExamined Documentos leídos por el servidor.
+     * @param keysExamined Claves de índice recorridas.
+     * @param returned Documentos devueltos.
+     * @param plan Etapas del plan ganador, por ejemplo "FETCH > IXSCAN products_price" o "COLLSCAN".
+     */
+    public record ExplainSummary(long docsExamined, long keysExamined, long returned, String plan) {
+    }
+
+    /**
+     * Estado acumulado de una forma lenta en el momento de la consulta.
+     */
+    public record ShapeSnapshot(QueryShape shape, long count, long totalNanos, long maxNanos, List<String> origins,
+            ExplainSummary explain) {
+    }
+
+    private static final class ShapeStats {
+
+        private final QueryShape shape;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final Set<String> origins = ConcurrentHashMap.newKeySet();
+        private final AtomicLong lastExplainAt = new AtomicLong(Long.MIN_VALUE);
+        private volatile ExplainSummary explain;
+
+        ShapeStats(QueryShape shape) {
+            this.shape = shape;
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !QUERY_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        // El documento del evento puede apuntar al buffer de red: se copia antes de que el driver lo libere
+        inFlight.put(event.getRequestId(), new Started(event.getDatabaseName(), event.getCommandName(),
+                new RawBsonDocument(event.getCommand(), CODEC), QueryOriginAspect.current()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= threshold.toNanos()) {
+            record(started, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    private void record(Started started, long elapsedNanos) {
+        QueryShape shape;
+        try {
+            shape = QueryShape.of(started.commandName(), started.command());
+        } catch (RuntimeException ex) {
+            log.debug("No se pudo extraer la forma del comando {}", started.commandName(), ex);
+            return;
+        }
+        if (shape == null) {
+            return;
+        }
+
+        ShapeStats stats = shapes.get(shape.key());
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                dropped.increment();
+                return;
+            }
+            stats = shapes.computeIfAbsent(shape.key(), key -> new ShapeStats(shape));
+        }
+        stats.count.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (started.origin() != null && stats.origins.size() < MAX_ORIGINS) {
+            stats.origins.add(started.origin());
+        }
+        explainIfDue(stats, started);
+    }
+
+    private void explainIfDue(ShapeStats stats, Started started) {
+        if (!explainEnabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = stats.lastExplainAt.get();
+        if (last != Long.MIN_VALUE && now - last < explainInterval.toNanos()) {
+            return;
+        }
+        if (!explainPermit.tryAcquire()) {
+            return;
+        }
+        if (!stats.lastExplainAt.compareAndSet(last, now)) {
+            explainPermit.release();
+            return;
+        }
+        Thread.ofVirtual().name("slow-query-explain").start(() -> {
+            try {
+                stats.explain = explain(started);
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo ejecutar explain para la consulta lenta {}", stats.shape.filter(), ex);
+            } finally {
+                explainPermit.release();
+            }
+        });
+    }
+
+    // Repite el comando con explain (executionStats); el explain de update/delete no modifica documentos
+    private ExplainSummary explain(Started started) {
+        MongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) {
+            return null;
+        }
+        BsonDocument command = new BsonDocument();
+        started.command().forEach((key, value) -> {
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) {
+                command.put(key, value);
+            }
+        });
+        Document result = template.getMongoDatabaseFactory().getMongoDatabase(started.database())
+                .runCommand(new BsonDocument("explain", command).append("verbosity", new BsonString("executionStats")));
+
+        // En un aggregate las estadísticas pueden venir en el nivel superior o dentro de stages[0].$cursor
+        Document stats = findFirst(result, "executionStats");
+        Document planner = findFirst(result, "queryPlanner");
+        List<String> stages = new ArrayList<>();
+        if (planner != null && planner.get("winningPlan") instanceof Document winningPlan) {
+            collectStages(winningPlan, stages);
+        }
+        return new ExplainSummary(number(stats, "totalDocsExamined"), number(stats, "totalKeysExamined"),
+                number(stats, "nReturned"), String.join(" > ", stages));
+    }
+
+    private static Document findFirst(Object value, String key) {
+        if (value instanceof Document document) {
+            if (document.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object child : document.values()) {
+                Document found = findFirst(child, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object child : list) {
+                Document found = findFirst(child, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Recorre el árbol del plan (inputStage, inputStages, queryPlan en SBE) en orden
+    private static void collectStages(Object value, List<String> stages) {
+        if (value instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(document.get("indexName") instanceof String index ? stage + " " + index : stage);
+            }
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if (!entry.getKey().equals("keyPattern") && !entry.getKey().equals("indexBounds") && !entry.getKey().equals("filter")) {
+                    collectStages(entry.getValue(), stages);
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            list.forEach(child -> collectStages(child, stages));
+        }
+    }
+
+    private static long number(Document document, String key) {
+        return document != null && document.get(key) instanceof Number number ? number.longValue() : -1;
+    }
+
+    /**
+     * Formas registradas, de la que más tiempo acumuló a la que menos.
+     */
+    public List<ShapeSnapshot> snapshot() {
+        return shapes.values().stream()
+                .map(stats -> new ShapeSnapshot(stats.shape, stats.count.sum(), stats.totalNanos.sum(), stats.maxNanos.get(),
+                        List.copyOf(stats.origins), stats.explain))
+                .sorted(Comparator.comparingLong(ShapeSnapshot::totalNanos).reversed())
+                .toList();
+    }
+
+    // Ejecuciones lentas que no se registraron porque ya había max-shapes formas distintas
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public Duration threshold() {
+        return threshold;
+    }
+
+    public void reset() {
+        shapes.clear();
+        dropped.reset();
+    }
+}
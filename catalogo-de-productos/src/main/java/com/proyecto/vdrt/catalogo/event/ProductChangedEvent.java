@@ -0,0 +1,32 @@
+package com.proyecto.vdrt.catalogo.event;
+
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * Se publica después de cada escritura exitosa sobre la colección de productos.
+ * Los índices en memoria lo escuchan para mantenerse sincronizados con MongoDB.
+ *
+ * @param type Tipo de cambio.
+ * @param id Identificador del producto afectado.
+ * @param product Estado del producto después del cambio (null cuando se eliminó).
+ */
+public record ProductChangedEvent(Type type, String id, Product product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(String id) {
+        return new ProductChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.proyecto.vdrt.catalogo.event;
+
+/**
+ * Se publica cada vez que se lee un producto por ID.
+ * El índice de sugerencias lo usa como medida de popularidad para ordenar los nombres.
+ *
+ * @param id Identificador del producto leído.
+ */
+public record ProductViewedEvent(String id) {
+}
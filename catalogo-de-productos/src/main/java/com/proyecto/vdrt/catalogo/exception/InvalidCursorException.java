@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(){
+        super("El cursor de paginación no es válido");
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String field){
+        super("Campo desconocido en 'fields': " + field);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message){
+        super(message);
+    }
+
+}
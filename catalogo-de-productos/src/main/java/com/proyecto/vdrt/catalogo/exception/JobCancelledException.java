@@ -0,0 +1,10 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+// La lanza JobContext.progress cuando se pidió cancelar: interrumpe el trabajo entre un lote y el siguiente
+public class JobCancelledException extends RuntimeException {
+
+    public JobCancelledException(String id){
+        super("El trabajo " + id + " fue cancelado");
+    }
+
+}
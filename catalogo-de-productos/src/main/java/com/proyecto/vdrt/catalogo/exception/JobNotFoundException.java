@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String id){
+        super("No existe el trabajo con ID: " + id);
+    }
+
+}
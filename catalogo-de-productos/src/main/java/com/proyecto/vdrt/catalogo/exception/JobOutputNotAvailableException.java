@@ -0,0 +1,11 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+import com.proyecto.vdrt.catalogo.model.dto.JobStatus;
+
+public class JobOutputNotAvailableException extends RuntimeException {
+
+    public JobOutputNotAvailableException(String id, JobStatus status){
+        super("El trabajo " + id + " no tiene archivo de salida (estado " + status + ")");
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(int maxQueued){
+        super("Ya hay " + maxQueued + " trabajos en espera; intente más tarde");
+    }
+
+}
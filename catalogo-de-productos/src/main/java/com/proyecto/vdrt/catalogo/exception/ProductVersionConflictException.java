@@ -0,0 +1,9 @@
+package com.proyecto.vdrt.catalogo.exception;
+
+public class ProductVersionConflictException extends RuntimeException {
+
+    public ProductVersionConflictException(Long expectedVersion){
+        super("El producto fue modificado por otra operación; la versión " + expectedVersion + " ya no es la actual");
+    }
+
+}
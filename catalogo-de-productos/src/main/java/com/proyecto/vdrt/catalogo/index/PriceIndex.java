@@ -0,0 +1,368 @@
+package com.proyecto.vdrt.catalogo.index;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * Índice de precios en memoria: un arreglo double[] ordenado con el ordinal de cada producto en un int[] paralelo.
+ * Responde conteos por rango y los N productos más baratos (o más caros) con búsqueda binaria, sin consultar MongoDB.
+ *
+ * Las escrituras no reordenan la base: van a un delta pequeño y ordenado, y la entrada vieja de la base se marca
+ * como obsoleta. Los obsoletos se cuentan por posición en un árbol de Fenwick, así un conteo sigue siendo
+ * logarítmico aunque haya muchos. Cuando el delta supera catalogo.price-index.delta-threshold se fusiona todo
+ * en una base nueva.
+ * Solo ve las escrituras hechas por esta instancia (ProductChangedEvent); se activa con catalogo.price-index.enabled.
+ */
+@Component
+public class PriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceIndex.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductOrdinals ordinals;
+
+    @Value("${catalogo.price-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalogo.price-index.delta-threshold:4096}")
+    private int deltaThreshold;
+
+    @Value("${catalogo.price-index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Base ordenada por precio
+    private double[] prices = new double[0];
+    private int[] owners = new int[0];
+    private final BitSet inBase = new BitSet();
+    // Ordinal -> posición en la base (solo vale si está en inBase)
+    private int[] basePosition = new int[0];
+    // Ordinales cuya entrada en la base ya no vale (eliminados o con un precio nuevo en el delta)
+    private final BitSet stale = new BitSet();
+    private int staleCount;
+    // Árbol de Fenwick sobre las posiciones de la base: cantidad de obsoletos de cada prefijo en O(log n)
+    private int[] staleTree = new int[1];
+
+    // Cambios posteriores a la base; Double.NaN marca un producto eliminado
+    private final Map<Integer, Double> deltaByOrdinal = new HashMap<>();
+    private final TreeSet<Entry> deltaSorted = new TreeSet<>();
+
+    public PriceIndex(MongoTemplate mongoTemplate, ProductOrdinals ordinals) {
+        this.mongoTemplate = mongoTemplate;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Precio de un producto dentro del índice.
+     * @param id Identificador del producto.
+     * @param price Precio del producto.
+     */
+    public record PricePoint(String id, double price) {
+    }
+
+    private record Entry(double price, int ordinal) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byPrice = Double.compare(price, other.price);
+            return byPrice != 0 ? byPrice : Integer.compare(ordinal, other.ordinal);
+        }
+    }
+
+    // true cuando está activado y ya terminó la carga inicial
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("price-index").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("No se pudo cargar el índice de precios en memoria", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Carga todos los precios desde MongoDB. La consulta solo proyecta _id y price y recorre el índice
+     * { price, _id }, así llega ya ordenada y no se lee ningún documento completo.
+     */
+    public void rebuild() {
+        Query query = new Query(Criteria.where("price").type(JsonSchemaObject.Type.numberType()))
+                .with(Sort.by(Sort.Direction.ASC, "price", "_id"))
+                .cursorBatchSize(loadBatchSize);
+        query.fields().include("price");
+
+        double[] loadedPrices = new double[Math.max(16, (int) Math.min(Integer.MAX_VALUE - 8,
+                mongoTemplate.estimatedCount(Product.class)))];
+        int[] loadedOwners = new int[loadedPrices.length];
+        int size = 0;
+
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, "products")) {
+            for (Document doc : (Iterable<Document>) documents::iterator) {
+                if (size == loadedPrices.length) {
+                    loadedPrices = Arrays.copyOf(loadedPrices, size * 2);
+                    loadedOwners = Arrays.copyOf(loadedOwners, size * 2);
+                }
+                loadedPrices[size] = ((Number) doc.get("price")).doubleValue();
+                loadedOwners[size] = ordinals.ordinalOf(doc.get("_id").toString());
+                size++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            install(Arrays.copyOf(loadedPrices, size), Arrays.copyOf(loadedOwners, size));
+            // Lo escrito durante la carga ya está en el delta y tiene prioridad sobre lo leído
+            deltaByOrdinal.keySet().forEach(this::markStale);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de precios cargado: {} productos", size);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED || event.product().getPrice() == null) {
+            remove(event.id());
+        } else {
+            put(event.id(), event.product().getPrice());
+        }
+    }
+
+    public void put(String id, double price) {
+        int ordinal = ordinals.ordinalOf(id);
+        lock.writeLock().lock();
+        try {
+            removeFromDelta(ordinal);
+            markStale(ordinal);
+            deltaByOrdinal.put(ordinal, price);
+            deltaSorted.add(new Entry(price, ordinal));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        // Se registra aunque no tenga ordinal: si la carga inicial está en curso aún podría leerlo
+        int ordinal = ordinals.ordinalOf(id);
+        lock.writeLock().lock();
+        try {
+            removeFromDelta(ordinal);
+            markStale(ordinal);
+            deltaByOrdinal.put(ordinal, Double.NaN);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de productos con precio dentro del rango inclusivo [min, max].
+     */
+    public long count(double min, double max) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            long count = to > from ? (to - from) - (staleBefore(to) - staleBefore(from)) : 0;
+            return count + deltaRange(min, max).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los primeros N productos del rango [min, max] ordenados por precio.
+     * @param ascending true para los más baratos, false para los más caros.
+     */
+    public List<PricePoint> top(double min, double max, int limit, boolean ascending) {
+        lock.readLock().lock();
+        try {
+            List<PricePoint> result = new ArrayList<>(Math.min(limit, 1024));
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            NavigableSet<Entry> delta = ascending ? deltaRange(min, max) : deltaRange(min, max).descendingSet();
+            Iterator<Entry> deltaIterator = delta.iterator();
+            Entry nextDelta = deltaIterator.hasNext() ? deltaIterator.next() : null;
+
+            // Mezcla de dos secuencias ordenadas: la base (saltando obsoletos) y el delta
+            int i = ascending ? from : to - 1;
+            while (result.size() < limit) {
+                while (i >= from && i < to && stale.get(owners[i])) {
+                    i += ascending ? 1 : -1;
+                }
+                boolean baseLeft = i >= from && i < to;
+                if (!baseLeft && nextDelta == null) {
+                    break;
+                }
+                boolean takeBase = baseLeft && (nextDelta == null
+                        || (ascending ? prices[i] <= nextDelta.price() : prices[i] >= nextDelta.price()));
+                if (takeBase) {
+                    result.add(new PricePoint(ordinals.idOf(owners[i]), prices[i]));
+                    i += ascending ? 1 : -1;
+                } else {
+                    result.add(new PricePoint(ordinals.idOf(nextDelta.ordinal()), nextDelta.price()));
+                    nextDelta = deltaIterator.hasNext() ? deltaIterator.next() : null;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableSet<Entry> deltaRange(double min, double max) {
+        if (min > max) {
+            return new TreeSet<>();
+        }
+        return deltaSorted.subSet(new Entry(min, Integer.MIN_VALUE), true, new Entry(max, Integer.MAX_VALUE), true);
+    }
+
+    private void removeFromDelta(int ordinal) {
+        Double previous = deltaByOrdinal.remove(ordinal);
+        if (previous != null && !previous.isNaN()) {
+            deltaSorted.remove(new Entry(previous, ordinal));
+        }
+    }
+
+    private void markStale(int ordinal) {
+        if (inBase.get(ordinal) && !stale.get(ordinal)) {
+            stale.set(ordinal);
+            staleCount++;
+            for (int i = basePosition[ordinal] + 1; i < staleTree.length; i += i & -i) {
+                staleTree[i]++;
+            }
+        }
+    }
+
+    // Obsoletos en las posiciones [0, position) de la base
+    private int staleBefore(int position) {
+        int sum = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            sum += staleTree[i];
+        }
+        return sum;
+    }
+
+    // Instala una base nueva, sin obsoletos
+    private void install(double[] newPrices, int[] newOwners) {
+        prices = newPrices;
+        owners = newOwners;
+        inBase.clear();
+        int maxOrdinal = -1;
+        for (int owner : owners) {
+            inBase.set(owner);
+            maxOrdinal = Math.max(maxOrdinal, owner);
+        }
+        basePosition = new int[maxOrdinal + 1];
+        for (int i = 0; i < owners.length; i++) {
+            basePosition[owners[i]] = i;
+        }
+        stale.clear();
+        staleCount = 0;
+        staleTree = new int[owners.length + 1];
+    }
+
+    // Fusiona base y delta en una base nueva cuando el delta o los obsoletos crecen demasiado
+    private void compactIfNeeded() {
+        // Durante la carga inicial el delta debe sobrevivir hasta que se instale la base leída
+        if (!ready) {
+            return;
+        }
+        if (deltaByOrdinal.size() < deltaThreshold && staleCount < Math.max(deltaThreshold, prices.length / 4)) {
+            return;
+        }
+        int size = prices.length - staleCount + deltaSorted.size();
+        double[] mergedPrices = new double[size];
+        int[] mergedOwners = new int[size];
+        Iterator<Entry> deltaIterator = deltaSorted.iterator();
+        Entry nextDelta = deltaIterator.hasNext() ? deltaIterator.next() : null;
+
+        int i = 0;
+        int out = 0;
+        while (out < size) {
+            while (i < prices.length && stale.get(owners[i])) {
+                i++;
+            }
+            if (i < prices.length && (nextDelta == null || prices[i] <= nextDelta.price())) {
+                mergedPrices[out] = prices[i];
+                mergedOwners[out++] = owners[i++];
+            } else {
+                mergedPrices[out] = nextDelta.price();
+                mergedOwners[out++] = nextDelta.ordinal();
+                nextDelta = deltaIterator.hasNext() ? deltaIterator.next() : null;
+            }
+        }
+
+        install(mergedPrices, mergedOwners);
+        deltaByOrdinal.clear();
+        deltaSorted.clear();
+    }
+
+    // Primera posición con precio >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primera posición con precio > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
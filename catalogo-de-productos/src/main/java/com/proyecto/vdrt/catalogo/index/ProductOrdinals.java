@@ -0,0 +1,43 @@
+package com.proyecto.vdrt.catalogo.index;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Diccionario que asigna a cada ID de producto un entero denso (ordinal).
+ * Los índices en memoria trabajan con ordinales en arreglos primitivos en lugar de Strings.
+ * Los ordinales no se reutilizan: un producto eliminado conserva el suyo.
+ */
+@Component
+public class ProductOrdinals {
+
+    private final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private final List<String> ids = new ArrayList<>();
+
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : assign(id);
+    }
+
+    public synchronized String idOf(int ordinal) {
+        return ids.get(ordinal);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    private synchronized int assign(String id) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) {
+            ordinal = ids.size();
+            ids.add(id);
+            ordinals.put(id, ordinal);
+        }
+        return ordinal;
+    }
+}
@@ -0,0 +1,556 @@
+package com.proyecto.vdrt.catalogo.index;
+
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.event.ProductViewedEvent;
+
+/**
+ * Índice de autocompletado en memoria para /products/suggest: un trie comprimido (radix) sobre los nombres de
+ * producto y las etiquetas, normalizados sin mayúsculas ni acentos. Los nombres se indexan también desde cada
+ * palabra, así "gam" sugiere "Laptop Gamer". Cada nodo guarda el mayor peso de su subárbol, y las K mejores
+ * sugerencias se obtienen recorriendo primero las ramas más pesadas: solo se visitan los nodos necesarios.
+ *
+ * El peso de un nombre es la cantidad de lecturas del producto desde el arranque; el de una etiqueta,
+ * la cantidad de productos que la tienen. Solo ve las escrituras hechas por esta instancia; se activa con
+ * catalogo.suggest.enabled.
+ */
+@Component
+public class SuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Term[] NO_TERMS = new Term[0];
+    private static final int MAX_PENDING_VIEWS = 100_000;
+
+    public static final String PRODUCT = "product";
+    public static final String TAG = "tag";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${catalogo.suggest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalogo.suggest.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    // Límites de memoria: caracteres indexados por término y palabras de un nombre desde las que se indexa
+    @Value("${catalogo.suggest.max-term-length:48}")
+    private int maxTermLength;
+
+    @Value("${catalogo.suggest.max-words:6}")
+    private int maxWords;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private Node root = new Node("");
+    private final Map<String, Term> productTerms = new HashMap<>();
+    private final Map<String, Term> tagTerms = new HashMap<>();
+    // Etiquetas actuales de cada producto, para ajustar el peso de las etiquetas al modificarlo o eliminarlo
+    private final Map<String, List<String>> tagsByProduct = new HashMap<>();
+    // Cambios recibidos durante la carga inicial (null = eliminado)
+    private final Map<String, Document> pendingDuringLoad = new LinkedHashMap<>();
+    // Lecturas todavía no aplicadas al trie: se suman sin bloquear y se aplican cuando se consigue el lock
+    private final Map<String, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    public SuggestIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Sugerencia del índice.
+     * @param text Nombre o etiqueta tal como se guardó.
+     * @param type PRODUCT o TAG.
+     * @param id ID del producto (null para etiquetas).
+     * @param weight Peso usado para ordenar.
+     */
+    public record Suggestion(String text, String type, String id, long weight) {
+    }
+
+    // true cuando está activado y ya terminó la carga inicial
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("suggest-index").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("No se pudo cargar el índice de sugerencias", ex);
+                }
+            });
+        }
+    }
+
+    // Carga nombres y etiquetas de todos los productos (solo esos dos campos)
+    public void rebuild() {
+        Query query = new Query().cursorBatchSize(loadBatchSize);
+        query.fields().include("name").include("tags");
+
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            root = new Node("");
+            productTerms.clear();
+            tagTerms.clear();
+            tagsByProduct.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long count = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, "products")) {
+            for (Document doc : (Iterable<Document>) documents::iterator) {
+                String id = doc.get("_id").toString();
+                lock.writeLock().lock();
+                try {
+                    if (!pendingDuringLoad.containsKey(id)) {
+                        apply(id, doc.getString("name"), doc.getList("tags", String.class));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                count++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad.forEach((id, doc) -> apply(id, doc == null ? null : doc.getString("name"),
+                    doc == null ? null : doc.getList("tags", String.class)));
+            pendingDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de sugerencias cargado: {} productos, {} etiquetas", count, tagTerms.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String name = event.product() != null ? event.product().getName() : null;
+        List<String> tags = event.product() != null ? event.product().getTags() : null;
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pendingDuringLoad.put(event.id(), event.type() == ProductChangedEvent.Type.DELETED ? null
+                        : new Document("name", name).append("tags", tags));
+            } else {
+                apply(event.id(), event.type() == ProductChangedEvent.Type.DELETED ? null : name,
+                        event.type() == ProductChangedEvent.Type.DELETED ? null : tags);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductViewed(ProductViewedEvent event) {
+        // El tope evita que las lecturas pendientes crezcan sin límite si nadie pide sugerencias
+        if (isReady() && (pendingViews.size() < MAX_PENDING_VIEWS || pendingViews.containsKey(event.id()))) {
+            pendingViews.computeIfAbsent(event.id(), id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Las mejores sugerencias para un prefijo.
+     * @param prefix Texto escrito hasta ahora; se normaliza igual que los términos.
+     * @param limit Cantidad máxima de sugerencias.
+     * @return Sugerencias de mayor a menor peso (a igual peso, en orden alfabético).
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        applyPendingViews();
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node start = find(key);
+            return start == null ? List.of() : top(start, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Términos distintos del índice (métrica)
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return productTerms.size() + tagTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Misma normalización para términos y prefijos: minúsculas, sin acentos y con un solo espacio entre palabras.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /*
+    Búsqueda de los K mejores: una cola ordenada por peso con nodos (peso = el mayor de su subárbol) y términos.
+    Cuando sale un término ya no puede aparecer otro más pesado, así se corta al llegar a K sin recorrer el resto.
+    Un nombre puede alcanzarse por varias palabras del mismo subárbol: se entrega una sola vez.
+    */
+    private List<Suggestion> top(Node start, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.ORDER);
+        queue.add(new Candidate(start, null, start.best));
+        Set<Term> emitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Suggestion> result = new ArrayList<>(limit);
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.term() != null) {
+                Term term = candidate.term();
+                if (emitted.add(term)) {
+                    result.add(new Suggestion(term.text, term.type, term.id, term.weight));
+                }
+                continue;
+            }
+            Node node = candidate.node();
+            for (Term term : node.terms) {
+                queue.add(new Candidate(null, term, term.weight));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, null, child.best));
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(Node node, Term term, long weight) {
+        // Mayor peso primero; a igual peso los términos antes que los nodos y en orden alfabético
+        static final Comparator<Candidate> ORDER = Comparator.comparingLong(Candidate::weight).reversed()
+                .thenComparing(c -> c.term() == null)
+                .thenComparing(c -> c.term() != null ? c.term().text : "");
+    }
+
+    // Nodo cuyo subárbol contiene todos los términos que empiezan con la clave (puede terminar a mitad de arista)
+    private Node find(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = child(node, key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (position + common == key.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            position += common;
+        }
+        return node;
+    }
+
+    private void applyPendingViews() {
+        if (pendingViews.isEmpty() || !lock.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            for (String id : List.copyOf(pendingViews.keySet())) {
+                long views = pendingViews.remove(id).sum();
+                Term term = productTerms.get(id);
+                if (term != null) {
+                    setWeight(term, term.weight + views);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reemplaza el nombre y las etiquetas de un producto; name null lo elimina
+    private void apply(String id, String name, List<String> tags) {
+        Term previous = productTerms.remove(id);
+        long views = 0;
+        if (previous != null) {
+            views = previous.weight;
+            for (String key : previous.keys) {
+                remove(key, previous);
+            }
+        }
+        for (String tag : tagsByProduct.getOrDefault(id, List.of())) {
+            Term term = tagTerms.get(tag);
+            if (term != null && term.weight <= 1) {
+                tagTerms.remove(tag);
+                remove(term.keys[0], term);
+            } else if (term != null) {
+                setWeight(term, term.weight - 1);
+            }
+        }
+        tagsByProduct.remove(id);
+        if (name == null) {
+            pendingViews.remove(id);
+            return;
+        }
+
+        // Las lecturas acumuladas se conservan al modificar el producto
+        Term term = new Term(name, PRODUCT, id, views, productKeys(name));
+        productTerms.put(id, term);
+        for (String key : term.keys) {
+            insert(key, term);
+        }
+        if (tags != null && !tags.isEmpty()) {
+            List<String> distinct = List.copyOf(new LinkedHashSet<>(tags));
+            tagsByProduct.put(id, distinct);
+            for (String tag : distinct) {
+                Term tagTerm = tagTerms.get(tag);
+                if (tagTerm == null) {
+                    String key = truncate(normalize(tag));
+                    if (key.isEmpty()) {
+                        continue;
+                    }
+                    tagTerm = new Term(tag, TAG, null, 1, new String[] { key });
+                    tagTerms.put(tag, tagTerm);
+                    insert(key, tagTerm);
+                } else {
+                    setWeight(tagTerm, tagTerm.weight + 1);
+                }
+            }
+        }
+    }
+
+    // El nombre completo y el resto del nombre desde cada una de sus primeras max-words palabras
+    private String[] productKeys(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        int words = 0;
+        for (int i = 0; i < normalized.length() && words < maxWords; i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(truncate(normalized.substring(i)));
+                words++;
+            }
+        }
+        keys.remove("");
+        return keys.toArray(String[]::new);
+    }
+
+    private String truncate(String key) {
+        return key.length() > maxTermLength ? key.substring(0, maxTermLength) : key;
+    }
+
+    private void insert(String key, Term term) {
+        Node node = root;
+        int position = 0;
+        while (true) {
+            node.best = Math.max(node.best, term.weight);
+            if (position == key.length()) {
+                node.terms = Arrays.copyOf(node.terms, node.terms.length + 1);
+                node.terms[node.terms.length - 1] = term;
+                return;
+            }
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position));
+                leaf.terms = new Term[] { term };
+                leaf.best = term.weight;
+                addChild(node, -index - 1, leaf);
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                // Divide la arista: el nodo intermedio se queda con la parte común
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[] { child };
+                middle.best = child.best;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+    }
+
+    // Quita el término del nodo de la clave y recalcula los pesos del camino; poda y une los nodos que sobran
+    private void remove(String key, Term term) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+        Node last = path.get(path.size() - 1);
+        last.terms = Arrays.stream(last.terms).filter(t -> t != term).toArray(Term[]::new);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.terms.length == 0 && node.children.length == 0) {
+                removeChild(parent, node);
+            } else if (node.terms.length == 0 && node.children.length == 1) {
+                Node only = node.children[0];
+                node.label = node.label + only.label;
+                node.children = only.children;
+                node.terms = only.terms;
+                node.best = only.best;
+            } else {
+                node.best = best(node);
+            }
+        }
+        root.best = best(root);
+    }
+
+    // Solo se usa cuando el peso cambia: sube con max y, si baja, se recalcula desde las hojas del camino
+    private void setWeight(Term term, long weight) {
+        boolean increased = weight >= term.weight;
+        term.weight = weight;
+        for (String key : term.keys) {
+            List<Node> path = path(key);
+            if (path == null) {
+                continue;
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                node.best = increased ? Math.max(node.best, weight) : best(node);
+            }
+        }
+    }
+
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = child(node, key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            position += child.label.length();
+        }
+        return path;
+    }
+
+    private static long best(Node node) {
+        long best = 0;
+        for (Term term : node.terms) {
+            best = Math.max(best, term.weight);
+        }
+        for (Node child : node.children) {
+            best = Math.max(best, child.best);
+        }
+        return best;
+    }
+
+    private static Node child(Node node, char first) {
+        int index = childIndex(node, first);
+        return index >= 0 ? node.children[index] : null;
+    }
+
+    // Hijos ordenados por su primer carácter: búsqueda binaria (negativo = posición de inserción, como Arrays.binarySearch)
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = node.children[middle].label.charAt(0);
+            if (c < first) {
+                low = middle + 1;
+            } else if (c > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void addChild(Node node, int index, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        node.children = Arrays.stream(node.children).filter(c -> c != child).toArray(Node[]::new);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Arrays en lugar de mapas: la mayoría de los nodos tiene uno o dos hijos y a lo sumo un término
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        Term[] terms = NO_TERMS;
+        long best;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Term {
+        final String text;
+        final String type;
+        final String id;
+        final String[] keys;
+        long weight;
+
+        Term(String text, String type, String id, long weight, String[] keys) {
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.proyecto.vdrt.catalogo.index;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+
+/**
+ * Expresión booleana sobre etiquetas del parámetro expr=, por ejemplo {@code gamer AND (laptop OR pc) AND NOT usado}.
+ * Operadores AND, OR y NOT (sin distinguir mayúsculas) o sus atajos &amp;, | y !; precedencia NOT &gt; AND &gt; OR.
+ * Una etiqueta con espacios, paréntesis u operadores va entre comillas dobles: {@code "tarjeta grafica"}.
+ */
+public sealed interface TagExpression {
+
+    // Largo máximo de expr: cada etiqueta es una operación sobre bitmaps o una condición en MongoDB
+    int MAX_LENGTH = 2000;
+
+    // Anidamiento máximo de NOT y paréntesis: acota la recursión del parser y la profundidad del filtro de MongoDB
+    int MAX_DEPTH = 32;
+
+    record Tag(String name) implements TagExpression {
+    }
+
+    record And(List<TagExpression> operands) implements TagExpression {
+    }
+
+    record Or(List<TagExpression> operands) implements TagExpression {
+    }
+
+    record Not(TagExpression operand) implements TagExpression {
+    }
+
+    /**
+     * @throws InvalidQueryException si la expresión está vacía, mal formada o anidada más de MAX_DEPTH niveles.
+     */
+    static TagExpression parse(String expr) {
+        if (expr == null || expr.isBlank()) {
+            throw new InvalidQueryException("La expresión de etiquetas está vacía");
+        }
+        if (expr.length() > MAX_LENGTH) {
+            throw new InvalidQueryException("La expresión de etiquetas supera los " + MAX_LENGTH + " caracteres");
+        }
+        Parser parser = new Parser(expr);
+        TagExpression expression = parser.or();
+        if (parser.peek() != null) {
+            throw parser.error("se esperaba AND, OR o el final y llegó '" + parser.peek() + "'");
+        }
+        return expression;
+    }
+
+    /**
+     * La misma condición para MongoDB, para cuando el índice en memoria no está disponible.
+     * Una etiqueta es { tags: t } (usa el índice multikey) y NOT es $nor.
+     */
+    default Criteria toCriteria() {
+        return switch (this) {
+            case Tag tag -> Criteria.where("tags").is(tag.name());
+            case And and -> new Criteria().andOperator(and.operands().stream().map(TagExpression::toCriteria).toList());
+            case Or or -> new Criteria().orOperator(or.operands().stream().map(TagExpression::toCriteria).toList());
+            case Not not -> new Criteria().norOperator(not.operand().toCriteria());
+        };
+    }
+
+    // Descenso recursivo: or := and (OR and)* ; and := unary (AND unary)* ; unary := NOT unary | '(' or ')' | etiqueta
+    final class Parser {
+
+        private final String input;
+        private int position;
+        private int depth;
+        private Token next;
+
+        private record Token(String text, boolean quoted) {
+            @Override
+            public String toString() {
+                return text;
+            }
+        }
+
+        private Parser(String input) {
+            this.input = input;
+            advance();
+        }
+
+        private TagExpression or() {
+            List<TagExpression> operands = new ArrayList<>(List.of(and()));
+            while (isOperator("OR", "|")) {
+                advance();
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(List.copyOf(operands));
+        }
+
+        private TagExpression and() {
+            List<TagExpression> operands = new ArrayList<>(List.of(unary()));
+            while (isOperator("AND", "&")) {
+                advance();
+                operands.add(unary());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(List.copyOf(operands));
+        }
+
+        private TagExpression unary() {
+            if (next == null) {
+                throw error("falta una etiqueta al final");
+            }
+            if (isOperator("NOT", "!")) {
+                advance();
+                enter();
+                TagExpression operand = unary();
+                depth--;
+                return new Not(operand);
+            }
+            if (isSymbol("(")) {
+                advance();
+                enter();
+                TagExpression inner = or();
+                if (!isSymbol(")")) {
+                    throw error("falta ')'");
+                }
+                depth--;
+                advance();
+                return inner;
+            }
+            if (!next.quoted() && (isSymbol(")") || isOperator("AND", "&") || isOperator("OR", "|"))) {
+                throw error("se esperaba una etiqueta y llegó '" + next + "'");
+            }
+            String tag = next.text();
+            advance();
+            return new Tag(tag);
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw error("supera " + MAX_DEPTH + " niveles de NOT y paréntesis anidados");
+            }
+        }
+
+        private Token peek() {
+            return next;
+        }
+
+        private boolean isSymbol(String symbol) {
+            return next != null && !next.quoted() && next.text().equals(symbol);
+        }
+
+        private boolean isOperator(String word, String symbol) {
+            return next != null && !next.quoted()
+                    && (next.text().equals(symbol) || next.text().toUpperCase(Locale.ROOT).equals(word));
+        }
+
+        private void advance() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+            if (position == input.length()) {
+                next = null;
+                return;
+            }
+            char c = input.charAt(position);
+            if (c == '(' || c == ')' || c == '&' || c == '|' || c == '!') {
+                position++;
+                next = new Token(String.valueOf(c), false);
+            } else if (c == '"') {
+                int end = input.indexOf('"', position + 1);
+                if (end < 0) {
+                    throw error("falta cerrar las comillas");
+                }
+                next = new Token(input.substring(position + 1, end), true);
+                position = end + 1;
+            } else {
+                int start = position;
+                while (position < input.length() && !Character.isWhitespace(input.charAt(position))
+                        && "()&|!\"".indexOf(input.charAt(position)) < 0) {
+                    position++;
+                }
+                next = new Token(input.substring(start, position), false);
+            }
+        }
+
+        private InvalidQueryException error(String detail) {
+            return new InvalidQueryException("Expresión de etiquetas inválida en la posición " + position + ": " + detail);
+        }
+    }
+}
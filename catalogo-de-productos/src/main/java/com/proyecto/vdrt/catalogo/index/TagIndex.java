@@ -0,0 +1,302 @@
+package com.proyecto.vdrt.catalogo.index;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+
+/**
+ * Índice de etiquetas en memoria para expresiones AND/OR/NOT (/products/tag?expr=).
+ * Cada etiqueta distinta se guarda una sola vez en un diccionario que le asigna un entero, y tiene un bitmap
+ * comprimido (Roaring) con los ordinales de los productos que la llevan (ver ProductOrdinals). Evaluar una
+ * expresión son operaciones entre bitmaps: microsegundos y sin consultar MongoDB; el conteo sale del bitmap.
+ *
+ * Solo ve las escrituras hechas por esta instancia (ProductChangedEvent); se activa con catalogo.tag-index.enabled.
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagIndex.class);
+    private static final int[] NO_TAGS = new int[0];
+    /*
+    Orden de _id en MongoDB: los IDs que no son ObjectId se guardan como String, que va antes que ObjectId;
+    entre ObjectId, el orden de los bytes coincide con el del texto hexadecimal.
+    */
+    static final Comparator<String> ID_ORDER = Comparator.comparing(ObjectId::isValid).thenComparing(Comparator.naturalOrder());
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductOrdinals ordinals;
+
+    @Value("${catalogo.tag-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalogo.tag-index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Diccionario de etiquetas: nombre -> entero y bitmap de productos por entero
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+    // Etiquetas actuales de cada producto (para quitarlo de sus bitmaps al modificarlo o eliminarlo)
+    private final Map<Integer, int[]> tagsByOrdinal = new HashMap<>();
+    // Todos los productos existentes: el universo de NOT
+    private RoaringBitmap live = new RoaringBitmap();
+    // Cambios recibidos durante la carga inicial; se aplican sobre lo leído (null = eliminado)
+    private final Map<String, List<String>> pendingDuringLoad = new LinkedHashMap<>();
+
+    public TagIndex(MongoTemplate mongoTemplate, ProductOrdinals ordinals) {
+        this.mongoTemplate = mongoTemplate;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Resultado de evaluar una expresión.
+     * @param count Cantidad total de productos que la cumplen.
+     * @param ids IDs de la página pedida, en orden de _id (el mismo que la consulta en MongoDB sin el índice).
+     */
+    public record TagMatch(long count, List<String> ids) {
+    }
+
+    // true cuando está activado y ya terminó la carga inicial
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("tag-index").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("No se pudo cargar el índice de etiquetas en memoria", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Carga las etiquetas de todos los productos. Solo se proyecta 'tags': un recorrido de la colección
+     * sin leer el resto de cada documento.
+     */
+    public void rebuild() {
+        Query query = new Query().cursorBatchSize(loadBatchSize);
+        query.fields().include("tags");
+
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            tagIds.clear();
+            bitmaps.clear();
+            tagsByOrdinal.clear();
+            live = new RoaringBitmap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long count = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, "products")) {
+            for (Document doc : (Iterable<Document>) documents::iterator) {
+                List<String> tags = doc.getList("tags", String.class);
+                lock.writeLock().lock();
+                try {
+                    // Lo que ya cambió durante la carga se aplica al final y tiene prioridad sobre lo leído
+                    String id = doc.get("_id").toString();
+                    if (!pendingDuringLoad.containsKey(id)) {
+                        apply(ordinals.ordinalOf(id), tags);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                count++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad.forEach((id, tags) -> apply(ordinals.ordinalOf(id), tags));
+            pendingDuringLoad.clear();
+            // Convierte a contenedores de rangos (run) donde conviene: las cargas por lote dejan ordinales contiguos
+            bitmaps.forEach(RoaringBitmap::runOptimize);
+            live.runOptimize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de etiquetas cargado: {} productos, {} etiquetas distintas", count, tagIds.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<String> tags = event.type() == ProductChangedEvent.Type.DELETED ? null
+                : event.product().getTags() != null ? event.product().getTags() : List.of();
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pendingDuringLoad.put(event.id(), tags);
+            } else {
+                apply(ordinals.ordinalOf(event.id()), tags);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evalúa la expresión y devuelve el conteo total y una página de IDs ordenados por _id.
+     * Los ordinales siguen el orden de llegada, no el de _id: la página se elige recorriendo las coincidencias
+     * con un heap de offset + limit IDs, así una misma URL devuelve la misma página con o sin el índice.
+     * @param offset Cantidad de resultados a saltar.
+     * @param limit Tamaño de la página.
+     */
+    public TagMatch evaluate(TagExpression expression, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = eval(expression);
+            if (offset >= result.getCardinality()) {
+                return new TagMatch(result.getLongCardinality(), List.of());
+            }
+            int wanted = (int) Math.min((long) offset + limit, result.getCardinality());
+            // Los wanted IDs menores; la raíz es el mayor de ellos
+            PriorityQueue<String> smallest = new PriorityQueue<>(wanted, ID_ORDER.reversed());
+            result.forEach((IntConsumer) ordinal -> {
+                String id = ordinals.idOf(ordinal);
+                if (smallest.size() < wanted) {
+                    smallest.add(id);
+                } else if (ID_ORDER.compare(id, smallest.peek()) < 0) {
+                    smallest.poll();
+                    smallest.add(id);
+                }
+            });
+            String[] ordered = new String[smallest.size()];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = smallest.poll();
+            }
+            return new TagMatch(result.getLongCardinality(), List.of(ordered).subList(offset, ordered.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cantidad de productos que cumplen la expresión
+    public long count(TagExpression expression) {
+        lock.readLock().lock();
+        try {
+            return eval(expression).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+    Las operaciones estáticas de RoaringBitmap devuelven un bitmap nuevo: los del índice nunca se modifican al leer.
+    AND empieza por el operando más chico (el resultado solo puede achicarse) y resuelve sus NOT con andNot,
+    sin construir el complemento contra todo el catálogo.
+    */
+    private RoaringBitmap eval(TagExpression expression) {
+        return switch (expression) {
+            case TagExpression.Tag tag -> {
+                Integer id = tagIds.get(tag.name());
+                yield id == null ? new RoaringBitmap() : bitmaps.get(id);
+            }
+            case TagExpression.Or or -> RoaringBitmap.or(or.operands().stream().map(this::eval).iterator());
+            case TagExpression.Not not -> RoaringBitmap.andNot(live, eval(not.operand()));
+            case TagExpression.And and -> {
+                List<RoaringBitmap> included = new ArrayList<>();
+                List<RoaringBitmap> excluded = new ArrayList<>();
+                for (TagExpression operand : and.operands()) {
+                    if (operand instanceof TagExpression.Not not) {
+                        excluded.add(eval(not.operand()));
+                    } else {
+                        included.add(eval(operand));
+                    }
+                }
+                included.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+                RoaringBitmap result = included.isEmpty() ? live : included.get(0);
+                for (int i = 1; i < included.size() && !result.isEmpty(); i++) {
+                    result = RoaringBitmap.and(result, included.get(i));
+                }
+                for (RoaringBitmap other : excluded) {
+                    result = RoaringBitmap.andNot(result, other);
+                }
+                yield result;
+            }
+        };
+    }
+
+    // Reemplaza las etiquetas de un producto; tags null lo elimina
+    private void apply(int ordinal, List<String> tags) {
+        int[] previous = tagsByOrdinal.getOrDefault(ordinal, NO_TAGS);
+        for (int tagId : previous) {
+            bitmaps.get(tagId).remove(ordinal);
+        }
+        if (tags == null) {
+            tagsByOrdinal.remove(ordinal);
+            live.remove(ordinal);
+            return;
+        }
+        int[] current = tags.stream().mapToInt(this::intern).distinct().toArray();
+        for (int tagId : current) {
+            bitmaps.get(tagId).add(ordinal);
+        }
+        tagsByOrdinal.put(ordinal, current.length == 0 ? NO_TAGS : current);
+        live.add(ordinal);
+    }
+
+    // Los enteros no se reutilizan: una etiqueta que quedó sin productos conserva el suyo y un bitmap vacío
+    private int intern(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id == null) {
+            id = bitmaps.size();
+            tagIds.put(tag, id);
+            bitmaps.add(new RoaringBitmap());
+        }
+        return id;
+    }
+
+    // Cantidad de etiquetas distintas del diccionario (métrica)
+    public int tagCount() {
+        lock.readLock().lock();
+        try {
+            return tagIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tamaño aproximado de los bitmaps en bytes (métrica)
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum() + live.getLongSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
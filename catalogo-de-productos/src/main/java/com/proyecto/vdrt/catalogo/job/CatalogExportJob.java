@@ -0,0 +1,192 @@
+package com.proyecto.vdrt.catalogo.job;
+
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+
+/**
+ * Exportación del catálogo completo a un archivo gzip. Lee con un cursor de MongoDB en lotes de
+ * catalogo.jobs.batch-size y escribe cada producto a medida que llega: la memoria usada no depende
+ * del tamaño del catálogo. El archivo se escribe como .part y se renombra al terminar, así nunca
+ * se descarga uno incompleto.
+ */
+@Component
+public class CatalogExportJob {
+
+    public enum Format {
+        NDJSON("ndjson"), JSON("json"), CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            if (format == null || format.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidQueryException("Formato de exportación no soportado: " + format + " (ndjson, json o csv)");
+            }
+        }
+    }
+
+    // Columnas del CSV en este orden, filtradas por 'fields'
+    private static final List<String> CSV_COLUMNS = List.of("id", "name", "price", "general_description",
+            "specifications", "tags", "version", "last_modified");
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ReadRouting readRouting;
+
+    @Value("${catalogo.jobs.batch-size:1000}")
+    private int batchSize;
+
+    public CatalogExportJob(MongoTemplate mongoTemplate, ProductMapper productMapper, ObjectMapper objectMapper,
+            ReadRouting readRouting) {
+        this.mongoTemplate = mongoTemplate;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.readRouting = readRouting;
+    }
+
+    /**
+     * Escribe el catálogo en {@code <output-dir>/<id>.<formato>.gz}.
+     * @return Ruta del archivo generado.
+     */
+    public Path export(JobContext context, Format format, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Path target = context.outputDir().resolve(context.id() + "." + format.extension() + ".gz");
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        context.total(mongoTemplate.estimatedCount(Product.class));
+
+        Query query = projection.project(new Query().with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(batchSize));
+        try {
+            Files.createDirectories(context.outputDir());
+            try (Stream<Product> products = mongoTemplate.stream(readRouting.forList(query), Product.class);
+                    OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 64 * 1024)) {
+                Iterator<ProductResponse> it = products.map(product -> productMapper.toResponse(product, projection)).iterator();
+                if (format == Format.CSV) {
+                    writeCsv(it, projection, out, context);
+                } else {
+                    writeJson(it, format == Format.NDJSON, out, context);
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir " + partial, ex);
+        } finally {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Solo queda un .part huérfano en el directorio de salida
+            }
+        }
+    }
+
+    private void writeJson(Iterator<ProductResponse> products, boolean ndjson, OutputStream out, JobContext context) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin el espacio que Jackson pone entre valores raíz: cada línea empieza con '{'
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            long count = 0;
+            while (products.hasNext()) {
+                generator.writeObject(products.next());
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                context.progress(++count);
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    // Una fila por producto; las especificaciones van como objeto JSON y las etiquetas separadas por '|'
+    private void writeCsv(Iterator<ProductResponse> products, ProductFields projection, OutputStream out, JobContext context) throws IOException {
+        List<String> columns = CSV_COLUMNS.stream().filter(projection::includes).toList();
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        long count = 0;
+        List<String> row = new ArrayList<>(columns.size());
+        while (products.hasNext()) {
+            ProductResponse product = products.next();
+            row.clear();
+            for (String column : columns) {
+                row.add(csv(value(product, column)));
+            }
+            writer.write(String.join(",", row));
+            writer.write("\r\n");
+            context.progress(++count);
+        }
+        writer.flush();
+    }
+
+    private String value(ProductResponse product, String column) throws IOException {
+        return switch (column) {
+            case "id" -> product.getId();
+            case "name" -> product.getName();
+            case "price" -> product.getPrice() == null ? null : product.getPrice().toString();
+            case "general_description" -> product.getGeneralDescription();
+            case "specifications" -> product.getSpecifications() == null ? null : objectMapper.writeValueAsString(product.getSpecifications());
+            case "tags" -> product.getTags() == null ? null : String.join("|", product.getTags());
+            case "version" -> product.getVersion() == null ? null : product.getVersion().toString();
+            case "last_modified" -> product.getLastModified() == null ? null : product.getLastModified().toString();
+            default -> null;
+        };
+    }
+
+    // RFC 4180: entre comillas si tiene separadores, comillas o saltos de línea; las comillas se duplican
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
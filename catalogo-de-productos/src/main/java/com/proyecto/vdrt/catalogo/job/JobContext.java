@@ -0,0 +1,25 @@
+package com.proyecto.vdrt.catalogo.job;
+
+
+import java.nio.file.Path;
+
+/**
+ * Lo que un trabajo en segundo plano recibe de JobService mientras se ejecuta.
+ */
+public interface JobContext {
+
+    String id();
+
+    // Total estimado de elementos, para calcular el porcentaje de avance
+    void total(long total);
+
+    /**
+     * Informa cuántos elementos lleva procesados. Es barato llamarlo por elemento: solo se escribe en MongoDB
+     * cada catalogo.jobs.progress-interval.
+     * @throws com.proyecto.vdrt.catalogo.exception.JobCancelledException si se pidió cancelar el trabajo.
+     */
+    void progress(long processed);
+
+    // Directorio donde el trabajo deja sus archivos (catalogo.jobs.output-dir)
+    Path outputDir();
+}
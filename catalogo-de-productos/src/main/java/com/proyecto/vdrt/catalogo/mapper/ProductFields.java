@@ -0,0 +1,110 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.proyecto.vdrt.catalogo.exception.InvalidFieldsException;
+
+/**
+ * Campos pedidos por el cliente con el parámetro fields= (ej. "name,price").
+ * Se usan dos veces: como proyección en MongoDB, para no leer ni decodificar lo que no se va a mostrar,
+ * y en ProductMapper, para que la respuesta solo incluya esos campos. El id se incluye siempre.
+ */
+public final class ProductFields {
+
+    // Nombre en la API (JSON) -> nombre en el documento
+    private static final Map<String, String> DOCUMENT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        DOCUMENT_FIELDS.put("id", "id");
+        DOCUMENT_FIELDS.put("name", "name");
+        DOCUMENT_FIELDS.put("price", "price");
+        DOCUMENT_FIELDS.put("general_description", "generalDescription");
+        DOCUMENT_FIELDS.put("specifications", "specifications");
+        DOCUMENT_FIELDS.put("tags", "tags");
+        DOCUMENT_FIELDS.put("version", "version");
+        DOCUMENT_FIELDS.put("last_modified", "lastModified");
+    }
+
+    public static final ProductFields ALL = new ProductFields(DOCUMENT_FIELDS.keySet(), false);
+
+    private final Set<String> names;
+    private final boolean partial;
+
+    private ProductFields(Set<String> names, boolean partial) {
+        this.names = Collections.unmodifiableSet(names);
+        this.partial = partial;
+    }
+
+    /**
+     * @param fields Lista separada por comas de campos de la respuesta; null o vacío devuelve todos.
+     * @throws InvalidFieldsException si algún campo no existe.
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!DOCUMENT_FIELDS.containsKey(name)) {
+                throw new InvalidFieldsException(name);
+            }
+            names.add(name);
+        }
+        return new ProductFields(names, true);
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Agrega la proyección a la consulta.
+     * @param required Campos del documento que la consulta necesita aunque el cliente no los pida
+     *                 (por ejemplo 'price' para armar el cursor); ProductMapper no los devuelve.
+     */
+    public Query project(Query query, String... required) {
+        if (partial) {
+            names.forEach(name -> query.fields().include(DOCUMENT_FIELDS.get(name)));
+            for (String field : required) {
+                query.fields().include(field);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Proyección para las lecturas con el driver (RawProductJson), donde el id no se traduce a _id.
+     * Sin fields= se excluyen los campos internos 'specs' y '_class', que la respuesta no muestra.
+     */
+    public Document rawProjection() {
+        Document projection = new Document();
+        if (partial) {
+            names.forEach(name -> projection.append("id".equals(name) ? "_id" : DOCUMENT_FIELDS.get(name), 1));
+        } else {
+            projection.append("specs", 0).append("_class", 0);
+        }
+        return projection;
+    }
+
+    // Nombre en la API -> nombre en el documento, para quien escribe la respuesta sin pasar por ProductResponse
+    static Map<String, String> documentFields() {
+        return Collections.unmodifiableMap(DOCUMENT_FIELDS);
+    }
+}
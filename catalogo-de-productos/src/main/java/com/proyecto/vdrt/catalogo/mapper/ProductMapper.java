@@ -1,8 +1,22 @@
 package com.proyecto.vdrt.catalogo.mapper;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
 
@@ -16,7 +30,9 @@ public class ProductMapper {
         responce.setPrice(p.getPrice());
         responce.setGeneralDescription(p.getGeneralDescription());
         responce.setSpecifications(p.getSpecifications());
+        responce.setSpecs(SpecificationNormalizer.toEntries(p.getSpecifications()));
         responce.setTags(p.getTags());
+        responce.setLastModified(Instant.now());
 
         return responce;
     }
@@ -31,16 +47,154 @@ public class ProductMapper {
         response.setGeneralDescription(r.getGeneralDescription());
         response.setSpecifications(r.getSpecifications());
         response.setTags(r.getTags());
+        response.setVersion(r.getVersion());
+        response.setLastModified(r.getLastModified());
+
+        return response;
+    }
+
+    // Solo copia los campos pedidos; los demás quedan nulos y Jackson no los serializa
+    public ProductResponse toResponse (Product r, ProductFields fields){
+        if (!fields.isPartial()) {
+            return toResponse(r);
+        }
+        ProductResponse response = new ProductResponse();
+
+        response.setId(r.getId());
+        if (fields.includes("name")) response.setName(r.getName());
+        if (fields.includes("price")) response.setPrice(r.getPrice());
+        if (fields.includes("general_description")) response.setGeneralDescription(r.getGeneralDescription());
+        if (fields.includes("specifications")) response.setSpecifications(r.getSpecifications());
+        if (fields.includes("tags")) response.setTags(r.getTags());
+        if (fields.includes("version")) response.setVersion(r.getVersion());
+        if (fields.includes("last_modified")) response.setLastModified(r.getLastModified());
 
         return response;
     }
 
-    // Actualiza una entidad existente con los datos del DTO, sin perder el ID ni otros datos no mapeados.
-    public void updateProductFromRequest(ProductRequest request, Product product) {
-        product.setName(request.getName());
-        product.setPrice(request.getPrice());
-        product.setGeneralDescription(request.getGeneralDescription());
-        product.setSpecifications(request.getSpecifications());
-        product.setTags(request.getTags());
+    // Respuesta mínima de los listados por precio que no leen el documento completo
+    public ProductResponse toPriceResponse(String id, Double price) {
+        ProductResponse response = new ProductResponse();
+        response.setId(id);
+        response.setPrice(price);
+        return response;
+    }
+
+    // Construye un $set con todos los campos del DTO, para actualizar sin leer antes el documento.
+    public Update toUpdate(ProductRequest request) {
+        return new Update()
+                .set("name", request.getName())
+                .set("price", request.getPrice())
+                .set("generalDescription", request.getGeneralDescription())
+                .set("specifications", request.getSpecifications())
+                .set("specs", SpecificationNormalizer.toEntries(request.getSpecifications()))
+                .set("tags", request.getTags())
+                .set("lastModified", Instant.now())
+                .inc("version", 1);
+    }
+
+    /*
+    Convierte un PATCH en una actualización con pipeline que MongoDB aplica en una sola operación atómica.
+    Solo se tocan los campos enviados:
+    - name / price / generalDescription: $set del valor ($literal para que un texto con '$' no se lea como campo).
+    - specifications y su copia normalizada 'specs': se conservan las claves no tocadas y se agregan las nuevas.
+    - tags: se quitan las de remove_tags y se agregan las de add_tags que no existan (como $pull + $addToSet).
+    Se usa pipeline porque $pull y $addToSet (o $unset y $set) no pueden tocar el mismo campo en un update clásico.
+    */
+    public AggregationUpdate toPatchUpdate(ProductPatchRequest patch) {
+        Document set = new Document();
+
+        if (patch.getName() != null) {
+            set.append("name", literal(patch.getName()));
+        }
+        if (patch.getPrice() != null) {
+            set.append("price", literal(patch.getPrice()));
+        }
+        if (patch.getGeneralDescription() != null) {
+            set.append("generalDescription", literal(patch.getGeneralDescription()));
+        }
+
+        Map<String, String> setSpecs = patch.getSetSpecifications() != null ? patch.getSetSpecifications() : Map.of();
+        List<String> unsetSpecs = patch.getUnsetSpecifications() != null ? patch.getUnsetSpecifications() : List.of();
+        if (!setSpecs.isEmpty() || !unsetSpecs.isEmpty()) {
+            Set<String> touchedKeys = new LinkedHashSet<>(setSpecs.keySet());
+            touchedKeys.addAll(unsetSpecs);
+            Set<String> touchedNormKeys = new LinkedHashSet<>();
+            touchedKeys.forEach(key -> touchedNormKeys.add(SpecificationNormalizer.normalize(key)));
+
+            List<Document> newPairs = new ArrayList<>();
+            List<Document> newEntries = new ArrayList<>();
+            setSpecs.forEach((key, value) -> newPairs.add(new Document("k", key).append("v", value)));
+            SpecificationNormalizer.toEntries(setSpecs).forEach(entry -> {
+                Document document = new Document("k", entry.getK()).append("v", entry.getV()).append("vNorm", entry.getVNorm());
+                if (entry.getN() != null) {
+                    document.append("n", entry.getN());
+                }
+                if (entry.getU() != null) {
+                    document.append("u", entry.getU());
+                }
+                newEntries.add(document);
+            });
+
+            // Las dos formas se filtran por la clave normalizada: "RAM" también quita "Ram" o "ram " de specifications,
+            // igual que quita la entrada "ram" de specs, y los dos mapas no quedan con claves distintas
+            set.append("specifications", new Document("$arrayToObject", concat(
+                    withoutKeys(new Document("$objectToArray", ifNull("$specifications", new Document())), touchedKeys, touchedNormKeys),
+                    literal(newPairs))));
+            set.append("specs", concat(
+                    without(ifNull("$specs", List.of()), "$$this.k", touchedNormKeys),
+                    literal(newEntries)));
+        }
+
+        List<String> addTags = patch.getAddTags() != null ? List.copyOf(new LinkedHashSet<>(patch.getAddTags())) : List.of();
+        List<String> removeTags = patch.getRemoveTags() != null ? patch.getRemoveTags() : List.of();
+        if (!addTags.isEmpty() || !removeTags.isEmpty()) {
+            Document kept = without(ifNull("$tags", List.of()), "$$this", removeTags);
+            Document added = new Document("$filter", new Document("input", literal(addTags))
+                    .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this", "$$kept"))))));
+            set.append("tags", new Document("$let", new Document("vars", new Document("kept", kept))
+                    .append("in", concat("$$kept", added))));
+        }
+
+        set.append("version", new Document("$add", List.of(ifNull("$version", 0L), 1L)));
+        set.append("lastModified", literal(Date.from(Instant.now())));
+
+        AggregationOperation stage = context -> new Document("$set", set);
+        return AggregationUpdate.from(List.of(stage));
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private static Document ifNull(String field, Object fallback) {
+        return new Document("$ifNull", List.of(field, fallback));
+    }
+
+    private static Document concat(Object first, Object second) {
+        return new Document("$concatArrays", List.of(first, second));
+    }
+
+    /*
+    Filtra los pares {k, v} de specifications cuya clave, normalizada en el servidor como SpecificationNormalizer.normalize
+    (sin espacios y en minúsculas), está en 'normKeys'. $toLower solo convierte letras ASCII: una clave guardada con
+    mayúsculas acentuadas ("BATERÍA") se reconoce además por su forma exacta en 'keys'.
+    */
+    private static Document withoutKeys(Object input, Collection<String> keys, Collection<String> normKeys) {
+        Object normalized = new Document("$toLower", "$$this.k");
+        for (String whitespace : List.of(" ", "\t", "\n", "\r", "\f", "\u000B")) {
+            normalized = new Document("$replaceAll", new Document("input", normalized).append("find", whitespace).append("replacement", ""));
+        }
+        return new Document("$filter", new Document("input", input)
+                .append("cond", new Document("$not", List.of(new Document("$or", List.of(
+                        new Document("$in", List.of("$$this.k", literal(List.copyOf(keys)))),
+                        new Document("$in", List.of(normalized, literal(List.copyOf(normKeys))))))))));
+    }
+
+    // Filtra un arreglo dejando solo los elementos cuyo valor (expression) no está en 'excluded'
+    private static Document without(Object input, String expression, Collection<String> excluded) {
+        return new Document("$filter", new Document("input", input)
+                .append("cond", new Document("$not", List.of(
+                        new Document("$in", List.of(expression, literal(List.copyOf(excluded))))))));
     }
 }
@@ -0,0 +1,240 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+/**
+ * Escribe un producto leído como RawBsonDocument directamente en JSON, sin pasar por Product ni ProductResponse.
+ * Recorre los bytes BSON del documento y renombra los campos al escribirlos (generalDescription ->
+ * general_description, _id -> id); el resultado es el mismo JSON que produce Jackson con ProductResponse.
+ *
+ * Los textos se copian como UTF-8 sin crear String cuando el generador escribe bytes (el caso de las respuestas
+ * HTTP); solo se crean objetos para las claves de 'specifications', la fecha de last_modified y los textos con
+ * caracteres fuera del plano básico, que Jackson escribe escapados.
+ */
+public final class RawProductJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Tipos BSON (https://bsonspec.org/spec.html)
+    private static final byte DOUBLE = 0x01;
+    private static final byte STRING = 0x02;
+    private static final byte DOCUMENT = 0x03;
+    private static final byte ARRAY = 0x04;
+    private static final byte BINARY = 0x05;
+    private static final byte OBJECT_ID = 0x07;
+    private static final byte BOOLEAN = 0x08;
+    private static final byte DATE_TIME = 0x09;
+    private static final byte NULL = 0x0A;
+    private static final byte REGEX = 0x0B;
+    private static final byte DB_POINTER = 0x0C;
+    private static final byte JAVASCRIPT = 0x0D;
+    private static final byte SYMBOL = 0x0E;
+    private static final byte JAVASCRIPT_WITH_SCOPE = 0x0F;
+    private static final byte INT32 = 0x10;
+    private static final byte TIMESTAMP = 0x11;
+    private static final byte INT64 = 0x12;
+    private static final byte DECIMAL128 = 0x13;
+
+    // Campo del documento -> nombre en la API, ya preparado para el generador
+    private record Field(byte[] documentName, String apiName, SerializedString jsonName) {
+    }
+
+    private static final Field[] FIELDS;
+
+    static {
+        List<Field> fields = new ArrayList<>();
+        ProductFields.documentFields().forEach((api, document) -> fields.add(new Field(
+                ("id".equals(api) ? "_id" : document).getBytes(UTF_8), api, new SerializedString(api))));
+        FIELDS = fields.toArray(Field[]::new);
+    }
+
+    private RawProductJson() {
+    }
+
+    /**
+     * Escribe el documento como un objeto JSON. Los campos internos ('specs', '_class') y los que no están en
+     * {@code fields} se saltean; los nulos no se escriben, igual que en ProductResponse.
+     */
+    public static void write(RawBsonDocument document, ProductFields fields, JsonGenerator generator) throws IOException {
+        ByteBuf buffer = document.getByteBuffer();
+        Writer writer = new Writer(buffer.array(), generator);
+        int position = buffer.arrayOffset() + buffer.position() + 4;
+
+        generator.writeStartObject();
+        byte type;
+        while ((type = writer.bytes[position++]) != 0) {
+            int nameStart = position;
+            position = writer.endOfCString(position);
+            Field field = find(writer.bytes, nameStart, position - 1);
+            if (field == null || type == NULL || !fields.includes(field.apiName())) {
+                position = writer.skip(type, position);
+                continue;
+            }
+            generator.writeFieldName(field.jsonName());
+            position = writer.value(type, position);
+        }
+        generator.writeEndObject();
+    }
+
+    // ID del documento como lo devuelve la API (hex del ObjectId), por ejemplo para armar el cursor de la página
+    public static String id(RawBsonDocument document) {
+        BsonValue id = document.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static Field find(byte[] bytes, int from, int to) {
+        for (Field field : FIELDS) {
+            if (Arrays.equals(bytes, from, to, field.documentName(), 0, field.documentName().length)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static final class Writer {
+
+        private final byte[] bytes;
+        private final JsonGenerator generator;
+        // writeUTF8String solo lo implementan los generadores que escriben bytes
+        private final boolean utf8;
+
+        private Writer(byte[] bytes, JsonGenerator generator) {
+            this.bytes = bytes;
+            this.generator = generator;
+            this.utf8 = generator instanceof UTF8JsonGenerator;
+        }
+
+        // Escribe el valor que empieza en position y devuelve la posición siguiente
+        private int value(byte type, int position) throws IOException {
+            switch (type) {
+                case DOUBLE -> generator.writeNumber(Double.longBitsToDouble(int64(position)));
+                case STRING, SYMBOL, JAVASCRIPT -> string(position + 4, int32(position) - 1);
+                case DOCUMENT -> document(position);
+                case ARRAY -> array(position);
+                case OBJECT_ID -> objectId(position);
+                case BOOLEAN -> generator.writeBoolean(bytes[position] != 0);
+                case DATE_TIME -> generator.writeString(Instant.ofEpochMilli(int64(position)).toString());
+                case INT32 -> generator.writeNumber(int32(position));
+                case INT64, TIMESTAMP -> generator.writeNumber(int64(position));
+                case DECIMAL128 -> generator.writeNumber(decimal128(position));
+                // Tipos que los productos no usan (binarios, expresiones regulares, etc.)
+                default -> generator.writeNull();
+            }
+            return skip(type, position);
+        }
+
+        // Subdocumento (specifications): sus claves se escriben tal cual, sin renombrar
+        private void document(int position) throws IOException {
+            generator.writeStartObject();
+            position += 4;
+            byte type;
+            while ((type = bytes[position++]) != 0) {
+                int nameStart = position;
+                position = endOfCString(position);
+                generator.writeFieldName(new String(bytes, nameStart, position - 1 - nameStart, UTF_8));
+                position = value(type, position);
+            }
+            generator.writeEndObject();
+        }
+
+        // Arreglo (tags): en BSON es un documento con claves "0", "1", ... que no se escriben
+        private void array(int position) throws IOException {
+            generator.writeStartArray();
+            position += 4;
+            byte type;
+            while ((type = bytes[position++]) != 0) {
+                position = value(type, endOfCString(position));
+            }
+            generator.writeEndArray();
+        }
+
+        /*
+        Los caracteres de 4 bytes en UTF-8 (emoji, etc.) van por writeString: Jackson los escribe como un par de
+        escapes \\uXXXX (salvo con COMBINE_UNICODE_SURROGATES_IN_UTF8), y writeUTF8String los copiaría tal cual.
+        */
+        private void string(int start, int length) throws IOException {
+            if (utf8 && !hasFourByteCharacters(start, length)) {
+                generator.writeUTF8String(bytes, start, length);
+            } else {
+                generator.writeString(new String(bytes, start, length, UTF_8));
+            }
+        }
+
+        private boolean hasFourByteCharacters(int start, int length) {
+            for (int i = start; i < start + length; i++) {
+                if ((bytes[i] & 0xF8) == 0xF0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void objectId(int position) throws IOException {
+            char[] hex = new char[24];
+            for (int i = 0; i < 12; i++) {
+                int b = bytes[position + i] & 0xFF;
+                hex[i * 2] = HEX[b >>> 4];
+                hex[i * 2 + 1] = HEX[b & 0x0F];
+            }
+            generator.writeString(hex, 0, hex.length);
+        }
+
+        private BigDecimal decimal128(int position) {
+            return Decimal128.fromIEEE754BIDEncoding(int64(position + 8), int64(position)).bigDecimalValue();
+        }
+
+        // Posición siguiente al valor, sin leerlo
+        private int skip(byte type, int position) {
+            return switch (type) {
+                case DOUBLE, DATE_TIME, TIMESTAMP, INT64 -> position + 8;
+                case STRING, SYMBOL, JAVASCRIPT -> position + 4 + int32(position);
+                case DOCUMENT, ARRAY, JAVASCRIPT_WITH_SCOPE -> position + int32(position);
+                case BINARY -> position + 5 + int32(position);
+                case OBJECT_ID -> position + 12;
+                case BOOLEAN -> position + 1;
+                case REGEX -> endOfCString(endOfCString(position));
+                case DB_POINTER -> position + 4 + int32(position) + 12;
+                case INT32 -> position + 4;
+                case DECIMAL128 -> position + 16;
+                // null, undefined, min key y max key no tienen valor
+                default -> position;
+            };
+        }
+
+        // Posición siguiente al 0 que termina un nombre de campo
+        private int endOfCString(int position) {
+            while (bytes[position] != 0) {
+                position++;
+            }
+            return position + 1;
+        }
+
+        private int int32(int position) {
+            return (bytes[position] & 0xFF)
+                    | (bytes[position + 1] & 0xFF) << 8
+                    | (bytes[position + 2] & 0xFF) << 16
+                    | (bytes[position + 3] & 0xFF) << 24;
+        }
+
+        private long int64(int position) {
+            return (int32(position) & 0xFFFFFFFFL) | (long) int32(position + 4) << 32;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.proyecto.vdrt.catalogo.model.document.SpecificationEntry;
+
+/**
+ * Normaliza claves y valores de especificaciones al momento de escribir,
+ * para que la búsqueda sea una igualdad exacta que pueda resolver un índice.
+ * Ejemplo: " 16 GB " y "16gb" se normalizan a "16gb".
+ * Los valores "número + unidad" se guardan además como número en una unidad canónica,
+ * así "16384 MB" y "16 GB" son el mismo valor para las búsquedas por rango.
+ */
+public final class SpecificationNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Número con punto o coma decimal y una unidad opcional, sobre el valor sin espacios ("15,6pulgadas", "2.4GHz")
+    private static final Pattern MEASURE = Pattern.compile("([+-]?\\d+(?:[.,]\\d+)?)(\\p{L}+|\"|''|″)?");
+    // Coma seguida de exactamente tres dígitos: separador de miles ("5,000mah")
+    private static final Pattern THOUSANDS = Pattern.compile("\\d+,\\d{3}");
+
+    /*
+    Unidades conocidas -> unidad canónica y factor de conversión. Capacidad en GB (base 1024, como se anuncian
+    la RAM y el almacenamiento), longitud en pulgadas, peso en kg y frecuencia en GHz. Una unidad que no está
+    en la tabla se guarda tal cual ("8 núcleos" -> 8 "núcleos"), así igual admite rangos entre valores de esa unidad.
+    El factor es una fracción exacta ("1/2.54"): se divide por el factor real en lugar de multiplicar por su inverso.
+    Las unidades se reconocen sin distinguir mayúsculas ("GB", "Gb", "gb"), salvo las de CASE_SENSITIVE_UNITS.
+    */
+    private static final Map<String, Unit> UNITS = new HashMap<>();
+    /*
+    Símbolos que solo son esa unidad escritos exactamente así: "g" es gramo, pero "5G" es una red móvil
+    (o una generación) y no 0.005 kg. Con otra combinación de mayúsculas la unidad se guarda como desconocida.
+    */
+    private static final Map<String, Unit> CASE_SENSITIVE_UNITS = new HashMap<>();
+
+    static {
+        units("gb", "1/1048576", "kb", "kib");
+        units("gb", "1/1024", "mb", "mib");
+        units("gb", "1", "gb", "gib");
+        units("gb", "1024", "tb", "tib");
+        units("in", "1", "in", "inch", "inches", "pulg", "pulgada", "pulgadas", "\"", "''", "″");
+        units("in", "1/2.54", "cm");
+        units("in", "1/25.4", "mm");
+        units("kg", "1", "kg", "kilo", "kilos", "kilogramos");
+        units("kg", "1/1000", "gr", "gramos");
+        CASE_SENSITIVE_UNITS.put("g", UNITS.get("gr"));
+        units("kg", "0.45359237", "lb", "lbs", "libras");
+        units("ghz", "1", "ghz");
+        units("ghz", "1/1000", "mhz");
+        units("ghz", "1/1000000", "khz");
+    }
+
+    /*
+    La conversión se hace en decimal y se redondea a 15 cifras significativas (las que un double conserva sin error):
+    "2.54 cm", "25.4 mm" y "1 in" dan exactamente 1, igual en el valor guardado y en los límites de un rango,
+    en lugar de 0.9999999999999999 o 1.0000000000000002.
+    */
+    private static final MathContext PRECISION = new MathContext(15, RoundingMode.HALF_EVEN);
+
+    private record Unit(String canonical, BigDecimal multiplier, BigDecimal divisor) {
+
+        double convert(BigDecimal value) {
+            return value.multiply(multiplier).divide(divisor, PRECISION).doubleValue();
+        }
+    }
+
+    /**
+     * Valor numérico de una especificación.
+     * @param value Número expresado en la unidad canónica.
+     * @param unit Unidad canónica ("gb", "in", "kg", "ghz", otra unidad normalizada) o null si no tiene.
+     */
+    public record Measure(double value, String unit) {
+    }
+
+    private SpecificationNormalizer() {
+    }
+
+    private static void units(String canonical, String factor, String... aliases) {
+        int slash = factor.indexOf('/');
+        Unit unit = slash < 0 ? new Unit(canonical, new BigDecimal(factor), BigDecimal.ONE)
+                : new Unit(canonical, new BigDecimal(factor.substring(0, slash)), new BigDecimal(factor.substring(slash + 1)));
+        for (String alias : aliases) {
+            UNITS.put(alias, unit);
+        }
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        return WHITESPACE.matcher(text).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Interpreta un valor como número con unidad opcional y lo lleva a la unidad canónica.
+     * Ejemplos: "16384 MB" -> 16 "gb", "15,6 pulgadas" -> 15.6 "in", "8" -> 8 sin unidad.
+     * @return La medida, o null si el valor no es un número seguido de una unidad ("Intel i7", "1920x1080").
+     */
+    public static Measure measure(String text) {
+        if (text == null) {
+            return null;
+        }
+        // Sin espacios pero con las mayúsculas originales, para los símbolos de CASE_SENSITIVE_UNITS
+        Matcher matcher = MEASURE.matcher(WHITESPACE.matcher(text).replaceAll(""));
+        if (!matcher.matches()) {
+            return null;
+        }
+        String number = matcher.group(1);
+        number = THOUSANDS.matcher(number).matches() ? number.replace(",", "") : number.replace(',', '.');
+        BigDecimal value = new BigDecimal(number);
+        String symbol = matcher.group(2);
+        if (symbol == null) {
+            return new Measure(value.doubleValue(), null);
+        }
+        String unit = symbol.toLowerCase(Locale.ROOT);
+        Unit known = CASE_SENSITIVE_UNITS.containsKey(symbol) ? CASE_SENSITIVE_UNITS.get(symbol) : UNITS.get(unit);
+        return known == null ? new Measure(value.doubleValue(), unit) : new Measure(known.convert(value), known.canonical());
+    }
+
+    // Convierte el mapa de especificaciones a su forma indexable [{k, v, vNorm, n, u}]
+    public static List<SpecificationEntry> toEntries(Map<String, String> specifications) {
+        if (specifications == null) {
+            return null;
+        }
+        List<SpecificationEntry> entries = new ArrayList<>(specifications.size());
+        specifications.forEach((key, value) -> {
+            Measure measure = measure(value);
+            entries.add(new SpecificationEntry(normalize(key), value, normalize(value),
+                    measure != null ? measure.value() : null, measure != null ? measure.unit() : null));
+        });
+        return entries;
+    }
+}
@@ -0,0 +1,59 @@
+package com.proyecto.vdrt.catalogo.metrics;
+
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.model.dto.SizedResponse;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra cuántos productos devuelve cada listado (catalogo.service.result.size, por método).
+ * Sirve para ver qué consultas traen páginas grandes y cuánto aporta cada una al tráfico.
+ */
+@Aspect
+@Component
+public class ResultSizeMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    public ResultSizeMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.proyecto.vdrt.catalogo.service.ProductService.*(..))"
+            + " || execution(* com.proyecto.vdrt.catalogo.service.ProductQueryService.*(..))")
+    public Object recordResultSize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String method = joinPoint.getSignature().getName();
+
+        if (result instanceof List<?> list) {
+            summary(method).record(list.size());
+        } else if (result instanceof SizedResponse page) {
+            summary(method).record(page.getSize());
+        } else if (result instanceof Stream<?> stream) {
+            // Las exportaciones se cuentan a medida que se recorren y se registran al cerrar el Stream
+            AtomicLong count = new AtomicLong();
+            return stream.peek(item -> count.incrementAndGet())
+                    .onClose(() -> summary(method).record(count.get()));
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(String method) {
+        return DistributionSummary.builder("catalogo.service.result.size")
+                .description("Cantidad de productos devueltos por cada listado")
+                .baseUnit("products")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.proyecto.vdrt.catalogo.migration;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * Completa el campo normalizado 'specs' en los productos guardados antes de que existiera.
+ * Recorre la colección con un cursor y escribe en lotes no ordenados para no cargar todo en memoria.
+ * Se activa al inicio con catalogo.migrations.specifications.enabled=true.
+ */
+@Component
+public class SpecificationMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SpecificationMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${catalogo.migrations.specifications.enabled:false}")
+    private boolean runOnStartup;
+
+    @Value("${catalogo.migrations.batch-size:500}")
+    private int batchSize;
+
+    public SpecificationMigration(MongoTemplate mongoTemplate, CatalogVersion catalogVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (runOnStartup) {
+            Thread.ofVirtual().name("specs-migration").start(() -> {
+                try {
+                    migrate(false);
+                } catch (RuntimeException ex) {
+                    log.error("Falló la migración de especificaciones", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Normaliza las especificaciones de los productos.
+     * @param all Si es true recalcula todos los productos; si no, solo los que no tienen 'specs'.
+     * @return Cantidad de productos actualizados.
+     */
+    public long migrate(boolean all) {
+        return migrate(all, scanned -> { });
+    }
+
+    /**
+     * Igual que migrate(all), informando después de cada lote cuántos productos lleva recorridos.
+     * Lo usa el trabajo NORMALIZE_SPECIFICATIONS: si progress lanza una excepción (cancelación), la migración
+     * se detiene y los lotes ya escritos quedan aplicados.
+     */
+    public long migrate(boolean all, LongConsumer progress) {
+        Query query = new Query(Criteria.where("specifications").exists(true));
+        if (!all) {
+            query.addCriteria(Criteria.where("specs").exists(false));
+        }
+        query.fields().include("specifications");
+        query.cursorBatchSize(batchSize);
+
+        long updated = 0;
+        long scanned = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, "products")) {
+            for (Document doc : (Iterable<Document>) documents::iterator) {
+                Map<String, String> specifications = toStringMap(doc.get("specifications", Document.class));
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))),
+                        Update.update("specs", SpecificationNormalizer.toEntries(specifications)));
+
+                scanned++;
+                if (++pending == batchSize) {
+                    updated += execute(bulk);
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+                    pending = 0;
+                    progress.accept(scanned);
+                }
+            }
+        }
+        if (pending > 0) {
+            updated += execute(bulk);
+            progress.accept(scanned);
+        }
+
+        log.info("Migración de especificaciones terminada: {} productos actualizados", updated);
+        return updated;
+    }
+
+    // Las escrituras directas no publican ProductChangedEvent: cada lote que cambia algo avanza la versión del catálogo
+    private long execute(BulkOperations bulk) {
+        long modified = bulk.execute().getModifiedCount();
+        if (modified > 0) {
+            catalogVersion.increment();
+        }
+        return modified;
+    }
+
+    // Algunos documentos antiguos guardan valores no String (números, booleanos); se convierten a texto
+    private static Map<String, String> toStringMap(Document specifications) {
+        Map<String, String> map = new LinkedHashMap<>();
+        if (specifications != null) {
+            specifications.forEach((key, value) -> map.put(key, value == null ? null : String.valueOf(value)));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,155 @@
+package com.proyecto.vdrt.catalogo.model.document;
+
+
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.proyecto.vdrt.catalogo.model.dto.JobStatus;
+import com.proyecto.vdrt.catalogo.model.dto.JobType;
+
+/**
+ * Trabajo en segundo plano. Se guarda en MongoDB para poder consultar su estado desde cualquier instancia
+ * y para que un reinicio no deje trabajos "en ejecución" para siempre.
+ */
+@Document(collection = "jobs")
+public class Job {
+
+    @Id
+    private String id;
+    private JobType type;
+    private JobStatus status;
+    // Parámetros con los que se pidió (formato, campos, ...)
+    private Map<String, String> parameters;
+    private long processed;
+    // Total estimado de elementos; null si no se conoce
+    private Long total;
+    private String message;
+    // Archivo generado (solo exportaciones terminadas)
+    private String outputFile;
+    // Lo marca DELETE /jobs/{id}; el trabajo lo ve al informar su avance
+    private boolean cancelRequested;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // Último avance o latido de la instancia dueña: un trabajo QUEUED o RUNNING sin latido reciente quedó huérfano
+    private Instant updatedAt;
+    // Instancia que lo encoló y lo ejecuta (host/identificador del proceso); el archivo generado queda en su disco
+    private String owner;
+
+    public Job() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public JobType getType() {
+        return type;
+    }
+
+    public void setType(JobType type) {
+        this.type = type;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    public void setOutputFile(String outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+}
@@ -1,9 +1,11 @@
 package com.proyecto.vdrt.catalogo.model.document;
 
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "products")
@@ -15,7 +17,14 @@ public class Product {
     private Double price;
     private String generalDescription;
     private Map<String, String> specifications;
+    // Copia normalizada de specifications para búsquedas indexadas (patrón de atributos)
+    private List<SpecificationEntry> specs;
     private List<String> tags;
+    // Se incrementa en cada escritura; permite control de concurrencia optimista
+    @Version
+    private Long version;
+    // Momento de la última escritura (alta, reemplazo o PATCH); es el Last-Modified de GET /products/{id}
+    private Instant lastModified;
 
     public Product() {
     }
@@ -60,6 +69,14 @@ public class Product {
         this.specifications = specifications;
     }
 
+    public List<SpecificationEntry> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(List<SpecificationEntry> specs) {
+        this.specs = specs;
+    }
+
     public List<String> getTags() {
         return tags;
     }
@@ -67,4 +84,20 @@ public class Product {
     public void setTags(List<String> tags) {
         this.tags = tags;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
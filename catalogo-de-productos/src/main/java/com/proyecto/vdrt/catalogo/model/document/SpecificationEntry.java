@@ -0,0 +1,72 @@
+package com.proyecto.vdrt.catalogo.model.document;
+
+
+/**
+ * Especificación guardada con el patrón de atributos ({k, v, vNorm, n, u}).
+ * Permite indexar todas las especificaciones con un único índice multikey
+ * en lugar de un índice por cada clave dinámica de {@code specifications}.
+ */
+public class SpecificationEntry {
+
+    // Clave normalizada (minúsculas y sin espacios)
+    private String k;
+    // Valor original tal como lo envió el cliente
+    private String v;
+    // Valor normalizado (minúsculas y sin espacios) usado en las búsquedas
+    private String vNorm;
+    // Valor numérico en la unidad canónica, si el valor es "número + unidad" (búsquedas por rango)
+    private Double n;
+    // Unidad canónica del valor numérico ("gb", "in", "kg", "ghz", ...); null si no tiene unidad
+    private String u;
+
+    public SpecificationEntry() {
+    }
+
+    public SpecificationEntry(String k, String v, String vNorm, Double n, String u) {
+        this.k = k;
+        this.v = v;
+        this.vNorm = vNorm;
+        this.n = n;
+        this.u = u;
+    }
+
+    public String getK() {
+        return k;
+    }
+
+    public void setK(String k) {
+        this.k = k;
+    }
+
+    public String getV() {
+        return v;
+    }
+
+    public void setV(String v) {
+        this.v = v;
+    }
+
+    public String getVNorm() {
+        return vNorm;
+    }
+
+    public void setVNorm(String vNorm) {
+        this.vNorm = vNorm;
+    }
+
+    public Double getN() {
+        return n;
+    }
+
+    public void setN(Double n) {
+        this.n = n;
+    }
+
+    public String getU() {
+        return u;
+    }
+
+    public void setU(String u) {
+        this.u = u;
+    }
+}
@@ -0,0 +1,14 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+/**
+ * Resultado de cada elemento dentro de una operación masiva.
+ */
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID,
+    CONFLICT,
+    FAILED
+}
@@ -0,0 +1,86 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Reporte de una operación masiva: totales y el resultado de cada elemento.
+ *
+ * Los elementos que fallan se listan siempre; de los exitosos solo los primeros maxReportedSuccesses,
+ * así un lote de millones de elementos no acumula en memoria un resultado por cada uno.
+ * Los exitosos que no se listan se cuentan en omitted.
+ */
+public class BulkResultResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private int omitted;
+    private List<BulkItemResult> items = new ArrayList<>();
+    @JsonIgnore
+    private int maxReportedSuccesses = Integer.MAX_VALUE;
+
+    public BulkResultResponse() {
+    }
+
+    public BulkResultResponse(int maxReportedSuccesses) {
+        this.maxReportedSuccesses = maxReportedSuccesses;
+    }
+
+    public void add(BulkItemResult item) {
+        total++;
+        switch (item.getStatus()) {
+            case CREATED, UPDATED, DELETED -> {
+                if (++succeeded > maxReportedSuccesses) {
+                    omitted++;
+                    return;
+                }
+            }
+            default -> failed++;
+        }
+        items.add(item);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getOmitted() {
+        return omitted;
+    }
+
+    public void setOmitted(int omitted) {
+        this.omitted = omitted;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BulkItemResult> items) {
+        this.items = items;
+    }
+}
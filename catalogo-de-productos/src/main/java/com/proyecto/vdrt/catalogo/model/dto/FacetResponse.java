@@ -0,0 +1,59 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conteos de navegación por facetas sobre los productos que cumplen el filtro.
+ * Las especificaciones se agrupan por su clave normalizada (ej. "ram" -> 8GB (120), 16GB (85)).
+ */
+public class FacetResponse {
+
+    private long total;
+    private List<FacetValue> tags;
+    private Map<String, List<FacetValue>> specifications;
+    private List<PriceBucket> price;
+
+    public FacetResponse() {
+    }
+
+    public FacetResponse(long total, List<FacetValue> tags, Map<String, List<FacetValue>> specifications, List<PriceBucket> price) {
+        this.total = total;
+        this.tags = tags;
+        this.specifications = specifications;
+        this.price = price;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<FacetValue> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<FacetValue> tags) {
+        this.tags = tags;
+    }
+
+    public Map<String, List<FacetValue>> getSpecifications() {
+        return specifications;
+    }
+
+    public void setSpecifications(Map<String, List<FacetValue>> specifications) {
+        this.specifications = specifications;
+    }
+
+    public List<PriceBucket> getPrice() {
+        return price;
+    }
+
+    public void setPrice(List<PriceBucket> price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,35 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+/**
+ * Un valor de faceta y la cantidad de productos que lo tienen (ej. "16GB" (85)).
+ */
+public class FacetValue {
+
+    private String value;
+    private long count;
+
+    public FacetValue() {
+    }
+
+    public FacetValue(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
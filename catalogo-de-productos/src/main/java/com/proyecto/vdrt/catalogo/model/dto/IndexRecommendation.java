@@ -0,0 +1,73 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Índice sugerido para una forma de consulta lenta, con las claves en orden ESR (igualdad, orden, rango).
+ * {@code existingIndex} es el índice actual que ya cubre esas claves, si lo hay; {@code command} es
+ * el createIndex a ejecutar cuando no existe.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IndexRecommendation {
+
+    private Map<String, Integer> keys;
+    private String existingIndex;
+    private String action;
+    private String command;
+    private List<String> notes;
+
+    public IndexRecommendation() {
+    }
+
+    public IndexRecommendation(Map<String, Integer> keys, String existingIndex, String action, String command, List<String> notes) {
+        this.keys = keys;
+        this.existingIndex = existingIndex;
+        this.action = action;
+        this.command = command;
+        this.notes = notes;
+    }
+
+    public Map<String, Integer> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, Integer> keys) {
+        this.keys = keys;
+    }
+
+    public String getExistingIndex() {
+        return existingIndex;
+    }
+
+    public void setExistingIndex(String existingIndex) {
+        this.existingIndex = existingIndex;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<String> notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+/**
+ * Estado de un trabajo en segundo plano.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED
+}
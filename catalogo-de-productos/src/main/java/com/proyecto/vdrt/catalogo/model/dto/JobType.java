@@ -0,0 +1,11 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+/**
+ * Tipos de trabajo en segundo plano.
+ */
+public enum JobType {
+    // Exporta el catálogo completo a un archivo gzip (ndjson, json o csv)
+    EXPORT,
+    // Recalcula el campo normalizado 'specs' a partir de 'specifications'
+    NORMALIZE_SPECIFICATIONS
+}
@@ -0,0 +1,16 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+/**
+ * Estado de un índice administrado respecto de lo declarado en ProductIndexRegistry.
+ * UNKNOWN: aún no se pudo verificar. MISSING: falta y no se creará (modo validate).
+ * CONFLICT: existe con ese nombre pero con otra definición. SKIPPED: índice no obligatorio sin verificar (modo none).
+ */
+public enum ManagedIndexState {
+    UNKNOWN,
+    READY,
+    BUILDING,
+    MISSING,
+    CONFLICT,
+    FAILED,
+    SKIPPED
+}
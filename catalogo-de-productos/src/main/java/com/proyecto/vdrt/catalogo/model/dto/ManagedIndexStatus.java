@@ -0,0 +1,90 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Estado de un índice de la colección products: claves declaradas, si es obligatorio, para qué sirve,
+ * y mientras se construye el avance informado por MongoDB (por ejemplo "120000/500000 (24%)").
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ManagedIndexStatus {
+
+    private String name;
+    private ManagedIndexState state;
+    private boolean required;
+    private String keys;
+    private String purpose;
+    private String detail;
+    private String progress;
+
+    public ManagedIndexStatus() {
+    }
+
+    public ManagedIndexStatus(String name, ManagedIndexState state, boolean required, String keys, String purpose,
+            String detail, String progress) {
+        this.name = name;
+        this.state = state;
+        this.required = required;
+        this.keys = keys;
+        this.purpose = purpose;
+        this.detail = detail;
+        this.progress = progress;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public ManagedIndexState getState() {
+        return state;
+    }
+
+    public void setState(ManagedIndexState state) {
+        this.state = state;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public void setRequired(boolean required) {
+        this.required = required;
+    }
+
+    public String getKeys() {
+        return keys;
+    }
+
+    public void setKeys(String keys) {
+        this.keys = keys;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public String getProgress() {
+        return progress;
+    }
+
+    public void setProgress(String progress) {
+        this.progress = progress;
+    }
+}
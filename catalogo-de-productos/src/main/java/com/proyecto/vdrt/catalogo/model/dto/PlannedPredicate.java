@@ -0,0 +1,59 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Un criterio de la consulta con la fracción estimada del catálogo que lo cumple (0 a 1).
+ * Si {@code lowerBound} es true el conteo llegó al límite de muestreo y la fracción es solo un mínimo.
+ */
+public class PlannedPredicate {
+
+    private String predicate;
+    private double selectivity;
+    @JsonProperty("lower_bound")
+    private boolean lowerBound;
+    private String index;
+
+    public PlannedPredicate() {
+    }
+
+    public PlannedPredicate(String predicate, double selectivity, boolean lowerBound, String index) {
+        this.predicate = predicate;
+        this.selectivity = selectivity;
+        this.lowerBound = lowerBound;
+        this.index = index;
+    }
+
+    public String getPredicate() {
+        return predicate;
+    }
+
+    public void setPredicate(String predicate) {
+        this.predicate = predicate;
+    }
+
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+    public void setSelectivity(double selectivity) {
+        this.selectivity = selectivity;
+    }
+
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(boolean lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+}
@@ -0,0 +1,45 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+/**
+ * Intervalo del histograma de precios: [min, max) salvo el último, que incluye su máximo.
+ */
+public class PriceBucket {
+
+    private double min;
+    private double max;
+    private long count;
+
+    public PriceBucket() {
+    }
+
+    public PriceBucket(double min, double max, long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+/**
+ * Cantidad de productos dentro de un rango de precios.
+ * {@code source} indica si respondió el índice en memoria ("memory") o MongoDB ("mongo").
+ */
+public class PriceCountResponse {
+
+    private long count;
+    private String source;
+
+    public PriceCountResponse() {
+    }
+
+    public PriceCountResponse(long count, String source) {
+        this.count = count;
+        this.source = source;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
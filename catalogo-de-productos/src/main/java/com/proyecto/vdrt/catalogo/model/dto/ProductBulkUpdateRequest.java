@@ -0,0 +1,23 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Elemento de la actualización masiva: los mismos datos de ProductRequest más el ID a actualizar.
+ */
+public class ProductBulkUpdateRequest extends ProductRequest {
+
+    @NotBlank(message = "El ID del producto es obligatorio")
+    private String id;
+
+    public ProductBulkUpdateRequest(){}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
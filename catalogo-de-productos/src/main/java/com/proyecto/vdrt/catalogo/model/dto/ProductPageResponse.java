@@ -0,0 +1,51 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Página de productos obtenida con paginación por cursor (keyset sobre el _id).
+ * Si {@code nextCursor} es nulo no quedan más productos por recorrer.
+ */
+public class ProductPageResponse implements SizedResponse {
+
+    private List<ProductResponse> content;
+    private int size;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    public ProductPageResponse() {
+    }
+
+    public ProductPageResponse(List<ProductResponse> content, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductResponse> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
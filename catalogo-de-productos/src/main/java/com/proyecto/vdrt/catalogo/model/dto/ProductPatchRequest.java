@@ -0,0 +1,128 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Actualización parcial de un producto: solo se modifican los campos enviados.
+ * Las especificaciones y etiquetas se editan por clave/elemento, sin reenviar la colección completa.
+ */
+public class ProductPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "El nombre no puede estar vacío")
+    private String name;
+
+    @Min(value = 0, message = "El precio no puede ser negativo")
+    @Digits(integer = 10, fraction = 2, message = "El precio debe tener un formato válido (máximo 2 decimales)")
+    private Double price;
+
+    @JsonProperty("general_description")
+    @Pattern(regexp = ".*\\S.*", message = "La descripción no puede estar vacía")
+    private String generalDescription;
+
+    // Especificaciones a crear o reemplazar (clave -> valor)
+    @JsonProperty("set_specifications")
+    private Map<String, String> setSpecifications;
+
+    // Claves de especificaciones a eliminar
+    @JsonProperty("unset_specifications")
+    private List<String> unsetSpecifications;
+
+    @JsonProperty("add_tags")
+    private List<String> addTags;
+
+    @JsonProperty("remove_tags")
+    private List<String> removeTags;
+
+    // Versión que el cliente leyó; si se envía y no coincide con la actual se responde 409
+    private Long version;
+
+    public ProductPatchRequest(){}
+
+    @JsonIgnore
+    @AssertTrue(message = "Una especificación no puede asignarse y eliminarse en la misma operación")
+    public boolean isSpecificationChangesConsistent() {
+        return setSpecifications == null || unsetSpecifications == null
+                || Collections.disjoint(setSpecifications.keySet(), unsetSpecifications);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Una etiqueta no puede agregarse y quitarse en la misma operación")
+    public boolean isTagChangesConsistent() {
+        return addTags == null || removeTags == null || Collections.disjoint(addTags, removeTags);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getGeneralDescription() {
+        return generalDescription;
+    }
+
+    public void setGeneralDescription(String generalDescription) {
+        this.generalDescription = generalDescription;
+    }
+
+    public Map<String, String> getSetSpecifications() {
+        return setSpecifications;
+    }
+
+    public void setSetSpecifications(Map<String, String> setSpecifications) {
+        this.setSpecifications = setSpecifications;
+    }
+
+    public List<String> getUnsetSpecifications() {
+        return unsetSpecifications;
+    }
+
+    public void setUnsetSpecifications(List<String> unsetSpecifications) {
+        this.unsetSpecifications = unsetSpecifications;
+    }
+
+    public List<String> getAddTags() {
+        return addTags;
+    }
+
+    public void setAddTags(List<String> addTags) {
+        this.addTags = addTags;
+    }
+
+    public List<String> getRemoveTags() {
+        return removeTags;
+    }
+
+    public void setRemoveTags(List<String> removeTags) {
+        this.removeTags = removeTags;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,116 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+/**
+ * Criterios de GET /products/query. Todos son opcionales y se combinan con AND.
+ */
+public class ProductQueryRequest {
+
+    private String word;
+    private List<String> tags;
+    // "all": el producto debe tener todas las etiquetas; "any": al menos una
+    private String tagsMode;
+    // Pares "clave:valor" de especificaciones
+    private List<String> specs;
+    private Double minPrice;
+    private Double maxPrice;
+    // "id", "price_asc", "price_desc" o "relevance"
+    private String sort;
+    private String cursor;
+    private Integer size;
+    private String fields;
+    private boolean explain;
+
+    public ProductQueryRequest() {
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public void setWord(String word) {
+        this.word = word;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getTagsMode() {
+        return tagsMode;
+    }
+
+    public void setTagsMode(String tagsMode) {
+        this.tagsMode = tagsMode;
+    }
+
+    public List<String> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(List<String> specs) {
+        this.specs = specs;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+}
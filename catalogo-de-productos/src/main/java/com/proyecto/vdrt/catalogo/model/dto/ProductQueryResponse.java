@@ -0,0 +1,62 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Página de resultados de /products/query. {@code plan} solo se incluye con explain=true.
+ */
+public class ProductQueryResponse implements SizedResponse {
+
+    private List<ProductResponse> content;
+    private int size;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private QueryPlanResponse plan;
+
+    public ProductQueryResponse() {
+    }
+
+    public ProductQueryResponse(List<ProductResponse> content, String nextCursor, QueryPlanResponse plan) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = nextCursor;
+        this.plan = plan;
+    }
+
+    public List<ProductResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductResponse> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public QueryPlanResponse getPlan() {
+        return plan;
+    }
+
+    public void setPlan(QueryPlanResponse plan) {
+        this.plan = plan;
+    }
+}
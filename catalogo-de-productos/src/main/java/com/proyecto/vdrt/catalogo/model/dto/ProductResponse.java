@@ -1,11 +1,18 @@
 package com.proyecto.vdrt.catalogo.model.dto;
 
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
+// Los campos nulos no se serializan: los resúmenes por precio solo muestran lo que se proyectó
+@JsonInclude(JsonInclude.Include.NON_NULL)
+// Orden de los campos en el documento, el mismo con el que RawProductJson escribe sin pasar por esta clase
+@JsonPropertyOrder({ "id", "name", "price", "general_description", "specifications", "tags", "version", "last_modified" })
 public class ProductResponse {
 
     private String id;
@@ -15,6 +22,9 @@ public class ProductResponse {
     private String generalDescription;
     private Map<String, String> specifications;
     private List<String> tags;
+    private Long version;
+    @JsonProperty("last_modified")
+    private Instant lastModified;
 
     public ProductResponse() {
     }
@@ -66,4 +76,20 @@ public class ProductResponse {
     public void setTags(List<String> tags) {
         this.tags = tags;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -0,0 +1,62 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Plan elegido para una consulta de /products/query (solo en modo explain).
+ * {@code explain} es la salida de explain("executionStats") de MongoDB tal cual.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueryPlanResponse {
+
+    private List<PlannedPredicate> predicates;
+    private String hint;
+    private String sort;
+    @JsonRawValue
+    private String explain;
+
+    public QueryPlanResponse() {
+    }
+
+    public QueryPlanResponse(List<PlannedPredicate> predicates, String hint, String sort) {
+        this.predicates = predicates;
+        this.hint = hint;
+        this.sort = sort;
+    }
+
+    public List<PlannedPredicate> getPredicates() {
+        return predicates;
+    }
+
+    public void setPredicates(List<PlannedPredicate> predicates) {
+        this.predicates = predicates;
+    }
+
+    public String getHint() {
+        return hint;
+    }
+
+    public void setHint(String hint) {
+        this.hint = hint;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getExplain() {
+        return explain;
+    }
+
+    public void setExplain(String explain) {
+        this.explain = explain;
+    }
+}
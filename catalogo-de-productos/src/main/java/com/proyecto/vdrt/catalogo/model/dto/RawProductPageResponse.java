@@ -0,0 +1,64 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.io.IOException;
+import java.util.List;
+
+import org.bson.RawBsonDocument;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.RawProductJson;
+
+/**
+ * Misma página que ProductPageResponse, pero con los documentos tal como los devolvió MongoDB (RawBsonDocument).
+ * Se serializa sola con RawProductJson: el JSON resultante es idéntico y no se crean Product ni ProductResponse.
+ */
+public class RawProductPageResponse implements JsonSerializable, SizedResponse {
+
+    private final List<RawBsonDocument> content;
+    private final ProductFields fields;
+    private final String nextCursor;
+
+    public RawProductPageResponse(List<RawBsonDocument> content, ProductFields fields, String nextCursor) {
+        this.content = content;
+        this.fields = fields;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<RawBsonDocument> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public int getSize() {
+        return content.size();
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("content");
+        generator.writeStartArray();
+        for (RawBsonDocument document : content) {
+            RawProductJson.write(document, fields, generator);
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("size", getSize());
+        generator.writeStringField("next_cursor", nextCursor);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+}
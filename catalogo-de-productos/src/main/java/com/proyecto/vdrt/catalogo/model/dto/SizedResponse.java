@@ -0,0 +1,11 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+/**
+ * Respuesta con una página de productos. ResultSizeMetricsAspect registra su tamaño sin conocer cada tipo.
+ */
+public interface SizedResponse {
+
+    // Cantidad de productos de la página
+    int getSize();
+}
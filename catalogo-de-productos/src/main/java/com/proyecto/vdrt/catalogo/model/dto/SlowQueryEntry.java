@@ -0,0 +1,144 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Una forma de consulta lenta: filtro y orden sin valores, ejecuciones, tiempos y métodos que la originaron.
+ * docsExamined, keysExamined, returned y plan provienen del último explain (ausentes si aún no se ejecutó).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlowQueryEntry {
+
+    private String collection;
+    private String command;
+    private String filter;
+    private String sort;
+    private long count;
+    private double totalMillis;
+    private double avgMillis;
+    private double maxMillis;
+    private List<String> origins;
+    private Long docsExamined;
+    private Long keysExamined;
+    private Long returned;
+    private String plan;
+    private IndexRecommendation recommendation;
+
+    public SlowQueryEntry() {
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    public double getAvgMillis() {
+        return avgMillis;
+    }
+
+    public void setAvgMillis(double avgMillis) {
+        this.avgMillis = avgMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public List<String> getOrigins() {
+        return origins;
+    }
+
+    public void setOrigins(List<String> origins) {
+        this.origins = origins;
+    }
+
+    public Long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public void setDocsExamined(Long docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public void setKeysExamined(Long keysExamined) {
+        this.keysExamined = keysExamined;
+    }
+
+    public Long getReturned() {
+        return returned;
+    }
+
+    public void setReturned(Long returned) {
+        this.returned = returned;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public IndexRecommendation getRecommendation() {
+        return recommendation;
+    }
+
+    public void setRecommendation(IndexRecommendation recommendation) {
+        this.recommendation = recommendation;
+    }
+}
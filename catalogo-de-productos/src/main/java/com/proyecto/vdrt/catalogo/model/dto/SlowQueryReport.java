@@ -0,0 +1,48 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+/**
+ * Reporte de /actuator/slowqueries: las formas de consulta que más tiempo acumularon por encima del umbral.
+ * {@code dropped} cuenta las ejecuciones lentas que no se agregaron por haber alcanzado el máximo de formas.
+ */
+public class SlowQueryReport {
+
+    private long thresholdMillis;
+    private long dropped;
+    private List<SlowQueryEntry> queries;
+
+    public SlowQueryReport() {
+    }
+
+    public SlowQueryReport(long thresholdMillis, long dropped, List<SlowQueryEntry> queries) {
+        this.thresholdMillis = thresholdMillis;
+        this.dropped = dropped;
+        this.queries = queries;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public List<SlowQueryEntry> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<SlowQueryEntry> queries) {
+        this.queries = queries;
+    }
+}
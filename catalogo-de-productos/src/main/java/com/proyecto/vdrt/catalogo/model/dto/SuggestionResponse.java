@@ -0,0 +1,59 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Sugerencia de autocompletado: un nombre de producto (con su ID) o una etiqueta.
+ * {@code score} es la popularidad usada para ordenar: lecturas del producto o cantidad de productos con la etiqueta.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionResponse {
+
+    private String text;
+    private String type;
+    private String id;
+    private long score;
+
+    public SuggestionResponse() {
+    }
+
+    public SuggestionResponse(String text, String type, String id, long score) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+        this.score = score;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+}
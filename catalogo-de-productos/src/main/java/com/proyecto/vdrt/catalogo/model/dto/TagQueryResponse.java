@@ -0,0 +1,68 @@
+package com.proyecto.vdrt.catalogo.model.dto;
+
+
+import java.util.List;
+
+/**
+ * Página de productos que cumplen una expresión de etiquetas, con el total de coincidencias.
+ * {@code source} indica si respondió el índice de etiquetas en memoria ("memory") o MongoDB ("mongo").
+ */
+public class TagQueryResponse implements SizedResponse {
+
+    private List<ProductResponse> content;
+    private long count;
+    private int page;
+    private int size;
+    private String source;
+
+    public TagQueryResponse() {
+    }
+
+    public TagQueryResponse(List<ProductResponse> content, long count, int page, String source) {
+        this.content = content;
+        this.count = count;
+        this.page = page;
+        this.size = content.size();
+        this.source = source;
+    }
+
+    public List<ProductResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductResponse> content) {
+        this.content = content;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
@@ -0,0 +1,395 @@
+package com.proyecto.vdrt.catalogo.replica;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Réplica local del catálogo para lecturas sin ir a MongoDB (catalogo.replica.enabled, solo modo servlet).
+ *
+ * Al arrancar carga toda la colección en un CatalogSnapshot y después la sigue con un change stream:
+ * los cambios que llegan juntos se aplican en lote, generando una instantánea nueva. Como el stream
+ * cubre todas las escrituras (de cualquier instancia), cada nodo converge al mismo estado; la demora
+ * habitual es de milisegundos, así que una lectura justo después de escribir puede ver el estado anterior.
+ *
+ * Cada checkpoint-interval la instantánea se guarda en snapshot-file junto con el resume token del stream.
+ * Al reiniciar se parte de ese archivo y el stream continúa desde el token, sin releer la colección; si el
+ * oplog ya no contiene ese punto (ChangeStreamHistoryLost) se vuelve a cargar todo. Una instantánea restaurada
+ * puede tener horas de atraso: la réplica no se declara lista hasta que el stream alcanza el presente, y durante
+ * una recarga completa deja de estarlo; mientras tanto las lecturas van a MongoDB.
+ * Los change streams requieren un replica set (alcanza con uno de un solo nodo).
+ */
+@Component
+public class CatalogReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReplica.class);
+
+    private static final int FILE_FORMAT = 1;
+    // ChangeStreamHistoryLost y ChangeStreamFatalError: el token ya no sirve
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(286, 280);
+    // "$changeStream is only supported on replica sets"
+    private static final int NOT_REPLICA_SET_CODE = 40573;
+    private static final Set<OperationType> INVALIDATING = Set.of(OperationType.DROP, OperationType.RENAME,
+            OperationType.DROP_DATABASE, OperationType.INVALIDATE);
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${catalogo.replica.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalogo.replica.snapshot-file:}")
+    private String snapshotFile;
+
+    @Value("${catalogo.replica.checkpoint-interval:1m}")
+    private Duration checkpointInterval;
+
+    @Value("${catalogo.replica.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${catalogo.replica.retry-interval:5s}")
+    private Duration retryInterval;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private volatile boolean ready;
+    private volatile boolean stopped;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private Thread worker;
+
+    // Solo los usa el hilo del stream (y el cierre, después de detenerlo)
+    private BsonDocument resumeToken;
+    private BsonDocument checkpointedToken;
+    // true si snapshot corresponde a resumeToken: el stream puede continuar sin recargar
+    private boolean loaded;
+    private long lastCheckpoint = System.nanoTime();
+
+    public CatalogReplica(MongoTemplate mongoTemplate, CatalogVersion catalogVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersion = catalogVersion;
+    }
+
+    // false mientras está desactivada o haciendo la carga inicial: en ese caso se consulta MongoDB
+    public boolean isReady() {
+        return ready;
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Último momento en que el stream confirmó estar al día (para medir la antigüedad de la réplica)
+    public Instant lastSync() {
+        return lastSync;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            worker = Thread.ofVirtual().name("catalog-replica").start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (worker == null) {
+            return;
+        }
+        try {
+            // El stream espera como mucho un segundo por evento antes de revisar si debe detenerse
+            worker.join(Duration.ofSeconds(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (loaded && !worker.isAlive()) {
+            checkpoint();
+        }
+    }
+
+    private void run() {
+        boolean current = loadCheckpoint();
+        while (!stopped) {
+            try {
+                if (!current) {
+                    loadAll();
+                }
+                current = false;
+                follow();
+            } catch (MongoException ex) {
+                if (ex instanceof MongoCommandException command && command.getErrorCode() == NOT_REPLICA_SET_CODE) {
+                    log.error("La réplica del catálogo necesita que MongoDB sea un replica set (change streams); queda desactivada");
+                    ready = false;
+                    return;
+                }
+                if (ex instanceof MongoCommandException command && HISTORY_LOST_CODES.contains(command.getErrorCode())) {
+                    // El token ya no está en el oplog: la próxima vuelta recarga el catálogo completo
+                    log.warn("El resume token de la réplica ya no está en el oplog; se recarga el catálogo completo");
+                    resumeToken = null;
+                    loaded = false;
+                    continue;
+                }
+                log.warn("Falló el change stream de la réplica del catálogo; se reintenta en {}", retryInterval, ex);
+                pause();
+                // Si ya había una instantánea, el stream continúa desde el último token sin recargar
+                current = loaded;
+            } catch (RuntimeException ex) {
+                log.error("La réplica del catálogo se detuvo; las lecturas vuelven a MongoDB", ex);
+                ready = false;
+                return;
+            }
+        }
+    }
+
+    /*
+    Carga completa. El stream se abre antes de leer la colección y se guarda su token: lo que cambie durante
+    la carga se vuelve a aplicar después, y como cada evento trae el documento actual el resultado es el mismo.
+    */
+    private void loadAll() {
+        // La instantánea anterior deja de servirse durante la recarga
+        ready = false;
+        loaded = false;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate
+                .getCollection(ProductIndexRegistry.COLLECTION).watch().cursor()) {
+            resumeToken = cursor.getResumeToken();
+        }
+
+        long start = System.nanoTime();
+        Map<String, Product> products = new HashMap<>();
+        try (Stream<Product> stream = mongoTemplate.stream(new Query().cursorBatchSize(batchSize), Product.class)) {
+            stream.forEach(product -> products.put(product.getId(), product));
+        }
+        publish(CatalogSnapshot.of(products));
+        loaded = true;
+        ready = true;
+        lastSync = Instant.now();
+        log.info("Réplica del catálogo cargada: {} productos en {} ms", products.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Sigue el change stream hasta que se detenga la aplicación o la colección se invalide
+    private void follow() {
+        var watch = mongoTemplate.getCollection(ProductIndexRegistry.COLLECTION).watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .batchSize(batchSize)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            watch.resumeAfter(resumeToken);
+        }
+
+        Map<String, Product> pending = new LinkedHashMap<>();
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = watch.cursor()) {
+            while (!stopped) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null && INVALIDATING.contains(event.getOperationType())) {
+                    // Al volver, run() recarga el catálogo completo
+                    log.warn("La colección products recibió {}; se recarga la réplica", event.getOperationType());
+                    pending.clear();
+                    resumeToken = null;
+                    loaded = false;
+                    return;
+                }
+                if (event != null) {
+                    collect(event, pending);
+                }
+                // Se aplica al vaciarse el lote recibido (o al llegar al máximo); CatalogSnapshot.with solo rearma lo que el lote toca
+                if (event == null || pending.size() >= batchSize) {
+                    apply(pending, cursor.getResumeToken());
+                    lastSync = Instant.now();
+                    if (event == null && !ready) {
+                        // Después de restaurar un checkpoint: el stream ya aplicó todo lo pendiente desde el token
+                        ready = true;
+                        log.info("Réplica del catálogo al día con el change stream");
+                    }
+                    checkpointIfDue();
+                }
+            }
+            apply(pending, cursor.getResumeToken());
+        }
+    }
+
+    // Los ETag de los listados se invalidan cuando la réplica (de donde se leen) ya tiene el cambio
+    private void publish(CatalogSnapshot next) {
+        snapshot = next;
+        catalogVersion.increment();
+    }
+
+    private void collect(ChangeStreamDocument<Document> event, Map<String, Product> pending) {
+        BsonValue key = event.getDocumentKey() == null ? null : event.getDocumentKey().get("_id");
+        if (key == null) {
+            return;
+        }
+        String id = key.isObjectId() ? key.asObjectId().getValue().toHexString()
+                : key.isString() ? key.asString().getValue() : key.toString();
+        Document document = event.getFullDocument();
+        // Sin documento completo el producto ya no existe (delete, o update de algo borrado después)
+        pending.put(id, document == null ? null : mongoTemplate.getConverter().read(Product.class, document));
+    }
+
+    private void apply(Map<String, Product> pending, BsonDocument token) {
+        if (!pending.isEmpty()) {
+            publish(snapshot.with(pending));
+            pending.clear();
+        }
+        if (token != null) {
+            resumeToken = token;
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(retryInterval);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+    }
+
+    private void checkpointIfDue() {
+        if (System.nanoTime() - lastCheckpoint >= checkpointInterval.toNanos()) {
+            checkpoint();
+        }
+    }
+
+    /*
+    Guarda la instantánea y el token en un archivo gzip: un encabezado BSON seguido de un documento BSON
+    por producto. Se escribe en un temporal y se reemplaza al final para no dejar nunca un archivo a medias.
+    */
+    private void checkpoint() {
+        lastCheckpoint = System.nanoTime();
+        if (snapshotFile.isBlank() || resumeToken == null || resumeToken.equals(checkpointedToken)) {
+            return;
+        }
+        Path target = Path.of(snapshotFile);
+        CatalogSnapshot current = snapshot;
+        BsonDocument token = resumeToken;
+        try {
+            if (target.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(target.toAbsolutePath().getParent());
+            }
+            Path temporary = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary)))) {
+                BsonDocument header = new BsonDocument("format", new BsonInt32(FILE_FORMAT))
+                        .append("database", new BsonString(mongoTemplate.getDb().getName()))
+                        .append("resumeToken", token);
+                writeDocument(out, new RawBsonDocument(header, new BsonDocumentCodec()));
+                DocumentCodec codec = new DocumentCodec();
+                for (Product product : (Iterable<Product>) current.all()::iterator) {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(product, document);
+                    writeDocument(out, new RawBsonDocument(document, codec));
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointedToken = token;
+            log.debug("Réplica del catálogo guardada en {} ({} productos)", target, current.size());
+        } catch (IOException ex) {
+            log.warn("No se pudo guardar la réplica del catálogo en {}", target, ex);
+        }
+    }
+
+    private static void writeDocument(OutputStream out, RawBsonDocument document) throws IOException {
+        ByteBuffer buffer = document.getByteBuffer().asNIO();
+        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+
+    // Intenta partir del último checkpoint; si no hay archivo o no corresponde a esta base, se carga todo
+    private boolean loadCheckpoint() {
+        if (snapshotFile.isBlank() || !Files.isReadable(Path.of(snapshotFile))) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Path.of(snapshotFile)))))) {
+            RawBsonDocument header = readDocument(in);
+            if (header == null || header.getInt32("format", new BsonInt32(0)).getValue() != FILE_FORMAT
+                    || !header.getString("database", new BsonString("")).getValue().equals(mongoTemplate.getDb().getName())) {
+                log.info("El archivo {} no corresponde a esta base; se carga el catálogo completo", snapshotFile);
+                return false;
+            }
+            Map<String, Product> products = new HashMap<>();
+            DocumentCodec codec = new DocumentCodec();
+            for (RawBsonDocument raw = readDocument(in); raw != null; raw = readDocument(in)) {
+                Product product = mongoTemplate.getConverter().read(Product.class, raw.decode(codec));
+                products.put(product.getId(), product);
+            }
+            resumeToken = header.getDocument("resumeToken");
+            checkpointedToken = resumeToken;
+            // Todavía no está lista: follow() la declara lista cuando alcanza el presente
+            publish(CatalogSnapshot.of(products));
+            loaded = true;
+            log.info("Réplica del catálogo restaurada desde {}: {} productos en {} ms", snapshotFile, products.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("No se pudo leer la réplica guardada en {}; se carga el catálogo completo", snapshotFile, ex);
+            return false;
+        }
+    }
+
+    // Cada documento BSON empieza con su longitud total (int32 little-endian)
+    private static RawBsonDocument readDocument(InputStream in) throws IOException {
+        byte[] length = new byte[4];
+        int read = in.readNBytes(length, 0, 4);
+        if (read == 0) {
+            return null;
+        }
+        if (read < 4) {
+            throw new EOFException("Documento BSON incompleto");
+        }
+        int size = ByteBuffer.wrap(length).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        byte[] bytes = new byte[size];
+        System.arraycopy(length, 0, bytes, 0, 4);
+        if (in.readNBytes(bytes, 4, size - 4) < size - 4) {
+            throw new EOFException("Documento BSON incompleto");
+        }
+        return new RawBsonDocument(bytes);
+    }
+}
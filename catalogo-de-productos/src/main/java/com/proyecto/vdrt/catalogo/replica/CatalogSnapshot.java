@@ -0,0 +1,317 @@
+package com.proyecto.vdrt.catalogo.replica;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.document.SpecificationEntry;
+
+/**
+ * Copia inmutable del catálogo con índices secundarios: por _id (ordenado), por precio, por etiqueta,
+ * por especificación normalizada y por nombre. Nunca se modifica: cada lote de cambios produce una
+ * instantánea nueva (copy-on-write) que comparte con la anterior todo lo que el lote no toca, y los lectores
+ * siguen usando la que tenían sin bloqueos.
+ *
+ * Los órdenes reproducen los de MongoDB: _id es un ObjectId y su forma hexadecimal ordena igual que sus bytes;
+ * los listados por precio usan (price, _id) y excluyen los productos sin precio.
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(Map.of());
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    private static final Comparator<Product> BY_PRICE = Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getId);
+    private static final Product[] NONE = new Product[0];
+
+    private final Map<String, Product> byId;
+    private final Product[] idOrder;
+    private final Product[] priceOrder;
+    private final Map<String, Product[]> byTag;
+    private final Map<String, Product[]> bySpecification;
+    private final NavigableMap<String, Product[]> byName;
+
+    private CatalogSnapshot(Map<String, Product> byId, Product[] idOrder, Product[] priceOrder, Map<String, Product[]> byTag,
+            Map<String, Product[]> bySpecification, NavigableMap<String, Product[]> byName) {
+        this.byId = byId;
+        this.idOrder = idOrder;
+        this.priceOrder = priceOrder;
+        this.byTag = byTag;
+        this.bySpecification = bySpecification;
+        this.byName = byName;
+    }
+
+    // Construcción completa: ordena todo el catálogo (solo en la carga inicial o desde un checkpoint)
+    private CatalogSnapshot(Map<String, Product> products) {
+        this.byId = products;
+        this.idOrder = products.values().toArray(Product[]::new);
+        Arrays.sort(idOrder, BY_ID);
+        this.priceOrder = Arrays.stream(idOrder).filter(product -> product.getPrice() != null).toArray(Product[]::new);
+        Arrays.sort(priceOrder, BY_PRICE);
+
+        // Se recorre idOrder, así cada lista secundaria queda ya ordenada por _id
+        Map<String, List<Product>> tags = new HashMap<>();
+        Map<String, List<Product>> specifications = new HashMap<>();
+        Map<String, List<Product>> names = new TreeMap<>();
+        for (Product product : idOrder) {
+            tagKeys(product).forEach(tag -> tags.computeIfAbsent(tag, key -> new ArrayList<>()).add(product));
+            specificationKeys(product).forEach(key -> specifications.computeIfAbsent(key, k -> new ArrayList<>()).add(product));
+            nameKeys(product).forEach(name -> names.computeIfAbsent(name, key -> new ArrayList<>()).add(product));
+        }
+        this.byTag = toArrays(tags, new HashMap<>());
+        this.bySpecification = toArrays(specifications, new HashMap<>());
+        this.byName = Collections.unmodifiableNavigableMap(toArrays(names, new TreeMap<>()));
+    }
+
+    /**
+     * Instantánea con todos los productos indicados.
+     */
+    public static CatalogSnapshot of(Map<String, Product> products) {
+        return new CatalogSnapshot(Map.copyOf(products));
+    }
+
+    /**
+     * Instantánea nueva con los cambios aplicados; un valor null elimina el producto.
+     *
+     * No se vuelve a ordenar el catálogo: los órdenes por _id y por precio se obtienen intercalando los productos
+     * cambiados con los arreglos anteriores (una copia lineal), y de los índices por etiqueta, especificación y
+     * nombre solo se rearman las entradas que tocan los productos cambiados; el resto se comparte con esta
+     * instantánea. Un cambio de un producto cuesta una copia de los arreglos, no un rearmado completo.
+     */
+    public CatalogSnapshot with(Map<String, Product> changes) {
+        Map<String, Product> products = new HashMap<>(byId);
+        // Las instancias reemplazadas o eliminadas: son las mismas que están en los arreglos
+        Set<Product> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Product> added = new ArrayList<>();
+        changes.forEach((id, product) -> {
+            Product previous = product == null ? products.remove(id) : products.put(id, product);
+            if (previous != null) {
+                removed.add(previous);
+            }
+            if (product != null) {
+                added.add(product);
+            }
+        });
+
+        return new CatalogSnapshot(Collections.unmodifiableMap(products),
+                merge(idOrder, removed, added, BY_ID),
+                merge(priceOrder, removed, added.stream().filter(product -> product.getPrice() != null).toList(), BY_PRICE),
+                update(byTag, new HashMap<>(byTag), removed, added, CatalogSnapshot::tagKeys),
+                update(bySpecification, new HashMap<>(bySpecification), removed, added, CatalogSnapshot::specificationKeys),
+                Collections.unmodifiableNavigableMap(update(byName, new TreeMap<>(byName), removed, added, CatalogSnapshot::nameKeys)));
+    }
+
+    // El arreglo ordenado sin los productos quitados y con los agregados en su posición
+    private static Product[] merge(Product[] sorted, Set<Product> removed, List<Product> added, Comparator<Product> order) {
+        List<Product> insert = new ArrayList<>(added);
+        insert.sort(order);
+        Product[] result = new Product[sorted.length + insert.size()];
+        int size = 0;
+        int next = 0;
+        for (Product product : sorted) {
+            if (removed.contains(product)) {
+                continue;
+            }
+            while (next < insert.size() && order.compare(insert.get(next), product) < 0) {
+                result[size++] = insert.get(next++);
+            }
+            result[size++] = product;
+        }
+        while (next < insert.size()) {
+            result[size++] = insert.get(next++);
+        }
+        // removed incluye productos que no estaban en este arreglo (sin precio, o con otras etiquetas)
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    // Rearma solo las entradas de las claves que tenían los productos quitados o tienen los agregados
+    private static <M extends Map<String, Product[]>> M update(Map<String, Product[]> previous, M target,
+            Set<Product> removed, List<Product> added, Function<Product, Stream<String>> keys) {
+        Map<String, List<Product>> additions = new HashMap<>();
+        Set<String> touched = new HashSet<>();
+        removed.forEach(product -> keys.apply(product).forEach(touched::add));
+        added.forEach(product -> keys.apply(product)
+                .forEach(key -> additions.computeIfAbsent(key, k -> new ArrayList<>()).add(product)));
+        touched.addAll(additions.keySet());
+
+        for (String key : touched) {
+            Product[] products = merge(previous.getOrDefault(key, NONE), removed, additions.getOrDefault(key, List.of()), BY_ID);
+            if (products.length == 0) {
+                target.remove(key);
+            } else {
+                target.put(key, products);
+            }
+        }
+        return target;
+    }
+
+    public int size() {
+        return idOrder.length;
+    }
+
+    public Product get(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Los siguientes productos por _id después de afterId (o desde el principio si es null).
+     */
+    public List<Product> page(String afterId, int limit) {
+        int from = 0;
+        if (afterId != null) {
+            int position = Arrays.binarySearch(idOrder, probe(afterId, null), BY_ID);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        return List.of(Arrays.copyOfRange(idOrder, from, Math.min(idOrder.length, from + limit)));
+    }
+
+    // Todo el catálogo ordenado por _id
+    public Stream<Product> all() {
+        return Arrays.stream(idOrder);
+    }
+
+    public List<Product> byTag(String tag) {
+        return list(byTag.get(tag));
+    }
+
+    // Igualdad sobre specs.k y specs.vNorm (ya normalizados por el llamador), como el $elemMatch
+    public List<Product> bySpecification(String key, String normalizedValue) {
+        return list(bySpecification.get(key + '\u0000' + normalizedValue));
+    }
+
+    /**
+     * Productos cuyo nombre (en minúsculas) empieza con el prefijo, en orden alfabético.
+     */
+    public List<Product> byNamePrefix(String prefix, int limit) {
+        String from = normalizeName(prefix);
+        List<Product> result = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, Product[]> entry : byName.tailMap(from, true).entrySet()) {
+            if (!entry.getKey().startsWith(from) || result.size() >= limit) {
+                break;
+            }
+            for (Product product : entry.getValue()) {
+                if (result.size() < limit) {
+                    result.add(product);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Página del rango [min, max] en orden (price, _id), empezando después de (afterPrice, afterId) si se indica.
+     */
+    public List<Product> priceRange(double min, double max, boolean descending, Double afterPrice, String afterId, int limit) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        List<Product> result = new ArrayList<>(Math.min(limit, Math.max(0, to - from)));
+        if (!descending) {
+            int start = afterPrice == null ? from : Math.max(from, upperBound(probe(afterId, afterPrice)));
+            for (int i = start; i < to && result.size() < limit; i++) {
+                result.add(priceOrder[i]);
+            }
+        } else {
+            int start = afterPrice == null ? to - 1 : Math.min(to, lowerBound(probe(afterId, afterPrice))) - 1;
+            for (int i = start; i >= from && result.size() < limit; i--) {
+                result.add(priceOrder[i]);
+            }
+        }
+        return result;
+    }
+
+    public long countPrice(double min, double max) {
+        return Math.max(0, upperBound(max) - lowerBound(min));
+    }
+
+    // Primera posición con precio >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = priceOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceOrder[mid].getPrice() < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primera posición con precio > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = priceOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceOrder[mid].getPrice() <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primera posición estrictamente posterior a la clave (price, _id)
+    private int upperBound(Product key) {
+        int position = Arrays.binarySearch(priceOrder, key, BY_PRICE);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    // Primera posición mayor o igual a la clave (price, _id)
+    private int lowerBound(Product key) {
+        int position = Arrays.binarySearch(priceOrder, key, BY_PRICE);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static Product probe(String id, Double price) {
+        Product probe = new Product();
+        probe.setId(id);
+        probe.setPrice(price);
+        return probe;
+    }
+
+    private static String specificationKey(SpecificationEntry entry) {
+        return entry.getK() + '\u0000' + entry.getVNorm();
+    }
+
+    // Claves de cada índice secundario para un producto
+    private static Stream<String> tagKeys(Product product) {
+        return product.getTags() == null ? Stream.empty() : product.getTags().stream().distinct();
+    }
+
+    private static Stream<String> specificationKeys(Product product) {
+        return product.getSpecs() == null ? Stream.empty() : product.getSpecs().stream().map(CatalogSnapshot::specificationKey).distinct();
+    }
+
+    private static Stream<String> nameKeys(Product product) {
+        return product.getName() == null ? Stream.empty() : Stream.of(normalizeName(product.getName()));
+    }
+
+    static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static <M extends Map<String, Product[]>> M toArrays(Map<String, List<Product>> lists, M target) {
+        lists.forEach((key, products) -> target.put(key, products.toArray(Product[]::new)));
+        return target;
+    }
+
+    private static List<Product> list(Product[] products) {
+        return products == null ? List.of() : List.of(products);
+    }
+}
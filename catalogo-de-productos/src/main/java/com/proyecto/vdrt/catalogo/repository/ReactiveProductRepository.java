@@ -0,0 +1,12 @@
+package com.proyecto.vdrt.catalogo.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * Versión reactiva de ProductRepository (perfil 'reactive'): las consultas devuelven un Flux
+ * que emite los documentos a medida que llegan del cursor, respetando la contrapresión del cliente.
+ */
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+}
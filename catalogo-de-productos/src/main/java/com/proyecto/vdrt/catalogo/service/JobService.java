@@ -0,0 +1,42 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.nio.file.Path;
+
+import com.proyecto.vdrt.catalogo.model.dto.JobResponse;
+
+/**
+ * Trabajos en segundo plano sobre el catálogo completo. Cada pedido se encola y responde enseguida con el
+ * ID del trabajo; el avance se consulta con get(id).
+ */
+public interface JobService {
+
+    /**
+     * Encola una exportación del catálogo a un archivo gzip.
+     * @param format "ndjson" (por defecto), "json" o "csv".
+     * @param fields Campos a exportar separados por comas (opcional).
+     * @return El trabajo en estado QUEUED.
+     */
+    JobResponse submitExport (String format, String fields);
+
+    /**
+     * Encola la normalización de especificaciones (campo 'specs').
+     * @param all true para recalcular todos los productos; false solo los que no tienen 'specs'.
+     * @return El trabajo en estado QUEUED.
+     */
+    JobResponse submitSpecificationNormalization (boolean all);
+
+    JobResponse get (String id);
+
+    /**
+     * Pide cancelar el trabajo. Si todavía está en cola se cancela enseguida; si está en ejecución
+     * se detiene al informar su próximo avance. Un trabajo terminado no cambia.
+     */
+    JobResponse cancel (String id);
+
+    /**
+     * Archivo generado por un trabajo terminado.
+     * @throws com.proyecto.vdrt.catalogo.exception.JobOutputNotAvailableException si no terminó o no genera archivo.
+     */
+    Path getOutput (String id);
+}
@@ -0,0 +1,483 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.result.UpdateResult;
+import com.proyecto.vdrt.catalogo.diagnostics.QueryOriginAspect;
+import com.proyecto.vdrt.catalogo.exception.JobCancelledException;
+import com.proyecto.vdrt.catalogo.exception.JobNotFoundException;
+import com.proyecto.vdrt.catalogo.exception.JobOutputNotAvailableException;
+import com.proyecto.vdrt.catalogo.exception.JobQueueFullException;
+import com.proyecto.vdrt.catalogo.job.CatalogExportJob;
+import com.proyecto.vdrt.catalogo.job.JobContext;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.migration.SpecificationMigration;
+import com.proyecto.vdrt.catalogo.model.document.Job;
+import com.proyecto.vdrt.catalogo.model.dto.JobResponse;
+import com.proyecto.vdrt.catalogo.model.dto.JobStatus;
+import com.proyecto.vdrt.catalogo.model.dto.JobType;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+Los trabajos corren en hilos virtuales, pero con un límite: como mucho max-concurrent a la vez y max-queued
+esperando (si la cola está llena se responde 503). Cada uno recorre la colección completa; sin límite,
+varias exportaciones simultáneas competirían por el pool de conexiones con las consultas de la API.
+
+El estado vive en la colección 'jobs', con la instancia dueña en 'owner'. El avance y el pedido de cancelación
+se escriben ahí cada progress-interval, y la instancia dueña renueva además 'updatedAt' de todos sus trabajos
+(también los que esperan en la cola) con ese mismo intervalo. Un trabajo QUEUED o RUNNING sin latido en
+stale-after quedó huérfano (la instancia que lo tenía se detuvo) y se marca FAILED al arrancar o al consultarlo.
+
+Los trabajos terminados se conservan durante 'retention': un índice TTL sobre 'finishedAt' borra el documento,
+y cada instancia borra después los archivos de su output-dir cuyo trabajo ya no existe.
+*/
+@Service
+public class JobServiceImp implements JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobServiceImp.class);
+
+    private static final List<JobStatus> UNFINISHED = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final String RETENTION_INDEX = "finishedAt_ttl";
+    // IndexOptionsConflict: el índice ya existe con otro expireAfterSeconds
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(10);
+    // Archivos que genera un trabajo: <id>.<formato>.gz y su temporal .part
+    private static final Pattern OUTPUT_FILE = Pattern.compile("([0-9a-f]{24})\\..+\\.gz(\\.part)?");
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogExportJob exportJob;
+    private final SpecificationMigration specificationMigration;
+    private final ThreadPoolExecutor executor;
+    private final int maxQueued;
+    private final Path outputDir;
+    private final Duration progressInterval;
+    private final String instance = instanceName();
+
+    // Trabajos encolados o en ejecución en esta instancia, y los que tienen la cancelación pedida
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+    private Thread heartbeat;
+
+    @Value("${catalogo.jobs.stale-after:10m}")
+    private Duration staleAfter;
+
+    @Value("${catalogo.jobs.retention:7d}")
+    private Duration retention;
+
+    public JobServiceImp(MongoTemplate mongoTemplate, CatalogExportJob exportJob, SpecificationMigration specificationMigration,
+            @Value("${catalogo.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${catalogo.jobs.max-queued:20}") int maxQueued,
+            @Value("${catalogo.jobs.output-dir:data/jobs}") String outputDir,
+            @Value("${catalogo.jobs.progress-interval:2s}") Duration progressInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.exportJob = exportJob;
+        this.specificationMigration = specificationMigration;
+        this.maxQueued = maxQueued;
+        this.outputDir = Path.of(outputDir).toAbsolutePath();
+        this.progressInterval = progressInterval;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), Thread.ofVirtual().name("catalog-job-", 0).factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("jobs-recovery").start(() -> {
+            try {
+                ensureRetentionIndex();
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo crear el índice TTL de los trabajos terminados", ex);
+            }
+            try {
+                UpdateResult result = mongoTemplate.updateMulti(new Query(Criteria.where("status").in(UNFINISHED)
+                        .and("updatedAt").lt(Instant.now().minus(staleAfter))), orphaned(), Job.class);
+                if (result.getModifiedCount() > 0) {
+                    log.warn("{} trabajo(s) huérfano(s) marcados como FAILED", result.getModifiedCount());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("No se pudieron revisar los trabajos pendientes", ex);
+            }
+        });
+        heartbeat = Thread.ofVirtual().name("jobs-heartbeat").start(this::heartbeat);
+    }
+
+    // Mientras la instancia viva, sus trabajos encolados o en ejecución no se consideran huérfanos
+    private void heartbeat() {
+        long lastPurge = System.nanoTime();
+        while (!shuttingDown) {
+            try {
+                Thread.sleep(progressInterval);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (System.nanoTime() - lastPurge >= PURGE_INTERVAL.toNanos()) {
+                lastPurge = System.nanoTime();
+                purgeExpiredOutputs();
+            }
+            if (active.isEmpty()) {
+                continue;
+            }
+            try {
+                mongoTemplate.updateMulti(new Query(Criteria.where("id").in(active).and("status").in(UNFINISHED)),
+                        new Update().set("updatedAt", Instant.now()), Job.class);
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo renovar el estado de los trabajos en curso", ex);
+            }
+        }
+    }
+
+    // MongoDB borra los trabajos terminados hace más de 'retention'; si cambió la retención, se actualiza el índice
+    private void ensureRetentionIndex() {
+        long seconds = retention.toSeconds();
+        try {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Job.class)).createIndex(Indexes.ascending("finishedAt"),
+                    new IndexOptions().name(RETENTION_INDEX).expireAfter(seconds, TimeUnit.SECONDS));
+        } catch (MongoCommandException ex) {
+            if (ex.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                throw ex;
+            }
+            mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(Job.class))
+                    .append("index", new Document("name", RETENTION_INDEX).append("expireAfterSeconds", seconds)));
+        }
+    }
+
+    /*
+    Borra los archivos de output-dir cuyo trabajo ya no está en la colección (lo eliminó el índice TTL).
+    Un archivo sin trabajo más reciente que stale-after se respeta: puede ser de un trabajo recién encolado
+    en otra instancia que comparte el directorio.
+    */
+    private void purgeExpiredOutputs() {
+        if (!Files.isDirectory(outputDir)) {
+            return;
+        }
+        Map<String, List<Path>> files = new HashMap<>();
+        Instant cutoff = Instant.now().minus(staleAfter);
+        try (Stream<Path> listing = Files.list(outputDir)) {
+            listing.forEach(file -> {
+                Matcher matcher = OUTPUT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && !active.contains(matcher.group(1)) && modifiedBefore(file, cutoff)) {
+                    files.computeIfAbsent(matcher.group(1), id -> new ArrayList<>()).add(file);
+                }
+            });
+            if (files.isEmpty()) {
+                return;
+            }
+            Query existing = new Query(Criteria.where("id").in(files.keySet()));
+            existing.fields().include("id");
+            mongoTemplate.find(existing, Job.class).forEach(job -> files.remove(job.getId()));
+            for (List<Path> expired : files.values()) {
+                for (Path file : expired) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            if (!files.isEmpty()) {
+                log.info("{} trabajo(s) vencido(s): se borraron sus archivos de {}", files.size(), outputDir);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("No se pudieron borrar los archivos de trabajos vencidos en {}", outputDir, ex);
+        }
+    }
+
+    private static boolean modifiedBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public JobResponse submitExport(String format, String fields) {
+        // Se valida al encolar, así un parámetro inválido responde 400 en lugar de un trabajo FAILED
+        CatalogExportJob.Format exportFormat = CatalogExportJob.Format.parse(format);
+        ProductFields.parse(fields);
+
+        Map<String, String> parameters = fields == null || fields.isBlank()
+                ? Map.of("format", exportFormat.extension())
+                : Map.of("format", exportFormat.extension(), "fields", fields);
+        return submit(JobType.EXPORT, parameters, context -> exportJob.export(context, exportFormat, fields));
+    }
+
+    @Override
+    public JobResponse submitSpecificationNormalization(boolean all) {
+        return submit(JobType.NORMALIZE_SPECIFICATIONS, Map.of("all", Boolean.toString(all)), context -> {
+            if (all) {
+                // Aproximado (metadatos de la colección): con all=false no se sabe cuántos faltan sin recorrerlos
+                context.total(mongoTemplate.estimatedCount("products"));
+            }
+            long updated = specificationMigration.migrate(all, context::progress);
+            log.info("Trabajo {}: {} productos con especificaciones normalizadas", context.id(), updated);
+            return null;
+        });
+    }
+
+    @Override
+    public JobResponse get(String id) {
+        Job job = find(id);
+        if (UNFINISHED.contains(job.getStatus()) && !active.contains(id)
+                && job.getUpdatedAt() != null && job.getUpdatedAt().isBefore(Instant.now().minus(staleAfter))) {
+            Job orphan = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").in(UNFINISHED)),
+                    orphaned(), FindAndModifyOptions.options().returnNew(true), Job.class);
+            job = orphan != null ? orphan : find(id);
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public JobResponse cancel(String id) {
+        Instant now = Instant.now();
+        // En cola: se cancela directamente; al tocarle el turno ya no está QUEUED y no se ejecuta
+        Job job = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").is(JobStatus.QUEUED)),
+                new Update().set("status", JobStatus.CANCELLED).set("message", "Cancelado antes de empezar")
+                        .set("finishedAt", now).set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true), Job.class);
+        if (job == null) {
+            job = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").is(JobStatus.RUNNING)),
+                    new Update().set("cancelRequested", true), FindAndModifyOptions.options().returnNew(true), Job.class);
+            if (job == null) {
+                job = find(id);
+            } else if (active.contains(id)) {
+                // Si corre en esta instancia lo ve en el próximo avance; si no, al escribir su avance en MongoDB.
+                // Solo se anota si es de esta instancia: run() lo quita al terminar, un ID ajeno quedaría para siempre
+                cancelled.add(id);
+                if (!active.contains(id)) {
+                    // Terminó entre la comprobación y el add
+                    cancelled.remove(id);
+                }
+            }
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public Path getOutput(String id) {
+        Job job = find(id);
+        if (job.getStatus() != JobStatus.SUCCEEDED || job.getOutputFile() == null) {
+            throw new JobOutputNotAvailableException(id, job.getStatus());
+        }
+        Path output = Path.of(job.getOutputFile());
+        // El archivo está en el disco de la instancia que ejecutó el trabajo
+        if (!Files.isReadable(output)) {
+            throw new JobOutputNotAvailableException(id, job.getStatus());
+        }
+        return output;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+        }
+        cancelled.addAll(active);
+        if (!active.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("id").in(active).and("status").is(JobStatus.QUEUED)),
+                    orphaned(), Job.class);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private JobResponse submit(JobType type, Map<String, String> parameters, Function<JobContext, Path> task) {
+        Instant now = Instant.now();
+        Job job = new Job();
+        job.setId(new ObjectId().toHexString());
+        job.setType(type);
+        job.setStatus(JobStatus.QUEUED);
+        job.setParameters(parameters);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        job.setOwner(instance);
+        mongoTemplate.insert(job);
+
+        active.add(job.getId());
+        try {
+            // Las consultas del trabajo se atribuyen al método que lo encoló (registro de consultas lentas)
+            executor.execute(QueryOriginAspect.propagate(() -> run(job.getId(), task)));
+        } catch (RejectedExecutionException ex) {
+            active.remove(job.getId());
+            mongoTemplate.remove(job);
+            throw new JobQueueFullException(maxQueued);
+        }
+        return toResponse(job);
+    }
+
+    private void run(String id, Function<JobContext, Path> task) {
+        try {
+            Instant now = Instant.now();
+            Job job = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").is(JobStatus.QUEUED)),
+                    new Update().set("status", JobStatus.RUNNING).set("startedAt", now).set("updatedAt", now),
+                    FindAndModifyOptions.options().returnNew(true), Job.class);
+            if (job == null) {
+                return;
+            }
+
+            Context context = new Context(id);
+            try {
+                Path output = task.apply(context);
+                finish(id, JobStatus.SUCCEEDED, context.processed, null, output);
+            } catch (JobCancelledException ex) {
+                finish(id, shuttingDown ? JobStatus.FAILED : JobStatus.CANCELLED, context.processed,
+                        shuttingDown ? "Interrumpido por el cierre de la aplicación" : "Cancelado", null);
+            } catch (RuntimeException ex) {
+                log.error("Falló el trabajo {}", id, ex);
+                finish(id, JobStatus.FAILED, context.processed, ex.getMessage(), null);
+            }
+        } catch (RuntimeException ex) {
+            log.error("No se pudo actualizar el estado del trabajo {}", id, ex);
+        } finally {
+            active.remove(id);
+            cancelled.remove(id);
+        }
+    }
+
+    private void finish(String id, JobStatus status, long processed, String message, Path output) {
+        Instant now = Instant.now();
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), new Update()
+                .set("status", status)
+                .set("processed", processed)
+                .set("message", message)
+                .set("outputFile", output == null ? null : output.toString())
+                .set("finishedAt", now)
+                .set("updatedAt", now), Job.class);
+        log.info("Trabajo {} terminado: {} ({} elementos)", id, status, processed);
+    }
+
+    private Job find(String id) {
+        Job job = mongoTemplate.findById(id, Job.class);
+        if (job == null) {
+            throw new JobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private static Update orphaned() {
+        Instant now = Instant.now();
+        return new Update().set("status", JobStatus.FAILED)
+                .set("message", "Interrumpido: la instancia que lo ejecutaba se detuvo")
+                .set("finishedAt", now)
+                .set("updatedAt", now);
+    }
+
+    private static JobResponse toResponse(Job job) {
+        JobResponse response = new JobResponse();
+        response.setId(job.getId());
+        response.setType(job.getType());
+        response.setStatus(job.getStatus());
+        response.setParameters(job.getParameters());
+        response.setProcessed(job.getProcessed());
+        response.setTotal(job.getTotal());
+        if (job.getTotal() != null && job.getTotal() > 0) {
+            // El total puede ser una estimación: se acota a 100
+            response.setProgress(Math.min(100.0, Math.round(job.getProcessed() * 1000.0 / job.getTotal()) / 10.0));
+        }
+        response.setMessage(job.getMessage());
+        if (job.getStatus() == JobStatus.SUCCEEDED && job.getOutputFile() != null) {
+            response.setOutput("/jobs/" + job.getId() + "/output");
+        }
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setOwner(job.getOwner());
+        return response;
+    }
+
+    // Host y un identificador único por arranque: un reinicio en el mismo host es otra instancia
+    private static String instanceName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "desconocido";
+        }
+        return host + "/" + new ObjectId().toHexString();
+    }
+
+    // Avance y cancelación del trabajo que corre en el hilo actual
+    private final class Context implements JobContext {
+
+        private final String id;
+        private long processed;
+        private long lastWrite = System.nanoTime();
+
+        Context(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public void total(long total) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), new Update().set("total", total), Job.class);
+        }
+
+        @Override
+        public void progress(long processed) {
+            this.processed = processed;
+            if (cancelled.contains(id)) {
+                throw new JobCancelledException(id);
+            }
+            if (System.nanoTime() - lastWrite < progressInterval.toNanos()) {
+                return;
+            }
+            lastWrite = System.nanoTime();
+            Query query = new Query(Criteria.where("id").is(id));
+            query.fields().include("cancelRequested");
+            Job job = mongoTemplate.findAndModify(query, new Update().set("processed", processed).set("updatedAt", Instant.now()),
+                    FindAndModifyOptions.options().returnNew(true), Job.class);
+            // La cancelación pudo pedirse en otra instancia
+            if (job != null && job.isCancelRequested()) {
+                throw new JobCancelledException(id);
+            }
+        }
+
+        @Override
+        public Path outputDir() {
+            return outputDir;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+
+import com.proyecto.vdrt.catalogo.exception.InvalidCursorException;
+
+/**
+ * Codifica y decodifica los cursores opacos de paginación.
+ * El cliente solo ve un token Base64 URL-safe; internamente es el último _id entregado
+ * (o el último precio y _id en los listados ordenados por precio, o la posición en los ordenados por relevancia).
+ */
+final class PageCursor {
+
+    private static final String PRICE_SEPARATOR = "|";
+    private static final String OFFSET_PREFIX = "@";
+
+    private PageCursor() {
+    }
+
+    static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ObjectId decode(String cursor) {
+        try {
+            return new ObjectId(decodeText(cursor));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    // Posición dentro de un listado ordenado por (price, _id)
+    record PriceKey(double price, ObjectId id) {
+    }
+
+    static String encodePrice(double price, String lastId) {
+        return encode(price + PRICE_SEPARATOR + lastId);
+    }
+
+    static PriceKey decodePrice(String cursor) {
+        try {
+            String text = decodeText(cursor);
+            int separator = text.lastIndexOf(PRICE_SEPARATOR);
+            return new PriceKey(Double.parseDouble(text.substring(0, separator)), new ObjectId(text.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    // La relevancia de $text no admite keyset: el cursor guarda cuántos resultados ya se entregaron
+    static String encodeOffset(int offset) {
+        return encode(OFFSET_PREFIX + offset);
+    }
+
+    static int decodeOffset(String cursor) {
+        try {
+            String text = decodeText(cursor);
+            if (!text.startsWith(OFFSET_PREFIX)) {
+                throw new InvalidCursorException();
+            }
+            int offset = Integer.parseInt(text.substring(OFFSET_PREFIX.length()));
+            if (offset < 0) {
+                throw new InvalidCursorException();
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static String decodeText(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+
+/**
+ * Construye las consultas por rango de precio que comparten el modo servlet y el reactivo.
+ * Todas se resuelven con el índice { price, _id, name }: el filtro, el orden y el cursor
+ * recorren el mismo índice y el resumen no necesita leer los documentos.
+ */
+final class PriceRangeQuery {
+
+    private PriceRangeQuery() {
+    }
+
+    // Rango normalizado: si el mínimo es mayor que el máximo se intercambian; null es "sin límite"
+    record Range(double min, double max) {
+
+        static Range of(Double min, Double max) {
+            double low = min != null ? min : Double.NEGATIVE_INFINITY;
+            double high = max != null ? max : Double.POSITIVE_INFINITY;
+            return low > high ? new Range(high, low) : new Range(low, high);
+        }
+
+        Criteria criteria() {
+            Criteria criteria = Criteria.where("price");
+            if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+                // Sin límites igual se exige un número para no incluir productos sin precio
+                return criteria.type(JsonSchemaObject.Type.numberType());
+            }
+            if (min != Double.NEGATIVE_INFINITY) {
+                criteria.gte(min);
+            }
+            if (max != Double.POSITIVE_INFINITY) {
+                criteria.lte(max);
+            }
+            return criteria;
+        }
+    }
+
+    /**
+     * Página de productos del rango ordenada por precio y _id (keyset, sin skip).
+     * Pide un elemento de más para saber si existe una página siguiente.
+     */
+    static Query page(Range range, Sort.Direction direction, String cursor, int pageSize, ProductFields fields) {
+        Query query = new Query(range.criteria());
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(after(PageCursor.decodePrice(cursor), direction));
+        }
+        query.with(Sort.by(direction, "price", "id")).limit(pageSize + 1);
+        // 'price' hace falta para el cursor. Si solo se piden campos del índice (id, name, price)
+        // la consulta queda cubierta y no se lee ningún documento
+        return fields.project(query, "price");
+    }
+
+    // Productos posteriores al cursor en el orden (price, _id)
+    static Criteria after(PageCursor.PriceKey key, Sort.Direction direction) {
+        return direction == Sort.Direction.ASC
+                ? new Criteria().orOperator(Criteria.where("price").gt(key.price()),
+                        Criteria.where("price").is(key.price()).and("id").gt(key.id()))
+                : new Criteria().orOperator(Criteria.where("price").lt(key.price()),
+                        Criteria.where("price").is(key.price()).and("id").lt(key.id()));
+    }
+
+    // Conteo del rango; con el filtro sobre 'price' MongoDB cuenta recorriendo solo el índice
+    static Query count(Range range) {
+        return new Query(range.criteria());
+    }
+
+    // Los primeros N del rango con solo _id y price, igual que responde el índice en memoria
+    static Query top(Range range, Sort.Direction direction, int limit) {
+        Query query = new Query(range.criteria()).with(Sort.by(direction, "price", "id")).limit(limit);
+        query.fields().include("price");
+        return query;
+    }
+}
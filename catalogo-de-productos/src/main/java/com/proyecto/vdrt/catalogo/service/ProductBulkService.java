@@ -0,0 +1,34 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.io.InputStream;
+
+import com.proyecto.vdrt.catalogo.model.dto.BulkResultResponse;
+
+/**
+ * Operaciones masivas sobre el catálogo. El cuerpo puede ser un arreglo JSON o NDJSON
+ * y se procesa en streaming, por lotes, sin cargar toda la carga en memoria.
+ */
+public interface ProductBulkService {
+
+    /**
+     * Crea los productos recibidos en lotes no ordenados.
+     * @param body Flujo con elementos ProductRequest.
+     * @return Reporte con el resultado de cada elemento.
+     */
+    BulkResultResponse createAll (InputStream body);
+
+    /**
+     * Actualiza los productos recibidos (cada elemento incluye su ID).
+     * @param body Flujo con elementos ProductBulkUpdateRequest.
+     * @return Reporte con el resultado de cada elemento.
+     */
+    BulkResultResponse updateAll (InputStream body);
+
+    /**
+     * Elimina los productos cuyos IDs se reciben.
+     * @param body Flujo con los IDs (strings) a eliminar.
+     * @return Reporte con el resultado de cada elemento.
+     */
+    BulkResultResponse deleteAll (InputStream body);
+}
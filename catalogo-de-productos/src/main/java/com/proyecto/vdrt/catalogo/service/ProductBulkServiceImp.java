@@ -0,0 +1,278 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.exception.ProductAlreadyExistException;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.BulkItemResult;
+import com.proyecto.vdrt.catalogo.model.dto.BulkItemStatus;
+import com.proyecto.vdrt.catalogo.model.dto.BulkResultResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductBulkUpdateRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+
+@Service
+@Timed(value = "catalogo.service", histogram = true)
+public class ProductBulkServiceImp implements ProductBulkService {
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalogo.bulk.batch-size:1000}")
+    private int batchSize;
+
+    // Resultados exitosos que se listan en la respuesta; los errores se listan todos
+    @Value("${catalogo.bulk.max-reported-successes:10000}")
+    private int maxReportedSuccesses;
+
+    public ProductBulkServiceImp(MongoTemplate mongoTemplate, ProductMapper productMapper, ProductCache productCache,
+            ObjectMapper objectMapper, Validator validator, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Elemento pendiente de escribir junto con su posición en el cuerpo de la petición
+    private record Pending<T>(int index, T item) {
+    }
+
+    @Override
+    public BulkResultResponse createAll(InputStream body) {
+        BulkResultResponse result = new BulkResultResponse(maxReportedSuccesses);
+        List<Pending<Product>> batch = new ArrayList<>(batchSize);
+
+        readItems(body, ProductRequest.class, result, (index, request) -> {
+            Product product = productMapper.toDocument(request);
+            // El ID se asigna aquí para poder reportarlo sin releer lo insertado
+            product.setId(new ObjectId().toHexString());
+            product.setVersion(0L);
+            batch.add(new Pending<>(index, product));
+            if (batch.size() == batchSize) {
+                insertBatch(batch, result);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            insertBatch(batch, result);
+        }
+        return result;
+    }
+
+    @Override
+    public BulkResultResponse updateAll(InputStream body) {
+        BulkResultResponse result = new BulkResultResponse(maxReportedSuccesses);
+        List<Pending<ProductBulkUpdateRequest>> batch = new ArrayList<>(batchSize);
+
+        readItems(body, ProductBulkUpdateRequest.class, result, (index, request) -> {
+            batch.add(new Pending<>(index, request));
+            if (batch.size() == batchSize) {
+                updateBatch(batch, result);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            updateBatch(batch, result);
+        }
+        return result;
+    }
+
+    @Override
+    public BulkResultResponse deleteAll(InputStream body) {
+        BulkResultResponse result = new BulkResultResponse(maxReportedSuccesses);
+        List<Pending<String>> batch = new ArrayList<>(batchSize);
+
+        readItems(body, String.class, result, (index, id) -> {
+            batch.add(new Pending<>(index, id));
+            if (batch.size() == batchSize) {
+                deleteBatch(batch, result);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            deleteBatch(batch, result);
+        }
+        return result;
+    }
+
+    private void insertBatch(List<Pending<Product>> batch, BulkResultResponse result) {
+        // Los nombres repetidos los rechaza el índice único: llegan como errores 11000 y se reportan como CONFLICT
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        batch.forEach(pending -> bulk.insert(pending.item()));
+        Map<Integer, BulkWriteError> errors = execute(bulk);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Pending<Product> pending = batch.get(i);
+            if (!errors.containsKey(i)) {
+                eventPublisher.publishEvent(ProductChangedEvent.created(pending.item()));
+            }
+            result.add(toResult(pending.index(), pending.item().getId(), BulkItemStatus.CREATED, errors.get(i)));
+        }
+    }
+
+    private void updateBatch(List<Pending<ProductBulkUpdateRequest>> batch, BulkResultResponse result) {
+        Set<String> existing = existingIds(batch.stream().map(p -> p.item().getId()).toList());
+
+        List<Pending<ProductBulkUpdateRequest>> toUpdate = new ArrayList<>(batch.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Pending<ProductBulkUpdateRequest> pending : batch) {
+            String id = pending.item().getId();
+            if (existing.contains(id)) {
+                toUpdate.add(pending);
+                bulk.updateOne(new Query(Criteria.where("id").is(id)), productMapper.toUpdate(pending.item()));
+            } else {
+                result.add(new BulkItemResult(pending.index(), id, BulkItemStatus.NOT_FOUND, null));
+            }
+        }
+        if (toUpdate.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, BulkWriteError> errors = execute(bulk);
+        for (int i = 0; i < toUpdate.size(); i++) {
+            Pending<ProductBulkUpdateRequest> pending = toUpdate.get(i);
+            productCache.invalidate(pending.item().getId());
+            if (!errors.containsKey(i)) {
+                // El reemplazo es completo, así que el estado nuevo es el de la petición
+                Product updated = productMapper.toDocument(pending.item());
+                updated.setId(pending.item().getId());
+                eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+            }
+            result.add(toResult(pending.index(), pending.item().getId(), BulkItemStatus.UPDATED, errors.get(i)));
+        }
+    }
+
+    private void deleteBatch(List<Pending<String>> batch, BulkResultResponse result) {
+        Set<String> existing = existingIds(batch.stream().map(Pending::item).toList());
+
+        if (!existing.isEmpty()) {
+            // Un solo deleteMany por lote con los IDs que sí existen
+            mongoTemplate.remove(new Query(Criteria.where("id").in(existing)), Product.class);
+            existing.forEach(id -> {
+                productCache.invalidate(id);
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+            });
+        }
+        for (Pending<String> pending : batch) {
+            BulkItemStatus status = existing.contains(pending.item()) ? BulkItemStatus.DELETED : BulkItemStatus.NOT_FOUND;
+            result.add(new BulkItemResult(pending.index(), pending.item(), status, null));
+        }
+    }
+
+    // IDs del lote que existen en la colección (solo se proyecta el _id)
+    private Set<String> existingIds(List<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+    }
+
+    // Ejecuta el lote; en modo no ordenado MongoDB aplica todo lo posible y reporta los errores por posición
+    private Map<Integer, BulkWriteError> execute(BulkOperations bulk) {
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException ex) {
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            ex.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+            return errors;
+        }
+    }
+
+    private BulkItemResult toResult(int index, String id, BulkItemStatus success, BulkWriteError error) {
+        if (error == null) {
+            return new BulkItemResult(index, id, success, null);
+        }
+        if (error.getCode() == DUPLICATE_KEY_CODE) {
+            // Solo el índice de 'name' significa que el nombre ya existe; otro índice único se reporta tal cual
+            String message = ProductIndexRegistry.isNameConflict(error.getMessage())
+                    ? new ProductAlreadyExistException().getMessage() : error.getMessage();
+            return new BulkItemResult(index, id, BulkItemStatus.CONFLICT, List.of(message));
+        }
+        return new BulkItemResult(index, id, BulkItemStatus.FAILED, List.of(error.getMessage()));
+    }
+
+    /*
+    Lee el cuerpo elemento por elemento (arreglo JSON o NDJSON) y valida cada uno.
+    Solo los elementos válidos llegan al consumer; los inválidos se reportan directamente.
+    Un elemento que no se puede convertir al tipo ("price": "abc") es inválido, pero el JSON sigue siendo legible:
+    el iterador salta al final de ese elemento y continúa con el siguiente.
+    */
+    private <T> void readItems(InputStream body, Class<T> type, BulkResultResponse result, BiConsumer<Integer, T> consumer) {
+        int index = 0;
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            while (items.hasNextValue()) {
+                T item;
+                try {
+                    item = items.nextValue();
+                } catch (JsonMappingException ex) {
+                    result.add(new BulkItemResult(index++, null, BulkItemStatus.INVALID, List.of(mappingError(ex))));
+                    continue;
+                }
+                List<String> errors = validator.validate(item).stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .toList();
+                if (errors.isEmpty()) {
+                    consumer.accept(index, item);
+                } else {
+                    result.add(new BulkItemResult(index, null, BulkItemStatus.INVALID, errors));
+                }
+                index++;
+            }
+        } catch (JsonParseException ex) {
+            // Con un JSON mal formado no se puede seguir leyendo con seguridad: se reporta y se detiene
+            result.add(new BulkItemResult(index, null, BulkItemStatus.INVALID,
+                    List.of("JSON mal formado: " + ex.getOriginalMessage())));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Mismo formato que los errores de validación: ruta del campo dentro del elemento y mensaje
+    private static String mappingError(JsonMappingException ex) {
+        String path = ex.getPath().stream()
+                .map(reference -> reference.getFieldName() != null ? reference.getFieldName() : "[" + reference.getIndex() + "]")
+                .collect(Collectors.joining("."));
+        return path.isEmpty() ? ex.getOriginalMessage() : path + ": " + ex.getOriginalMessage();
+    }
+}
@@ -0,0 +1,22 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import com.proyecto.vdrt.catalogo.model.dto.FacetResponse;
+
+/**
+ * Conteos para navegación por facetas (etiquetas, especificaciones e histograma de precios).
+ */
+public interface ProductFacetService {
+
+    /**
+     * Calcula las facetas de los productos que cumplen el filtro. Todos los filtros son opcionales y se combinan.
+     * @param word Palabras de búsqueda de texto completo.
+     * @param tag Etiqueta que deben tener los productos.
+     * @param min Precio mínimo.
+     * @param max Precio máximo.
+     * @param buckets Cantidad de intervalos del histograma de precios; null para el valor por defecto.
+     * @param limit Máximo de valores por faceta; null para el valor por defecto.
+     * @return Total de productos y conteos por etiqueta, especificación e intervalo de precio.
+     */
+    FacetResponse getFacets (String word, String tag, Double min, Double max, Integer buckets, Integer limit);
+}
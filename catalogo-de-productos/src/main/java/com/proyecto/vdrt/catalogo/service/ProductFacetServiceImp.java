@@ -0,0 +1,169 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.cache.FacetCache;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.FacetResponse;
+import com.proyecto.vdrt.catalogo.model.dto.FacetValue;
+import com.proyecto.vdrt.catalogo.model.dto.PriceBucket;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+@Timed(value = "catalogo.service", histogram = true)
+public class ProductFacetServiceImp implements ProductFacetService {
+
+    private static final String SEARCH_LANGUAGE = "spanish";
+
+    private final MongoTemplate mongoTemplate;
+    private final FacetCache facetCache;
+    private final ReadRouting readRouting;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${catalogo.facets.default-buckets:5}")
+    private int defaultBuckets;
+
+    @Value("${catalogo.facets.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${catalogo.facets.max-limit:100}")
+    private int maxLimit;
+
+    public ProductFacetServiceImp(MongoTemplate mongoTemplate, FacetCache facetCache, ReadRouting readRouting,
+            CatalogVersion catalogVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.facetCache = facetCache;
+        this.readRouting = readRouting;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /*
+    Filtro normalizado: las variantes equivalentes de una misma petición comparten la entrada del caché.
+    La versión del catálogo es parte de la clave: después de una escritura ninguna petición reutiliza conteos
+    anteriores, que ConditionalGetConfig entregaría con el ETag nuevo y el cliente revalidaría con 304.
+    */
+    private record FacetKey(long version, String word, String tag, double min, double max, int buckets, int limit) {
+    }
+
+    @Override
+    public FacetResponse getFacets(String word, String tag, Double min, Double max, Integer buckets, Integer limit) {
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+        FacetKey key = new FacetKey(catalogVersion.current(),
+                (word == null || word.isBlank()) ? null : word.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT),
+                (tag == null || tag.isBlank()) ? null : tag,
+                range.min(), range.max(),
+                (buckets == null || buckets < 1) ? defaultBuckets : Math.min(buckets, maxLimit),
+                (limit == null || limit < 1) ? defaultLimit : Math.min(limit, maxLimit));
+
+        return facetCache.get(key, ignored -> aggregate(key));
+    }
+
+    /*
+    Una sola agregación: el $match filtra con los índices (texto, tags, price) y $facet
+    calcula todas las facetas sobre el mismo conjunto, sin traer los productos a la aplicación.
+    */
+    private FacetResponse aggregate(FacetKey key) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (key.word() != null) {
+            // $text debe ser la primera etapa del pipeline
+            stages.add(Aggregation.match(TextCriteria.forLanguage(SEARCH_LANGUAGE).matching(key.word())));
+        }
+        if (key.tag() != null) {
+            stages.add(Aggregation.match(Criteria.where("tags").is(key.tag())));
+        }
+        if (key.min() != Double.NEGATIVE_INFINITY || key.max() != Double.POSITIVE_INFINITY) {
+            stages.add(Aggregation.match(new PriceRangeQuery.Range(key.min(), key.max()).criteria()));
+        }
+
+        stages.add(Aggregation.facet(Aggregation.count().as("total")).as("total")
+                .and(Aggregation.unwind("tags"),
+                        Aggregation.sortByCount("tags"),
+                        Aggregation.limit(key.limit())).as("tags")
+                .and(specificationStages(key.limit())).as("specifications")
+                .and(Aggregation.match(Criteria.where("price").type(JsonSchemaObject.Type.numberType())),
+                        Aggregation.bucketAuto("price", key.buckets())).as("price"));
+
+        Document result = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Product.class, stages).withOptions(readRouting.forList(AggregationOptions.builder().allowDiskUse(true)).build()),
+                Document.class).getUniqueMappedResult();
+
+        return toResponse(result);
+    }
+
+    /*
+    Usa el campo normalizado 'specs' ([{k, v, vNorm}]): "16 GB" y "16gb" cuentan como el mismo valor
+    y se muestra el texto original del primer producto encontrado.
+    */
+    private static AggregationOperation[] specificationStages(int limit) {
+        return new AggregationOperation[] {
+                Aggregation.unwind("specs"),
+                context -> new Document("$group", new Document("_id", new Document("k", "$specs.k").append("v", "$specs.vNorm"))
+                        .append("label", new Document("$first", "$specs.v"))
+                        .append("count", new Document("$sum", 1))),
+                context -> new Document("$sort", new Document("count", -1).append("_id.v", 1)),
+                context -> new Document("$group", new Document("_id", "$_id.k")
+                        .append("total", new Document("$sum", "$count"))
+                        .append("values", new Document("$push", new Document("value", "$label").append("count", "$count")))),
+                context -> new Document("$sort", new Document("total", -1).append("_id", 1)),
+                Aggregation.limit(limit),
+                context -> new Document("$project", new Document("values", new Document("$slice", List.of("$values", limit))))
+        };
+    }
+
+    private static FacetResponse toResponse(Document result) {
+        long total = 0;
+        List<Document> totals = result.getList("total", Document.class, List.of());
+        if (!totals.isEmpty()) {
+            total = toLong(totals.get(0).get("total"));
+        }
+
+        List<FacetValue> tags = new ArrayList<>();
+        for (Document tag : result.getList("tags", Document.class, List.of())) {
+            tags.add(new FacetValue(String.valueOf(tag.get("_id")), toLong(tag.get("count"))));
+        }
+
+        Map<String, List<FacetValue>> specifications = new LinkedHashMap<>();
+        for (Document specification : result.getList("specifications", Document.class, List.of())) {
+            List<FacetValue> values = new ArrayList<>();
+            for (Document value : specification.getList("values", Document.class, List.of())) {
+                values.add(new FacetValue(value.getString("value"), toLong(value.get("count"))));
+            }
+            specifications.put(String.valueOf(specification.get("_id")), values);
+        }
+
+        List<PriceBucket> price = new ArrayList<>();
+        for (Document bucket : result.getList("price", Document.class, List.of())) {
+            Document bounds = bucket.get("_id", Document.class);
+            price.add(new PriceBucket(toDouble(bounds.get("min")), toDouble(bounds.get("max")), toLong(bucket.get("count"))));
+        }
+
+        return new FacetResponse(total, tags, specifications, price);
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static double toDouble(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
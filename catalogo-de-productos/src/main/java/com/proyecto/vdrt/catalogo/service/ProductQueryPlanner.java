@@ -0,0 +1,149 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proyecto.vdrt.catalogo.cache.AsyncLoads;
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.index.PriceIndex;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * Planificador de /products/query. Estima qué fracción del catálogo cumple cada criterio,
+ * los ordena del más selectivo al menos selectivo y elige el índice que conviene forzar (hint).
+ *
+ * Las estimaciones salen de conteos acotados (count con limit sobre el índice del criterio) o del
+ * índice de precios en memoria, y se guardan unos segundos para no repetirlos en cada petición, igual que
+ * el total de la colección. Un conteo que llega al límite solo dice que hay al menos sample-limit productos:
+ * ese criterio se considera no selectivo y nunca se fuerza su índice.
+ *
+ * Las estimaciones y el total se muestran en el plan (explain) de la respuesta, que lleva el ETag de CatalogVersion:
+ * por eso su clave incluye la versión del catálogo y una escritura deja de usar los valores anteriores.
+ */
+@Component
+public class ProductQueryPlanner {
+
+    private static final String INDEXES_KEY = "indexes";
+
+    private final MongoTemplate mongoTemplate;
+    private final PriceIndex priceIndex;
+    private final CatalogVersion catalogVersion;
+    private final AsyncCache<String, Long> estimates;
+    private final AsyncCache<String, Set<String>> indexes;
+    // Clave: versión del catálogo
+    private final AsyncCache<Long, Long> totals;
+
+    // Un conteo nunca recorre más de esta cantidad de entradas del índice
+    @Value("${catalogo.query.planner.sample-limit:10000}")
+    private int sampleLimit;
+
+    // Con orden por precio, si ningún criterio baja de esta fracción se recorre el índice de precio
+    @Value("${catalogo.query.planner.sort-index-threshold:0.2}")
+    private double sortIndexThreshold;
+
+    // Por encima de esta fracción un índice no ahorra lecturas y se deja decidir a MongoDB
+    @Value("${catalogo.query.planner.max-hint-selectivity:0.5}")
+    private double maxHintSelectivity;
+
+    public ProductQueryPlanner(MongoTemplate mongoTemplate, PriceIndex priceIndex, CatalogVersion catalogVersion,
+            @Value("${catalogo.query.planner.estimate-ttl:60s}") Duration estimateTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.priceIndex = priceIndex;
+        this.catalogVersion = catalogVersion;
+        this.estimates = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(estimateTtl)
+                .executor(AsyncLoads.VIRTUAL_THREADS).buildAsync();
+        this.indexes = Caffeine.newBuilder().expireAfterWrite(estimateTtl)
+                .executor(AsyncLoads.VIRTUAL_THREADS).buildAsync();
+        this.totals = Caffeine.newBuilder().maximumSize(100).expireAfterWrite(estimateTtl)
+                .executor(AsyncLoads.VIRTUAL_THREADS).buildAsync();
+    }
+
+    /**
+     * Criterio de la consulta.
+     * @param description Texto legible y estable; también es la clave de la estimación cacheada.
+     * @param criteria Filtro de MongoDB.
+     * @param index Índice que lo resuelve, o null.
+     * @param priceRange Rango si es el criterio de precio (se puede estimar en memoria).
+     */
+    record Predicate(String description, Criteria criteria, String index, PriceRangeQuery.Range priceRange) {
+    }
+
+    /**
+     * @param selectivity Fracción estimada del catálogo; si lowerBound es true, un mínimo.
+     * @param lowerBound true si el conteo llegó a sample-limit y la cantidad real es desconocida (al menos el límite).
+     */
+    record Estimated(Predicate predicate, double selectivity, boolean lowerBound) {
+    }
+
+    record Plan(List<Estimated> predicates, String hint) {
+    }
+
+    /**
+     * @param predicates Criterios sin ordenar.
+     * @param text true si la consulta usa $text (MongoDB obliga a usar el índice de texto y no admite hint).
+     * @param sortByPrice true si el resultado se ordena por precio.
+     */
+    Plan plan(List<Predicate> predicates, boolean text, boolean sortByPrice) {
+        long version = catalogVersion.current();
+        long total = Math.max(1, AsyncLoads.join(totals.get(version, key -> mongoTemplate.estimatedCount(Product.class))));
+        List<Estimated> ordered = predicates.stream()
+                .map(predicate -> estimate(predicate, total, version))
+                // Los de conteo saturado al final: pueden cumplirlos muchos más productos que el límite
+                .sorted(Comparator.comparing(Estimated::lowerBound).thenComparingDouble(Estimated::selectivity))
+                .toList();
+
+        return new Plan(ordered, text ? null : chooseHint(ordered, sortByPrice));
+    }
+
+    private String chooseHint(List<Estimated> ordered, boolean sortByPrice) {
+        // Solo cuentan las estimaciones exactas: un conteo saturado no prueba que el índice descarte algo
+        Estimated best = ordered.stream().filter(e -> e.predicate().index() != null && !e.lowerBound()).findFirst().orElse(null);
+        String hint;
+        if (sortByPrice && (best == null || best.selectivity() > sortIndexThreshold)) {
+            // Nada es muy selectivo: recorrer price en orden evita ordenar en memoria y corta al llenar la página
+            hint = ProductIndexRegistry.PRICE_INDEX_NAME;
+        } else if (best != null && best.selectivity() <= maxHintSelectivity) {
+            hint = best.predicate().index();
+        } else {
+            hint = null;
+        }
+        // Los índices se crean en segundo plano: nunca se fuerza uno que todavía no existe
+        return (hint != null && availableIndexes().contains(hint)) ? hint : null;
+    }
+
+    private Estimated estimate(Predicate predicate, long total, long version) {
+        if (predicate.priceRange() != null && priceIndex.isReady()) {
+            long count = priceIndex.count(predicate.priceRange().min(), predicate.priceRange().max());
+            return new Estimated(predicate, Math.min(1.0, count / (double) total), false);
+        }
+        long count = count(predicate, version);
+        return new Estimated(predicate, Math.min(1.0, count / (double) total), count >= sampleLimit);
+    }
+
+    private long count(Predicate predicate, long version) {
+        // Igual que en ProductCache, el conteo corre en un hilo virtual aparte (AsyncLoads) y se hace una sola vez
+        // aunque lleguen varias consultas con el mismo criterio
+        return AsyncLoads.join(estimates.get(version + ":" + predicate.description(),
+                key -> mongoTemplate.count(new Query(predicate.criteria()).limit(sampleLimit), Product.class)));
+    }
+
+    private Set<String> availableIndexes() {
+        return AsyncLoads.join(indexes.get(INDEXES_KEY, key -> mongoTemplate.indexOps(Product.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())));
+    }
+}
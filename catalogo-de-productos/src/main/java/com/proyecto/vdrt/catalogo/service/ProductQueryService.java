@@ -0,0 +1,18 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryResponse;
+
+/**
+ * Búsqueda combinada: texto, etiquetas, especificaciones y rango de precio en una sola consulta.
+ */
+public interface ProductQueryService {
+
+    /**
+     * Ejecuta la consulta con el plan elegido por ProductQueryPlanner.
+     * @param request Criterios, orden, cursor y campos de la respuesta.
+     * @return La página de resultados, el cursor siguiente y, con explain, el plan usado.
+     */
+    ProductQueryResponse query (ProductQueryRequest request);
+}
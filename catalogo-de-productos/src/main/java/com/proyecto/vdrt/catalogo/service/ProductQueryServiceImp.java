@@ -0,0 +1,245 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.PlannedPredicate;
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductQueryResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.QueryPlanResponse;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+@Timed(value = "catalogo.service", histogram = true)
+public class ProductQueryServiceImp implements ProductQueryService {
+
+    private static final String SEARCH_LANGUAGE = "spanish";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductMapper productMapper;
+    private final ProductQueryPlanner planner;
+    private final ReadRouting readRouting;
+
+    @Value("${catalogo.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${catalogo.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${catalogo.query.explain-enabled:false}")
+    private boolean explainEnabled;
+
+    public ProductQueryServiceImp(MongoTemplate mongoTemplate, ProductMapper productMapper, ProductQueryPlanner planner,
+            ReadRouting readRouting) {
+        this.mongoTemplate = mongoTemplate;
+        this.productMapper = productMapper;
+        this.planner = planner;
+        this.readRouting = readRouting;
+    }
+
+    private enum QuerySort {
+        ID, PRICE_ASC, PRICE_DESC, RELEVANCE
+    }
+
+    @Override
+    public ProductQueryResponse query(ProductQueryRequest request) {
+        if (request.isExplain() && !explainEnabled) {
+            throw new InvalidQueryException("El modo explain está deshabilitado (catalogo.query.explain-enabled)");
+        }
+        boolean text = request.getWord() != null && !request.getWord().isBlank();
+        QuerySort sort = resolveSort(request.getSort(), text);
+        boolean sortByPrice = sort == QuerySort.PRICE_ASC || sort == QuerySort.PRICE_DESC;
+        int pageSize = resolvePageSize(request.getSize());
+        ProductFields projection = ProductFields.parse(request.getFields());
+
+        ProductQueryPlanner.Plan plan = planner.plan(predicates(request, sortByPrice), text, sortByPrice);
+
+        // Los criterios van en el orden del plan: primero los que más descartan
+        List<Criteria> criteria = plan.predicates().stream()
+                .map(estimated -> estimated.predicate().criteria())
+                .collect(Collectors.toCollection(ArrayList::new));
+        Query query = text
+                ? TextQuery.queryText(TextCriteria.forLanguage(SEARCH_LANGUAGE).matching(request.getWord()))
+                : new Query();
+        applySortAndCursor(query, sort, request.getCursor(), criteria);
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.limit(pageSize + 1);
+        if (plan.hint() != null) {
+            query.withHint(plan.hint());
+        }
+        if (sortByPrice) {
+            projection.project(query, "price");
+        } else {
+            projection.project(query);
+        }
+
+        List<Product> products = mongoTemplate.find(readRouting.forList(query), Product.class);
+
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            Product last = products.get(pageSize - 1);
+            nextCursor = switch (sort) {
+                case ID -> PageCursor.encode(last.getId());
+                case PRICE_ASC, PRICE_DESC -> PageCursor.encodePrice(last.getPrice(), last.getId());
+                case RELEVANCE -> PageCursor.encodeOffset((int) query.getSkip() + pageSize);
+            };
+        }
+        List<ProductResponse> content = products.stream()
+                .map(product -> productMapper.toResponse(product, projection))
+                .collect(Collectors.toList());
+
+        return new ProductQueryResponse(content, nextCursor, request.isExplain() ? describe(plan, sort, query) : null);
+    }
+
+    private List<ProductQueryPlanner.Predicate> predicates(ProductQueryRequest request, boolean sortByPrice) {
+        List<ProductQueryPlanner.Predicate> predicates = new ArrayList<>();
+
+        List<String> tags = request.getTags() == null ? List.of() : request.getTags().stream()
+                .flatMap(value -> List.of(value.split(",")).stream())
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toList();
+        if (!tags.isEmpty()) {
+            String mode = request.getTagsMode() == null ? "all" : request.getTagsMode().toLowerCase(Locale.ROOT);
+            if (mode.equals("any")) {
+                predicates.add(new ProductQueryPlanner.Predicate("tags in " + tags, Criteria.where("tags").in(tags),
+                        ProductIndexRegistry.TAGS_INDEX_NAME, null));
+            } else if (mode.equals("all")) {
+                // Un criterio por etiqueta: el planificador usa la más rara para recorrer el índice
+                tags.forEach(tag -> predicates.add(new ProductQueryPlanner.Predicate("tags = " + tag,
+                        Criteria.where("tags").is(tag), ProductIndexRegistry.TAGS_INDEX_NAME, null)));
+            } else {
+                throw new InvalidQueryException("modoTags debe ser 'all' o 'any'");
+            }
+        }
+
+        if (request.getSpecs() != null) {
+            for (String spec : request.getSpecs()) {
+                int separator = spec.indexOf(':');
+                if (separator <= 0 || separator == spec.length() - 1) {
+                    throw new InvalidQueryException("Especificación inválida, se espera 'clave:valor': " + spec);
+                }
+                String key = SpecificationNormalizer.normalize(spec.substring(0, separator));
+                String value = SpecificationNormalizer.normalize(spec.substring(separator + 1));
+                predicates.add(new ProductQueryPlanner.Predicate("specs " + key + " = " + value,
+                        Criteria.where("specs").elemMatch(Criteria.where("k").is(key).and("vNorm").is(value)),
+                        ProductIndexRegistry.SPECS_INDEX_NAME, null));
+            }
+        }
+
+        // Con orden por precio se filtra igual por 'price' numérico, para que el cursor siempre tenga precio
+        if (request.getMinPrice() != null || request.getMaxPrice() != null || sortByPrice) {
+            PriceRangeQuery.Range range = PriceRangeQuery.Range.of(request.getMinPrice(), request.getMaxPrice());
+            predicates.add(new ProductQueryPlanner.Predicate("price in [" + range.min() + ", " + range.max() + "]",
+                    range.criteria(), ProductIndexRegistry.PRICE_INDEX_NAME, range));
+        }
+        return predicates;
+    }
+
+    private static QuerySort resolveSort(String sort, boolean text) {
+        if (sort == null || sort.isBlank()) {
+            return text ? QuerySort.RELEVANCE : QuerySort.ID;
+        }
+        QuerySort resolved;
+        try {
+            resolved = QuerySort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidQueryException("orden debe ser 'id', 'price_asc', 'price_desc' o 'relevance'");
+        }
+        if (resolved == QuerySort.RELEVANCE && !text) {
+            throw new InvalidQueryException("El orden por relevancia requiere 'palabra'");
+        }
+        return resolved;
+    }
+
+    // El cursor se agrega como un criterio más; la relevancia usa desplazamiento porque $text no admite keyset
+    private static void applySortAndCursor(Query query, QuerySort sort, String cursor, List<Criteria> criteria) {
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        switch (sort) {
+            case ID -> {
+                query.with(Sort.by(Sort.Direction.ASC, "id"));
+                if (hasCursor) {
+                    criteria.add(Criteria.where("id").gt(PageCursor.decode(cursor)));
+                }
+            }
+            case PRICE_ASC, PRICE_DESC -> {
+                Sort.Direction direction = sort == QuerySort.PRICE_ASC ? Sort.Direction.ASC : Sort.Direction.DESC;
+                query.with(Sort.by(direction, "price", "id"));
+                if (hasCursor) {
+                    criteria.add(PriceRangeQuery.after(PageCursor.decodePrice(cursor), direction));
+                }
+            }
+            case RELEVANCE -> {
+                ((TextQuery) query).sortByScore();
+                if (hasCursor) {
+                    query.skip(PageCursor.decodeOffset(cursor));
+                }
+            }
+        }
+    }
+
+    private QueryPlanResponse describe(ProductQueryPlanner.Plan plan, QuerySort sort, Query query) {
+        List<PlannedPredicate> predicates = plan.predicates().stream()
+                .map(estimated -> new PlannedPredicate(estimated.predicate().description(), estimated.selectivity(),
+                        estimated.lowerBound(), estimated.predicate().index()))
+                .toList();
+        QueryPlanResponse response = new QueryPlanResponse(predicates, plan.hint(), sort.name().toLowerCase(Locale.ROOT));
+        response.setExplain(explain(query));
+        return response;
+    }
+
+    // explain("executionStats") de la misma consulta, en el mismo tipo de nodo y con los nombres de campo ya traducidos al documento
+    private String explain(Query query) {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Product.class);
+
+        FindIterable<Document> find = readRouting.forList(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class)))
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .projection(queryMapper.getMappedFields(query.getFieldsObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .skip((int) query.getSkip())
+                .limit(query.getLimit());
+        if (query.getHint() != null) {
+            find.hintString(query.getHint());
+        }
+        return find.explain(ExplainVerbosity.EXECUTION_STATS)
+                .toJson(JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build());
+    }
+
+    // Tamaño de página solicitado, acotado al máximo configurado
+    private int resolvePageSize(Integer size) {
+        return (size == null || size < 1) ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+}
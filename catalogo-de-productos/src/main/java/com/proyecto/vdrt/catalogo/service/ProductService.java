@@ -2,9 +2,18 @@ package com.proyecto.vdrt.catalogo.service;
 
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.bson.RawBsonDocument;
+
+import com.proyecto.vdrt.catalogo.cache.CachedProduct;
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.RawProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
 
 /**
  * Interfaz que define la lógica de negocio para la gestión del catálogo de productos.
@@ -19,10 +28,39 @@ public interface ProductService {
     ProductResponse save (ProductRequest product);
 
     /**
-     * Obtiene el listado completo de productos.
-     * @return Lista de todos los productos disponibles.
+     * Obtiene una página de productos ordenada por _id (paginación por cursor).
+     * @param cursor Token opaco devuelto por la página anterior, o null para empezar.
+     * @param size Tamaño de página; si es null se usa el configurado por defecto.
+     * @param fields Campos de la respuesta separados por comas (ej. "name,price"); null para todos.
+     * @return La página de productos y el cursor para pedir la siguiente.
      */
-    List<ProductResponse> getAll ();
+    ProductPageResponse getPage (String cursor, Integer size, String fields);
+
+    /**
+     * Recorre todo el catálogo con un cursor de MongoDB sin materializarlo en memoria.
+     * El llamador debe cerrar el Stream al terminar.
+     * @param fields Campos de la respuesta separados por comas (ej. "name,price"); null para todos.
+     * @return Stream de productos en orden de _id.
+     */
+    Stream<ProductResponse> streamAll (String fields);
+
+    /**
+     * Indica si los listados de getRawPage y streamAllRaw deben usarse en lugar de getPage y streamAll:
+     * catalogo.serialization.raw-bson.enabled está activo y las lecturas van a MongoDB (no a la réplica en memoria).
+     */
+    boolean usesRawSerialization ();
+
+    /**
+     * Igual que getPage, pero con los documentos sin decodificar; se serializan con RawProductJson.
+     * @return La página de documentos y el cursor para pedir la siguiente.
+     */
+    RawProductPageResponse getRawPage (String cursor, Integer size, String fields);
+
+    /**
+     * Igual que streamAll, pero con los documentos sin decodificar. El llamador debe cerrar el Stream al terminar.
+     * @return Stream de documentos en orden de _id, ya proyectados según fields.
+     */
+    Stream<RawBsonDocument> streamAllRaw (String fields);
     
     /**
      * Busca un producto por su identificador único.
@@ -30,38 +68,106 @@ public interface ProductService {
      * @return El producto encontrado.
      */
     ProductResponse getById (String id);
+
+    /**
+     * Igual que getById pero devuelve la entrada del caché: el DTO y, con el caché en modo store-json, su JSON ya
+     * serializado. Es una sola lectura, así el ETag y el cuerpo de la respuesta salen de la misma versión.
+     * @param id Identificador del producto.
+     * @return El producto encontrado; json es null si el caché no lo guarda serializado.
+     */
+    CachedProduct getCachedById (String id);
     
     /**
-     * Busca productos que coincidan con una palabra clave en su nombre o descripción.
-     * @param word Palabra clave a buscar.
-     * @return Lista de productos coincidentes.
+     * Búsqueda de texto completo en nombre y descripción usando el índice de texto de MongoDB
+     * (stemming en español, sin distinguir acentos ni mayúsculas).
+     * @param word Palabra o palabras clave a buscar.
+     * @param page Número de página (desde 0).
+     * @param size Tamaño de página; si es null se usa el configurado por defecto.
+     * @param fields Campos de la respuesta separados por comas (ej. "name,price"); null para todos.
+     * @return Lista de productos coincidentes ordenados por relevancia.
      */
-    List<ProductResponse> getPerWord (String word);
+    List<ProductResponse> getPerWord (String word, int page, Integer size, String fields);
     
     void delete (String id);
     
     ProductResponse updateById (String id, ProductRequest product);
 
+    /**
+     * Actualiza parcialmente un producto en una sola operación atómica (findAndModify).
+     * @param id Identificador del producto.
+     * @param patch Campos a modificar; si incluye 'version' se verifica que siga siendo la actual.
+     * @return El producto ya actualizado.
+     */
+    ProductResponse patchById (String id, ProductPatchRequest patch);
+
     /**
      * Encuentra todos los productos que contengan una etiqueta específica.
      * @param tag Etiqueta a buscar (ej. "tecnología").
+     * @param fields Campos de la respuesta separados por comas (ej. "name,price"); null para todos.
      * @return Lista de productos que contienen el tag.
      */
-    List<ProductResponse> getByTag (String tag);
+    List<ProductResponse> getByTag (String tag, String fields);
+
+    /**
+     * Busca productos con una expresión booleana de etiquetas (ej. "gamer AND (laptop OR pc) AND NOT usado").
+     * Usa el índice de etiquetas en memoria si está activo; si no, la misma condición en MongoDB.
+     * @param expr Expresión con AND, OR, NOT y paréntesis.
+     * @param page Número de página (desde 0).
+     * @param size Tamaño de página; si es null se usa el configurado por defecto.
+     * @param fields Campos de la respuesta separados por comas; null para todos.
+     * @return La página pedida, el total de coincidencias y el origen de la respuesta.
+     */
+    TagQueryResponse getByTagExpression (String expr, int page, Integer size, String fields);
 
     /**
      * Busca productos por una especificación técnica dinámica (clave-valor).
      * @param key Nombre de la especificación (ej. "RAM", "Color").
      * @param value Valor de la especificación (ej. "16GB", "Rojo").
+     * @param fields Campos de la respuesta separados por comas (ej. "name,price"); null para todos.
      * @return Lista de productos que cumplen con la especificación.
      */
-    List<ProductResponse> getBySpecification (String key, String value);
+    List<ProductResponse> getBySpecification (String key, String value, String fields);
+
+    /**
+     * Busca productos cuya especificación numérica esté dentro de un rango inclusivo (ej. RAM entre "16GB" y "64GB").
+     * Los límites se convierten a la misma unidad canónica que los valores guardados (GB, pulgadas, kg, GHz).
+     * @param key Nombre de la especificación (ej. "RAM", "Pantalla").
+     * @param min Límite inferior con unidad opcional (null sin límite).
+     * @param max Límite superior con unidad opcional (null sin límite).
+     * @param fields Campos de la respuesta separados por comas; null para todos.
+     * @return Lista de productos que cumplen con el rango.
+     */
+    List<ProductResponse> getBySpecificationRange (String key, String min, String max, String fields);
     
     /**
-     * Filtra productos cuyo precio se encuentre dentro de un rango inclusivo.
-     * @param min Precio mínimo.
-     * @param max Precio máximo.
-     * @return Lista de productos en el rango de precios.
+     * Filtra productos cuyo precio se encuentre dentro de un rango inclusivo, ordenados por precio
+     * y paginados por cursor. Se resuelve con el índice { price, _id, name }.
+     * @param min Precio mínimo (null sin límite).
+     * @param max Precio máximo (null sin límite).
+     * @param descending true para ordenar del más caro al más barato.
+     * @param cursor Token opaco devuelto por la página anterior, o null para empezar.
+     * @param size Tamaño de página; si es null se usa el configurado por defecto.
+     * @param fields Campos de la respuesta; con "name,price" la consulta queda cubierta por el índice.
+     * @return La página de productos y el cursor para pedir la siguiente.
+     */
+    ProductPageResponse getByPriceRange (Double min, Double max, boolean descending, String cursor, Integer size, String fields);
+
+    /**
+     * Cuenta los productos dentro de un rango de precios. Usa el índice en memoria si está activo.
+     * @param min Precio mínimo (null sin límite).
+     * @param max Precio máximo (null sin límite).
+     * @return La cantidad y el origen de la respuesta.
+     */
+    PriceCountResponse countByPriceRange (Double min, Double max);
+
+    /**
+     * Los N productos más baratos (o más caros) del rango, solo con id y precio.
+     * Usa el índice en memoria si está activo.
+     * @param min Precio mínimo (null sin límite).
+     * @param max Precio máximo (null sin límite).
+     * @param descending true para los más caros.
+     * @param size Cantidad de productos; si es null se usa el tamaño de página por defecto.
+     * @return Lista de productos ordenada por precio.
      */
-    List<ProductResponse> getByPriceRange (Double min,  Double max);
+    List<ProductResponse> getTopByPrice (Double min, Double max, boolean descending, Integer size);
 }
@@ -1,46 +1,116 @@
 package com.proyecto.vdrt.catalogo.service;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 
-import com.proyecto.vdrt.catalogo.exception.ProductAlreadyExistException;
+import com.proyecto.vdrt.catalogo.cache.CachedProduct;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.diagnostics.QueryOriginAspect;
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.event.ProductViewedEvent;
 import com.proyecto.vdrt.catalogo.exception.ProductNotFoundException;
+import com.proyecto.vdrt.catalogo.exception.ProductVersionConflictException;
+import com.proyecto.vdrt.catalogo.index.PriceIndex;
+import com.proyecto.vdrt.catalogo.index.TagExpression;
+import com.proyecto.vdrt.catalogo.index.TagIndex;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
 import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.mapper.RawProductJson;
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
 import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
 import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.RawProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+import com.proyecto.vdrt.catalogo.replica.CatalogSnapshot;
 import com.proyecto.vdrt.catalogo.repository.ProductRepository;
 
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(value = "catalogo.service", histogram = true)
 public class ProductServiceImp implements ProductService{
 
+    private static final String SEARCH_LANGUAGE = "spanish";
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final PriceIndex priceIndex;
+    private final TagIndex tagIndex;
+    private final CatalogReplica catalogReplica;
+    private final ReadRouting readRouting;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalogo.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${catalogo.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${catalogo.export.batch-size:1000}")
+    private int exportBatchSize;
 
+    @Value("${catalogo.serialization.raw-bson.enabled:false}")
+    private boolean rawSerialization;
 
-    public ProductServiceImp(ProductRepository productRepository, ProductMapper productMapper, MongoTemplate mongoTemplate) {
+
+    public ProductServiceImp(ProductRepository productRepository, ProductMapper productMapper, MongoTemplate mongoTemplate,
+            ProductCache productCache, PriceIndex priceIndex, TagIndex tagIndex, CatalogReplica catalogReplica,
+            ReadRouting readRouting, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.mongoTemplate = mongoTemplate;
+        this.productCache = productCache;
+        this.priceIndex = priceIndex;
+        this.tagIndex = tagIndex;
+        this.catalogReplica = catalogReplica;
+        this.readRouting = readRouting;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public ProductResponse save(ProductRequest product) {
-        if (productRepository.existsByName(product.getName())) {
-            throw new ProductAlreadyExistException();
-        }
+        // La unicidad del nombre la garantiza el índice único: si ya existe, MongoDB lanza
+        // DuplicateKeyException y GlobalExceptionHandler responde 409
         Product p = productMapper.toDocument(product);
 
         p = productRepository.save(p);
+        eventPublisher.publishEvent(ProductChangedEvent.created(p));
 
         ProductResponse responce = productMapper.toResponse(p);
 
@@ -48,86 +118,344 @@ public class ProductServiceImp implements ProductService{
     }
 
     @Override
-    public List<ProductResponse> getAll() {
-        return productRepository.findAll().stream()
-            .map(productMapper::toResponse)//(product ->productMapper.toResponse(product))
-            .collect(Collectors.toList());
+    public ProductPageResponse getPage(String cursor, Integer size, String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+
+        if (catalogReplica.isReady()) {
+            String afterId = (cursor != null && !cursor.isBlank()) ? PageCursor.decode(cursor).toHexString() : null;
+            return toPage(catalogReplica.snapshot().page(afterId, pageSize + 1), pageSize, projection,
+                    last -> PageCursor.encode(last.getId()));
+        }
+
+        // Keyset sobre _id: el índice del _id resuelve el rango sin saltar documentos (sin skip)
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(pageSize + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(PageCursor.decode(cursor)));
+        }
+        projection.project(query);
+
+        List<ProductResponse> content = mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> productMapper.toResponse(product, projection))
+                .collect(Collectors.toList());
+
+        // Pedimos un elemento de más solo para saber si existe una página siguiente
+        String nextCursor = null;
+        if (content.size() > pageSize) {
+            content = content.subList(0, pageSize);
+            nextCursor = PageCursor.encode(content.get(pageSize - 1).getId());
+        }
+        return new ProductPageResponse(content, nextCursor);
+    }
+
+    @Override
+    public Stream<ProductResponse> streamAll(String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        if (catalogReplica.isReady()) {
+            return catalogReplica.snapshot().all().map(product -> productMapper.toResponse(product, projection));
+        }
+        Query query = projection.project(new Query().with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(exportBatchSize));
+        // Los getMore ocurren mientras el controlador escribe la respuesta, después de que este método retornó
+        return QueryOriginAspect.propagate(mongoTemplate.stream(readRouting.forList(query), Product.class))
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public boolean usesRawSerialization() {
+        // Con la réplica lista los productos ya están en memoria y no hay documentos que leer de MongoDB
+        return rawSerialization && !catalogReplica.isReady();
+    }
+
+    @Override
+    public RawProductPageResponse getRawPage(String cursor, Integer size, String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+
+        // Mismo keyset sobre _id que getPage, con el driver: el template siempre decodifica a Document
+        Bson filter = (cursor != null && !cursor.isBlank()) ? Filters.gt("_id", PageCursor.decode(cursor)) : new Document();
+        List<RawBsonDocument> content = mongoTemplate.execute("products", collection -> rawProducts(collection)
+                .find(filter)
+                .projection(projection.rawProjection())
+                .sort(Sorts.ascending("_id"))
+                .limit(pageSize + 1)
+                .into(new ArrayList<>(pageSize + 1)));
+
+        String nextCursor = null;
+        if (content.size() > pageSize) {
+            content = content.subList(0, pageSize);
+            nextCursor = PageCursor.encode(RawProductJson.id(content.get(pageSize - 1)));
+        }
+        return new RawProductPageResponse(content, projection, nextCursor);
+    }
+
+    @Override
+    public Stream<RawBsonDocument> streamAllRaw(String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        MongoCursor<RawBsonDocument> cursor = rawProducts(mongoTemplate.getCollection("products"))
+                .find()
+                .projection(projection.rawProjection())
+                .sort(Sorts.ascending("_id"))
+                .batchSize(exportBatchSize)
+                .cursor();
+        Iterable<RawBsonDocument> documents = () -> cursor;
+        return QueryOriginAspect.propagate(StreamSupport.stream(documents.spliterator(), false).onClose(cursor::close));
+    }
+
+    // La colección de productos leída como RawBsonDocument (los bytes BSON sin decodificar) y con la preferencia de los listados
+    private MongoCollection<RawBsonDocument> rawProducts(MongoCollection<Document> collection) {
+        return readRouting.forList(collection.withDocumentClass(RawBsonDocument.class));
     }
 
     @Override
     public ProductResponse getById(String id) {
-        // 1. El repositorio busca y devuelve una "caja" (Optional)
-        Optional<Product> productOptional = productRepository.findById(id);
+        ProductResponse response = getCached(id).response();
+        // Popularidad para el autocompletado (solo lecturas de productos que existen)
+        eventPublisher.publishEvent(new ProductViewedEvent(id));
+        return response;
+    }
 
-        // 2. Usamos programación funcional para procesar el contenido
-        return productOptional
-                .map(productMapper::toResponse) // Si existe, lo convertimos a DTO //(product -> productMapper.toResponse(product))
-                .orElseThrow(() -> new ProductNotFoundException()); // Si está vacío, lanzamos error
+    @Override
+    public CachedProduct getCachedById(String id) {
+        CachedProduct cached = getCached(id);
+        eventPublisher.publishEvent(new ProductViewedEvent(id));
+        return cached;
+    }
+
+    // Lectura a través del caché: solo se consulta MongoDB si el producto no está en memoria
+    private CachedProduct getCached(String id) {
+        if (catalogReplica.isReady()) {
+            // La réplica ya está en memoria y al día con el change stream: no hace falta el caché
+            Product product = catalogReplica.snapshot().get(id);
+            if (product == null) {
+                throw new ProductNotFoundException();
+            }
+            return new CachedProduct(productMapper.toResponse(product), null);
+        }
+        CachedProduct cached = productCache.get(id, key -> {
+            // 1. El repositorio busca y devuelve una "caja" (Optional)
+            Optional<Product> productOptional = productRepository.findById(key);
+
+            // 2. Si existe, lo convertimos a DTO; si no, el caché no guarda nada
+            return productOptional.map(productMapper::toResponse).orElse(null);
+        });
+        if (cached == null) {
+            throw new ProductNotFoundException(); // Si está vacío, lanzamos error
+        }
+        return cached;
     }
 
     @Override
-    public List<ProductResponse> getPerWord(String word) {
-        return productRepository.findByNameOrDescriptionRegex(word).stream()
-            .map(productMapper::toResponse)
+    public List<ProductResponse> getPerWord(String word, int page, Integer size, String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+
+        // Siempre en MongoDB, también con la réplica: el stemming y el textScore de $text no se reproducen en memoria.
+        // $text usa el índice de texto: el costo depende de las coincidencias, no del tamaño de la colección
+        Query query = TextQuery.queryText(TextCriteria.forLanguage(SEARCH_LANGUAGE).matching(word))
+                .sortByScore()
+                .with(PageRequest.of(Math.max(page, 0), pageSize));
+        projection.project(query);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+            .map(product -> productMapper.toResponse(product, projection))
             .collect(Collectors.toList());
     }
 
     @Override
     public void delete(String id) {
         productRepository.deleteById(id);
+        productCache.invalidate(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Override
     public ProductResponse updateById(String id, ProductRequest product) {
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
-        
-        productMapper.updateProductFromRequest(product, existingProduct);
+        // Un solo findAndModify con $set de todos los campos: sin leer antes el documento
+        Product updated = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)),
+                productMapper.toUpdate(product), FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (updated == null) {
+            throw new ProductNotFoundException("Producto no encontrado con ID: " + id);
+        }
 
-        return productMapper.toResponse(productRepository.save(existingProduct));
+        productCache.invalidate(id);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+        return productMapper.toResponse(updated);
     }
 
     @Override
-    public List<ProductResponse> getByTag(String tag) {
-        return productRepository.findByTags(tag).stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public ProductResponse patchById(String id, ProductPatchRequest patch) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (patch.getVersion() != null) {
+            // Concurrencia optimista: solo se aplica si nadie modificó el producto desde que el cliente lo leyó
+            query.addCriteria(Criteria.where("version").is(patch.getVersion()));
+        }
+
+        Product updated = mongoTemplate.findAndModify(query, productMapper.toPatchUpdate(patch),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (updated == null) {
+            // Solo en el caso de error se consulta si el producto existe, para distinguir 404 de 409
+            if (patch.getVersion() != null && mongoTemplate.exists(new Query(Criteria.where("id").is(id)), Product.class)) {
+                throw new ProductVersionConflictException(patch.getVersion());
+            }
+            throw new ProductNotFoundException("Producto no encontrado con ID: " + id);
+        }
+
+        productCache.invalidate(id);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+        return productMapper.toResponse(updated);
     }
 
     @Override
-    public List<ProductResponse> getBySpecification(String key, String value) {
-        // Construimos una query dinámica: specifications.KEY = VALUE
-        // Usamos MongoTemplate porque el nombre del campo (key) es variable
-        
-        // Generamos un regex que permite espacios opcionales entre cada caracter
-        // Ejemplo: "16GB" se convierte en "\Q1\E\s*\Q6\E\s*\QG\E\s*\QB\E\s*"
-        String regexValue = value.replace(" ", "").chars()
-                .mapToObj(c -> Pattern.quote(String.valueOf((char) c)) + "\\s*")
-                .collect(Collectors.joining());
+    public List<ProductResponse> getByTag(String tag, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        if (catalogReplica.isReady()) {
+            return toResponses(catalogReplica.snapshot().byTag(tag), projection);
+        }
+        Query query = projection.project(new Query(Criteria.where("tags").is(tag)));
 
-        Query query = new Query(Criteria.where("specifications." + key.toLowerCase().replace(" ", "")).regex(regexValue, "i"));
-        
-        return mongoTemplate.find(query, Product.class).stream()
-                .map(productMapper::toResponse)
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> productMapper.toResponse(product, projection))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public TagQueryResponse getByTagExpression(String expr, int page, Integer size, String fields) {
+        TagExpression expression = TagExpression.parse(expr);
+        ProductFields projection = ProductFields.parse(fields);
+        int pageSize = resolvePageSize(size);
+        int offset = (int) Math.min((long) Math.max(page, 0) * pageSize, Integer.MAX_VALUE);
+
+        if (tagIndex.isReady()) {
+            // El índice resuelve la expresión, el conteo y la página (por _id, igual que en MongoDB); solo se leen sus documentos
+            TagIndex.TagMatch match = tagIndex.evaluate(expression, offset, pageSize);
+            return new TagQueryResponse(toResponses(findAllById(match.ids(), projection), projection), match.count(),
+                    page, "memory");
+        }
+        Criteria criteria = expression.toCriteria();
+        long count = mongoTemplate.count(readRouting.forList(new Query(criteria)), Product.class);
+        Query query = projection.project(new Query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).skip(offset).limit(pageSize));
+        return new TagQueryResponse(toResponses(mongoTemplate.find(readRouting.forList(query), Product.class), projection), count, page, "mongo");
+    }
+
     /*
-    Cuando MongoDB ejecuta la consulta findByPriceBetween(min, max), 
-    busca productos cuyo precio sea: Precio >= 1500 Y Precio <= 700.  
+    Productos por ID en el orden recibido: de la réplica si está lista, si no en una sola consulta al primario.
+    Los IDs vienen del índice local: un secundario atrasado podría no tener algunos y la página quedaría corta.
     */
+    private List<Product> findAllById(List<String> ids, ProductFields projection) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (catalogReplica.isReady()) {
+            CatalogSnapshot snapshot = catalogReplica.snapshot();
+            return ids.stream().map(snapshot::get).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+        Map<String, Product> byId = mongoTemplate.find(projection.project(new Query(Criteria.where("id").in(ids))), Product.class)
+                .stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Override
-    public List<ProductResponse> getByPriceRange(Double min, Double max) {
-        // Si el usuario envía el mínimo mayor que el máximo, los intercambiamos
-        if (min.compareTo(max) > 0) {
-            Double temp = min;
-            min = max;
-            max = temp;
+    public List<ProductResponse> getBySpecification(String key, String value, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        // Las especificaciones se guardan normalizadas en 'specs' ([{k, v, vNorm}]),
+        // así la búsqueda es una igualdad exacta resuelta por el índice { specs.k, specs.vNorm }.
+        // Ejemplo: llave "RAM" y valor "16 GB" buscan { k: "ram", vNorm: "16gb" }
+        if (catalogReplica.isReady()) {
+            return toResponses(catalogReplica.snapshot().bySpecification(SpecificationNormalizer.normalize(key),
+                    SpecificationNormalizer.normalize(value)), projection);
         }
-        
-        return productRepository.findByPriceBetween(min, max).stream()
-                .map(productMapper::toResponse)
+        Query query = new Query(Criteria.where("specs").elemMatch(
+                Criteria.where("k").is(SpecificationNormalizer.normalize(key))
+                        .and("vNorm").is(SpecificationNormalizer.normalize(value))));
+        projection.project(query);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> productMapper.toResponse(product, projection))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ProductResponse> getBySpecificationRange(String key, String min, String max, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        // Siempre en MongoDB (también con la réplica activa): el rango lo resuelve el índice { specs.k, specs.u, specs.n }
+        Query query = projection.project(new Query(SpecificationRangeQuery.criteria(key, min, max)));
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> productMapper.toResponse(product, projection))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ProductPageResponse getByPriceRange(Double min, Double max, boolean descending, String cursor, Integer size,
+            String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+
+        List<Product> products;
+        if (catalogReplica.isReady()) {
+            PageCursor.PriceKey after = (cursor != null && !cursor.isBlank()) ? PageCursor.decodePrice(cursor) : null;
+            products = catalogReplica.snapshot().priceRange(range.min(), range.max(), descending,
+                    after == null ? null : after.price(), after == null ? null : after.id().toHexString(), pageSize + 1);
+        } else {
+            products = mongoTemplate.find(readRouting.forList(PriceRangeQuery.page(range, descending ? Sort.Direction.DESC : Sort.Direction.ASC,
+                    cursor, pageSize, projection)), Product.class);
+        }
+        return toPage(products, pageSize, projection, last -> PageCursor.encodePrice(last.getPrice(), last.getId()));
+    }
+
+    @Override
+    public PriceCountResponse countByPriceRange(Double min, Double max) {
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+        if (catalogReplica.isReady()) {
+            return new PriceCountResponse(catalogReplica.snapshot().countPrice(range.min(), range.max()), "replica");
+        }
+        if (priceIndex.isReady()) {
+            return new PriceCountResponse(priceIndex.count(range.min(), range.max()), "memory");
+        }
+        return new PriceCountResponse(mongoTemplate.count(readRouting.forList(PriceRangeQuery.count(range)), Product.class), "mongo");
+    }
+
+    @Override
+    public List<ProductResponse> getTopByPrice(Double min, Double max, boolean descending, Integer size) {
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+        int limit = resolvePageSize(size);
+        if (catalogReplica.isReady()) {
+            return catalogReplica.snapshot().priceRange(range.min(), range.max(), descending, null, null, limit).stream()
+                    .map(product -> productMapper.toPriceResponse(product.getId(), product.getPrice()))
+                    .collect(Collectors.toList());
+        }
+        if (priceIndex.isReady()) {
+            return priceIndex.top(range.min(), range.max(), limit, !descending).stream()
+                    .map(point -> productMapper.toPriceResponse(point.id(), point.price()))
+                    .collect(Collectors.toList());
+        }
+        Query query = PriceRangeQuery.top(range, descending ? Sort.Direction.DESC : Sort.Direction.ASC, limit);
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> productMapper.toPriceResponse(product.getId(), product.getPrice()))
+                .collect(Collectors.toList());
+    }
+
+    private List<ProductResponse> toResponses(List<Product> products, ProductFields projection) {
+        return products.stream()
+                .map(product -> productMapper.toResponse(product, projection))
+                .collect(Collectors.toList());
+    }
+
+    // Se pidió un elemento de más: si llegó, hay página siguiente y el cursor apunta al último entregado
+    private ProductPageResponse toPage(List<Product> products, int pageSize, ProductFields projection,
+            Function<Product, String> cursorOf) {
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            nextCursor = cursorOf.apply(products.get(pageSize - 1));
+        }
+        return new ProductPageResponse(toResponses(products, projection), nextCursor);
+    }
+
+    // Tamaño de página solicitado, acotado al máximo configurado
+    private int resolvePageSize(Integer size) {
+        return (size == null || size < 1) ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
 }
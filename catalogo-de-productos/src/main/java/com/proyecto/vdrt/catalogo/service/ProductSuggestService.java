@@ -0,0 +1,20 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.List;
+
+import com.proyecto.vdrt.catalogo.model.dto.SuggestionResponse;
+
+/**
+ * Autocompletado de la caja de búsqueda a partir de nombres de producto y etiquetas.
+ */
+public interface ProductSuggestService {
+
+    /**
+     * Sugerencias para el texto escrito hasta ahora.
+     * @param prefix Prefijo de un nombre, de una palabra del nombre o de una etiqueta (sin distinguir mayúsculas ni acentos).
+     * @param size Cantidad máxima de sugerencias; null para el valor por defecto.
+     * @return Sugerencias de la más a la menos popular.
+     */
+    List<SuggestionResponse> suggest (String prefix, Integer size);
+}
@@ -0,0 +1,84 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.index.SuggestIndex;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.SuggestionResponse;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+@Timed(value = "catalogo.service", histogram = true)
+public class ProductSuggestServiceImp implements ProductSuggestService {
+
+    private final SuggestIndex suggestIndex;
+    private final CatalogReplica catalogReplica;
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+
+    @Value("${catalogo.suggest.default-size:10}")
+    private int defaultSize;
+
+    @Value("${catalogo.suggest.max-size:50}")
+    private int maxSize;
+
+    // Prefijos más cortos no se consultan en MongoDB: coincidirían con gran parte del catálogo
+    @Value("${catalogo.suggest.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    @Value("${catalogo.products.name-case-insensitive:true}")
+    private boolean nameCaseInsensitive;
+
+    public ProductSuggestServiceImp(SuggestIndex suggestIndex, CatalogReplica catalogReplica, MongoTemplate mongoTemplate,
+            ReadRouting readRouting) {
+        this.suggestIndex = suggestIndex;
+        this.catalogReplica = catalogReplica;
+        this.mongoTemplate = mongoTemplate;
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, Integer size) {
+        int limit = (size == null || size < 1) ? defaultSize : Math.min(size, maxSize);
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit).stream()
+                    .map(s -> new SuggestionResponse(s.text(), s.type(), s.id(), s.weight()))
+                    .collect(Collectors.toList());
+        }
+
+        // Sin el índice solo se sugieren nombres que empiezan con el prefijo, en orden alfabético
+        String trimmed = prefix == null ? "" : prefix.strip();
+        if (trimmed.length() < minPrefixLength) {
+            return List.of();
+        }
+        if (catalogReplica.isReady()) {
+            return catalogReplica.snapshot().byNamePrefix(trimmed, limit).stream()
+                    .map(product -> new SuggestionResponse(product.getName(), SuggestIndex.PRODUCT, product.getId(), 0))
+                    .collect(Collectors.toList());
+        }
+        // Rango [prefijo, prefijo + U+FFFF) con la misma collation que el índice único de 'name': lo recorre
+        // solo desde el prefijo y sin distinguir mayúsculas (una regex no podría usar un índice con collation)
+        Query query = new Query(Criteria.where("name").gte(trimmed).lt(trimmed + '\uffff'))
+                .with(Sort.by(Sort.Direction.ASC, "name")).limit(limit);
+        if (nameCaseInsensitive) {
+            query.collation(Collation.of("es").strength(Collation.ComparisonLevel.secondary()));
+        }
+        query.fields().include("name");
+        return mongoTemplate.find(readRouting.forList(query), Product.class).stream()
+                .map(product -> new SuggestionResponse(product.getName(), SuggestIndex.PRODUCT, product.getId(), 0))
+                .collect(Collectors.toList());
+    }
+}
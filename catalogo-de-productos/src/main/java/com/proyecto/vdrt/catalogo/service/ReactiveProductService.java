@@ -0,0 +1,62 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reactiva de ProductService (perfil 'reactive').
+ * Los listados se emiten como Flux: no se materializan en memoria y ningún hilo queda bloqueado esperando a MongoDB.
+ * Igual que en ProductService, el parámetro 'fields' limita los campos leídos y devueltos (null para todos).
+ */
+public interface ReactiveProductService {
+
+    Mono<ProductResponse> save (ProductRequest product);
+
+    /**
+     * Obtiene una página de productos ordenada por _id (paginación por cursor).
+     */
+    Mono<ProductPageResponse> getPage (String cursor, Integer size, String fields);
+
+    /**
+     * Emite todo el catálogo en orden de _id directamente desde el cursor de MongoDB.
+     */
+    Flux<ProductResponse> streamAll (String fields);
+
+    Mono<ProductResponse> getById (String id);
+
+    /**
+     * Búsqueda de texto completo ordenada por relevancia.
+     */
+    Flux<ProductResponse> getPerWord (String word, int page, Integer size, String fields);
+
+    Mono<Void> delete (String id);
+
+    Mono<ProductResponse> updateById (String id, ProductRequest product);
+
+    Mono<ProductResponse> patchById (String id, ProductPatchRequest patch);
+
+    Flux<ProductResponse> getByTag (String tag, String fields);
+
+    Mono<TagQueryResponse> getByTagExpression (String expr, int page, Integer size, String fields);
+
+    Flux<ProductResponse> getBySpecification (String key, String value, String fields);
+
+    Flux<ProductResponse> getBySpecificationRange (String key, String min, String max, String fields);
+
+    /**
+     * Página de productos del rango de precios ordenada por precio (paginación por cursor).
+     */
+    Mono<ProductPageResponse> getByPriceRange (Double min, Double max, boolean descending, String cursor, Integer size, String fields);
+
+    Mono<PriceCountResponse> countByPriceRange (Double min, Double max);
+
+    Flux<ProductResponse> getTopByPrice (Double min, Double max, boolean descending, Integer size);
+}
@@ -0,0 +1,301 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.vdrt.catalogo.cache.CachedProduct;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.event.ProductViewedEvent;
+import com.proyecto.vdrt.catalogo.exception.ProductNotFoundException;
+import com.proyecto.vdrt.catalogo.exception.ProductVersionConflictException;
+import com.proyecto.vdrt.catalogo.index.PriceIndex;
+import com.proyecto.vdrt.catalogo.index.TagExpression;
+import com.proyecto.vdrt.catalogo.index.TagIndex;
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.PriceCountResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
+import com.proyecto.vdrt.catalogo.repository.ReactiveProductRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación reactiva del catálogo. Construye las mismas consultas que ProductServiceImp
+ * pero sobre el driver reactivo, así ambos modos devuelven exactamente los mismos resultados; los listados
+ * también usan la preferencia de lectura de ReadRouting y la lectura por ID, el primario.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductServiceImp implements ReactiveProductService {
+
+    private static final String SEARCH_LANGUAGE = "spanish";
+
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final PriceIndex priceIndex;
+    private final TagIndex tagIndex;
+    private final ReadRouting readRouting;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalogo.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${catalogo.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${catalogo.export.batch-size:1000}")
+    private int exportBatchSize;
+
+    public ReactiveProductServiceImp(ReactiveProductRepository productRepository, ReactiveMongoTemplate mongoTemplate,
+            ProductMapper productMapper, ProductCache productCache, PriceIndex priceIndex, TagIndex tagIndex,
+            ReadRouting readRouting, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.priceIndex = priceIndex;
+        this.tagIndex = tagIndex;
+        this.readRouting = readRouting;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Mono<ProductResponse> save(ProductRequest product) {
+        // Igual que en el modo servlet, el índice único de 'name' rechaza los duplicados (409)
+        return productRepository.save(productMapper.toDocument(product))
+                .doOnNext(saved -> eventPublisher.publishEvent(ProductChangedEvent.created(saved)))
+                .map(productMapper::toResponse);
+    }
+
+    @Override
+    public Mono<ProductPageResponse> getPage(String cursor, Integer size, String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(pageSize + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(PageCursor.decode(cursor)));
+        }
+        projection.project(query);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection))
+                .collectList()
+                .map(content -> {
+                    if (content.size() <= pageSize) {
+                        return new ProductPageResponse(content, null);
+                    }
+                    content = content.subList(0, pageSize);
+                    return new ProductPageResponse(content, PageCursor.encode(content.get(pageSize - 1).getId()));
+                });
+    }
+
+    @Override
+    public Flux<ProductResponse> streamAll(String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = projection.project(new Query().with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(exportBatchSize));
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public Mono<ProductResponse> getById(String id) {
+        // El futuro es compartido por las lecturas concurrentes del mismo ID: cancelar esta suscripción no lo cancela
+        return Mono.fromFuture(() -> productCache.getAsync(id,
+                        key -> productRepository.findById(key).map(productMapper::toResponse).toFuture()), true)
+                .map(CachedProduct::response)
+                // Popularidad para el autocompletado, como en el modo servlet (solo lecturas de productos que existen)
+                .doOnNext(response -> eventPublisher.publishEvent(new ProductViewedEvent(id)))
+                .switchIfEmpty(Mono.error(ProductNotFoundException::new));
+    }
+
+    @Override
+    public Flux<ProductResponse> getPerWord(String word, int page, Integer size, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = TextQuery.queryText(TextCriteria.forLanguage(SEARCH_LANGUAGE).matching(word))
+                .sortByScore()
+                .with(PageRequest.of(Math.max(page, 0), resolvePageSize(size)));
+        projection.project(query);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        return productRepository.deleteById(id)
+                .doOnSuccess(ignored -> {
+                    productCache.invalidate(id);
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+                });
+    }
+
+    @Override
+    public Mono<ProductResponse> updateById(String id, ProductRequest product) {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)), productMapper.toUpdate(product),
+                        FindAndModifyOptions.options().returnNew(true), Product.class)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id)))
+                .doOnNext(updated -> {
+                    productCache.invalidate(id);
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+                })
+                .map(productMapper::toResponse);
+    }
+
+    @Override
+    public Mono<ProductResponse> patchById(String id, ProductPatchRequest patch) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (patch.getVersion() != null) {
+            query.addCriteria(Criteria.where("version").is(patch.getVersion()));
+        }
+
+        return mongoTemplate.findAndModify(query, productMapper.toPatchUpdate(patch),
+                        FindAndModifyOptions.options().returnNew(true), Product.class)
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, patch.getVersion())))
+                .doOnNext(updated -> {
+                    productCache.invalidate(id);
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+                })
+                .map(productMapper::toResponse);
+    }
+
+    @Override
+    public Flux<ProductResponse> getByTag(String tag, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = projection.project(new Query(Criteria.where("tags").is(tag)));
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public Mono<TagQueryResponse> getByTagExpression(String expr, int page, Integer size, String fields) {
+        TagExpression expression = TagExpression.parse(expr);
+        ProductFields projection = ProductFields.parse(fields);
+        int pageSize = resolvePageSize(size);
+        int offset = (int) Math.min((long) Math.max(page, 0) * pageSize, Integer.MAX_VALUE);
+
+        if (tagIndex.isReady()) {
+            TagIndex.TagMatch match = tagIndex.evaluate(expression, offset, pageSize);
+            if (match.ids().isEmpty()) {
+                return Mono.just(new TagQueryResponse(List.of(), match.count(), page, "memory"));
+            }
+            // Una sola consulta al primario por los IDs de la página (un secundario atrasado podría no tenerlos), en el orden del índice
+            return mongoTemplate.find(projection.project(new Query(Criteria.where("id").in(match.ids()))), Product.class)
+                    .collectMap(Product::getId)
+                    .map(byId -> new TagQueryResponse(match.ids().stream().map(byId::get).filter(Objects::nonNull)
+                            .map(product -> productMapper.toResponse(product, projection)).toList(), match.count(), page, "memory"));
+        }
+        Criteria criteria = expression.toCriteria();
+        Query query = projection.project(new Query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).skip(offset).limit(pageSize));
+        return Mono.zip(mongoTemplate.count(readRouting.forList(new Query(criteria)), Product.class),
+                mongoTemplate.find(readRouting.forList(query), Product.class).map(product -> productMapper.toResponse(product, projection)).collectList())
+                .map(result -> new TagQueryResponse(result.getT2(), result.getT1(), page, "mongo"));
+    }
+
+    @Override
+    public Flux<ProductResponse> getBySpecification(String key, String value, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = new Query(Criteria.where("specs").elemMatch(
+                Criteria.where("k").is(SpecificationNormalizer.normalize(key))
+                        .and("vNorm").is(SpecificationNormalizer.normalize(value))));
+        projection.project(query);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public Flux<ProductResponse> getBySpecificationRange(String key, String min, String max, String fields) {
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = projection.project(new Query(SpecificationRangeQuery.criteria(key, min, max)));
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toResponse(product, projection));
+    }
+
+    @Override
+    public Mono<ProductPageResponse> getByPriceRange(Double min, Double max, boolean descending, String cursor, Integer size,
+            String fields) {
+        int pageSize = resolvePageSize(size);
+        ProductFields projection = ProductFields.parse(fields);
+        Query query = PriceRangeQuery.page(PriceRangeQuery.Range.of(min, max),
+                descending ? Sort.Direction.DESC : Sort.Direction.ASC, cursor, pageSize, projection);
+
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .collectList()
+                .map(products -> {
+                    if (products.size() <= pageSize) {
+                        return new ProductPageResponse(products.stream().map(product -> productMapper.toResponse(product, projection)).toList(), null);
+                    }
+                    products = products.subList(0, pageSize);
+                    Product last = products.get(pageSize - 1);
+                    return new ProductPageResponse(products.stream().map(product -> productMapper.toResponse(product, projection)).toList(),
+                            PageCursor.encodePrice(last.getPrice(), last.getId()));
+                });
+    }
+
+    @Override
+    public Mono<PriceCountResponse> countByPriceRange(Double min, Double max) {
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+        if (priceIndex.isReady()) {
+            return Mono.just(new PriceCountResponse(priceIndex.count(range.min(), range.max()), "memory"));
+        }
+        return mongoTemplate.count(readRouting.forList(PriceRangeQuery.count(range)), Product.class)
+                .map(count -> new PriceCountResponse(count, "mongo"));
+    }
+
+    @Override
+    public Flux<ProductResponse> getTopByPrice(Double min, Double max, boolean descending, Integer size) {
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(min, max);
+        int limit = resolvePageSize(size);
+        if (priceIndex.isReady()) {
+            return Flux.fromIterable(priceIndex.top(range.min(), range.max(), limit, !descending))
+                    .map(point -> productMapper.toPriceResponse(point.id(), point.price()));
+        }
+        Query query = PriceRangeQuery.top(range, descending ? Sort.Direction.DESC : Sort.Direction.ASC, limit);
+        return mongoTemplate.find(readRouting.forList(query), Product.class)
+                .map(product -> productMapper.toPriceResponse(product.getId(), product.getPrice()));
+    }
+
+    // Distingue entre producto inexistente (404) y versión desactualizada (409)
+    private Mono<Product> notUpdated(String id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new ProductNotFoundException("Producto no encontrado con ID: " + id));
+        }
+        return mongoTemplate.exists(new Query(Criteria.where("id").is(id)), Product.class)
+                .flatMap(exists -> Mono.error(exists
+                        ? new ProductVersionConflictException(expectedVersion)
+                        : new ProductNotFoundException("Producto no encontrado con ID: " + id)));
+    }
+
+    // Tamaño de página solicitado, acotado al máximo configurado
+    private int resolvePageSize(Integer size) {
+        return (size == null || size < 1) ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+}
@@ -0,0 +1,70 @@
+package com.proyecto.vdrt.catalogo.service;
+
+
+import java.util.Objects;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer;
+
+/**
+ * Construye la condición de las búsquedas por rango sobre especificaciones que comparten el modo servlet y el reactivo.
+ * Los límites se interpretan igual que los valores al guardarlos ("16GB", "15,6 pulgadas") y se comparan contra
+ * el número canónico specs.n con el índice { specs.k, specs.u, specs.n }.
+ */
+final class SpecificationRangeQuery {
+
+    private SpecificationRangeQuery() {
+    }
+
+    /**
+     * $elemMatch sobre 'specs': la clave, la unidad (si algún límite la indica) y el rango deben cumplirse en la
+     * misma especificación. Un límite sin unidad toma la del otro; si ninguno la tiene se compara solo el número.
+     * @throws InvalidQueryException si no hay límites, si uno no es numérico o si las unidades no son compatibles.
+     */
+    static Criteria criteria(String key, String min, String max) {
+        SpecificationNormalizer.Measure low = bound("mallorigal", min);
+        SpecificationNormalizer.Measure high = bound("menorigual", max);
+        if (low == null && high == null) {
+            throw new InvalidQueryException("Indique 'valor' o al menos un límite 'mallorigal' / 'menorigual'");
+        }
+        String lowUnit = low != null ? low.unit() : null;
+        String highUnit = high != null ? high.unit() : null;
+        if (lowUnit != null && highUnit != null && !lowUnit.equals(highUnit)) {
+            throw new InvalidQueryException("Los límites usan unidades que no se pueden comparar: " + min + " y " + max);
+        }
+
+        // Igual que en el rango de precios, si el mínimo es mayor que el máximo se intercambian
+        if (low != null && high != null && low.value() > high.value()) {
+            SpecificationNormalizer.Measure swap = low;
+            low = high;
+            high = swap;
+        }
+
+        Criteria element = Criteria.where("k").is(SpecificationNormalizer.normalize(key));
+        String unit = Objects.requireNonNullElse(lowUnit, highUnit);
+        if (unit != null) {
+            element.and("u").is(unit);
+        }
+        Criteria number = element.and("n");
+        if (low != null) {
+            number.gte(low.value());
+        }
+        if (high != null) {
+            number.lte(high.value());
+        }
+        return Criteria.where("specs").elemMatch(element);
+    }
+
+    private static SpecificationNormalizer.Measure bound(String name, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        SpecificationNormalizer.Measure measure = SpecificationNormalizer.measure(text);
+        if (measure == null) {
+            throw new InvalidQueryException("'" + name + "' debe ser un número con unidad opcional (ej. 16GB): " + text);
+        }
+        return measure;
+    }
+}
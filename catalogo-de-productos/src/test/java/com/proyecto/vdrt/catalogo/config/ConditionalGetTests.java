@@ -0,0 +1,109 @@
+package com.proyecto.vdrt.catalogo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.replica.CatalogReplica;
+import com.proyecto.vdrt.catalogo.service.ProductService;
+
+/**
+ * GET condicional de los listados con resultados cacheados: después de una escritura, la respuesta con el ETag
+ * nuevo debe traer los conteos nuevos, y el ETag anterior ya no debe responder 304.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "catalogo.replica.enabled=true",
+        "catalogo.replica.snapshot-file=",
+        "catalogo.indexes.mode=none"
+})
+class ConditionalGetTests {
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "catalogo-conditional-test");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogReplica catalogReplica;
+
+    @Test
+    void facetsAfterAWriteAreNotServedWithTheNewETag() throws Exception {
+        await().atMost(Duration.ofSeconds(30)).until(catalogReplica::isReady);
+        productService.save(request("Teclado etag-1"));
+
+        MvcResult before = mockMvc.perform(get("/products/facets").param("tag", "etag-facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andReturn();
+        String oldETag = before.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(oldETag).isNotNull();
+
+        productService.save(request("Mouse etag-2"));
+
+        // Con el ETag anterior: la versión avanzó, no puede haber 304
+        mockMvc.perform(get("/products/facets").param("tag", "etag-facets").header(HttpHeaders.IF_NONE_MATCH, oldETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+
+        // Sin ETag: el primer cálculo después de la escritura no reutiliza el conteo anterior del caché
+        MvcResult after = mockMvc.perform(get("/products/facets").param("tag", "etag-facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andReturn();
+        String newETag = after.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(oldETag);
+
+        // El 304 con el ETag nuevo confirma conteos que ya incluyen la escritura
+        MvcResult revalidated = mockMvc.perform(get("/products/facets").param("tag", "etag-facets")
+                        .header(HttpHeaders.IF_NONE_MATCH, newETag))
+                .andReturn();
+        if (revalidated.getResponse().getStatus() == 200) {
+            // La réplica aplicó el cambio entre las dos peticiones y la versión volvió a avanzar
+            assertThat(revalidated.getResponse().getContentAsString()).contains("\"total\":2");
+        } else {
+            assertThat(revalidated.getResponse().getStatus()).isEqualTo(304);
+        }
+    }
+
+    private static ProductRequest request(String name) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setPrice(10.0);
+        request.setGeneralDescription("Producto de prueba");
+        request.setSpecifications(Map.of("color", "negro"));
+        request.setTags(List.of("etag-facets"));
+        return request;
+    }
+}
@@ -0,0 +1,42 @@
+package com.proyecto.vdrt.catalogo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+
+import com.proyecto.vdrt.catalogo.exception.ProductAlreadyExistException;
+
+/**
+ * Un DuplicateKeyException solo se responde como nombre repetido si lo rechazó el índice único de 'name'.
+ */
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void theNameIndexMeansTheNameAlreadyExists() {
+        var response = handler.handleDuplicateKeyException(duplicateKey(ProductIndexRegistry.NAME_INDEX_NAME, "{ name: \"Laptop\" }"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).containsEntry("message", new ProductAlreadyExistException().getMessage());
+    }
+
+    @Test
+    void otherIndexesAreAGenericConflict() {
+        // Un índice con un nombre que empieza igual tampoco es el de 'name'
+        for (String index : new String[] { "_id_", "products_sku_unique", ProductIndexRegistry.NAME_INDEX_NAME + "_v2" }) {
+            var response = handler.handleDuplicateKeyException(duplicateKey(index, "{ _id: \"1\" }"));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).containsEntry("error", "Conflicto: clave duplicada")
+                    .doesNotContainEntry("message", new ProductAlreadyExistException().getMessage());
+        }
+    }
+
+    private static DuplicateKeyException duplicateKey(String index, String key) {
+        return new DuplicateKeyException("Write operation error on server localhost:27017. Write error: WriteError{code=11000,"
+                + " message='E11000 duplicate key error collection: catalogo.products index: " + index + " dup key: " + key + "'}");
+    }
+}
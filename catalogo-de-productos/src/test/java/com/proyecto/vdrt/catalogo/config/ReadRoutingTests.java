@@ -0,0 +1,155 @@
+package com.proyecto.vdrt.catalogo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.proyecto.vdrt.catalogo.model.dto.ProductRequest;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.service.ProductFacetService;
+import com.proyecto.vdrt.catalogo.service.ProductService;
+
+/**
+ * Verifica con los comandos que realmente llegan a MongoDB que los listados viajan con secondaryPreferred y
+ * maxStalenessSeconds (también las facetas, que son una agregación), mientras que las escrituras y la lectura por ID se quedan en el primario.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "catalogo.mongo.reads.lists=secondaryPreferred",
+        "catalogo.mongo.reads.max-staleness=90s",
+        "catalogo.indexes.mode=none"
+})
+class ReadRoutingTests {
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "catalogo-routing-test");
+    }
+
+    @TestConfiguration
+    static class CommandCapture {
+
+        @Bean
+        CapturedCommands capturedCommands() {
+            return new CapturedCommands();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureCommands(CapturedCommands commands) {
+            return builder -> builder.addCommandListener(commands);
+        }
+    }
+
+    // Los comandos sobre products, en el orden en que se enviaron
+    static class CapturedCommands implements CommandListener {
+
+        private final List<CommandStartedEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (event.getCommand().containsKey(event.getCommandName())
+                    && event.getCommand().get(event.getCommandName()).equals(new BsonString("products"))) {
+                events.add(event);
+            }
+        }
+
+        List<BsonDocument> named(String commandName) {
+            return events.stream()
+                    .filter(event -> event.getCommandName().equals(commandName))
+                    .map(CommandStartedEvent::getCommand)
+                    .toList();
+        }
+
+        void clear() {
+            events.clear();
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private CapturedCommands commands;
+
+    @BeforeEach
+    void clearCommands() {
+        commands.clear();
+    }
+
+    @Test
+    void listsReadFromSecondariesWithMaxStaleness() {
+        productService.save(request("Teclado routing-list"));
+        commands.clear();
+
+        productService.getPage(null, 10, null);
+        productService.getRawPage(null, 10, null);
+        productFacetService.getFacets(null, "demo", null, null, null, null);
+
+        List<BsonDocument> finds = commands.named("find");
+        assertThat(finds).hasSize(2);
+        finds.forEach(ReadRoutingTests::assertSecondaryPreferred);
+        assertThat(commands.named("aggregate")).singleElement().satisfies(ReadRoutingTests::assertSecondaryPreferred);
+    }
+
+    @Test
+    void writesAndReadsByIdStayOnThePrimary() {
+        ProductResponse saved = productService.save(request("Mouse routing-id"));
+        productService.getById(saved.getId());
+
+        assertThat(commands.named("insert")).singleElement().satisfies(ReadRoutingTests::assertPrimary);
+        assertThat(commands.named("find")).singleElement().satisfies(ReadRoutingTests::assertPrimary);
+    }
+
+    private static void assertSecondaryPreferred(BsonDocument command) {
+        BsonDocument readPreference = command.getDocument("$readPreference");
+        assertThat(readPreference.getString("mode").getValue()).isEqualTo("secondaryPreferred");
+        assertThat(readPreference.getNumber("maxStalenessSeconds").longValue()).isEqualTo(90);
+    }
+
+    /*
+    Sin $readPreference el comando va al primario. Con una conexión directa a un miembro del replica set
+    (la URL del contenedor) el driver envía primaryPreferred para las lecturas que piden el primario.
+    */
+    private static void assertPrimary(BsonDocument command) {
+        if (command.containsKey("$readPreference")) {
+            assertThat(command.getDocument("$readPreference").getString("mode").getValue())
+                    .isIn("primary", "primaryPreferred");
+        }
+    }
+
+    private static ProductRequest request(String name) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setPrice(10.0);
+        request.setGeneralDescription("Producto de prueba");
+        request.setSpecifications(Map.of("color", "negro"));
+        request.setTags(List.of("demo"));
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.proyecto.vdrt.catalogo.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.proyecto.vdrt.catalogo.cache.FacetCache;
+import com.proyecto.vdrt.catalogo.model.dto.FacetResponse;
+
+/**
+ * El origen de las consultas debe llegar a los hilos donde corren las cargas de los cachés,
+ * las tareas encoladas y los streams que se consumen después de que el servicio retornó.
+ */
+class QueryOriginAspectTests {
+
+    private static final String ORIGIN = "ProductFacetServiceImp.getFacets";
+
+    @Test
+    void cacheLoadsKeepTheOrigin() {
+        FacetCache cache = new FacetCache(10, Duration.ofSeconds(30));
+        AtomicReference<String> origin = new AtomicReference<>();
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        QueryOriginAspect.withOrigin(ORIGIN, () -> cache.get("clave", key -> {
+            origin.set(QueryOriginAspect.current());
+            thread.set(Thread.currentThread());
+            return new FacetResponse(0, List.of(), Map.of(), List.of());
+        }));
+
+        assertThat(thread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(origin.get()).isEqualTo(ORIGIN);
+    }
+
+    @Test
+    void tasksRunWithTheOriginOfTheirCreator() throws Exception {
+        AtomicReference<String> origin = new AtomicReference<>();
+        Runnable task = QueryOriginAspect.withOrigin(ORIGIN,
+                () -> QueryOriginAspect.propagate(() -> origin.set(QueryOriginAspect.current())));
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(task).get();
+            // El hilo del executor no conserva el origen después de la tarea
+            assertThat(executor.submit(QueryOriginAspect::current).get()).isNull();
+        }
+        assertThat(origin.get()).isEqualTo(ORIGIN);
+    }
+
+    @Test
+    void streamsAdvanceWithTheOriginOfTheirCreator() throws Exception {
+        Stream<String> stream = QueryOriginAspect.withOrigin(ORIGIN,
+                () -> QueryOriginAspect.propagate(Stream.of(1, 2, 3).map(i -> QueryOriginAspect.current())));
+        assertThat(QueryOriginAspect.current()).isNull();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            assertThat(executor.submit(() -> stream.toList()).get()).containsExactly(ORIGIN, ORIGIN, ORIGIN);
+        }
+    }
+
+    @Test
+    void withoutOriginNothingIsWrapped() {
+        Runnable task = () -> {
+        };
+        Stream<String> stream = Stream.of("a");
+
+        assertThat(QueryOriginAspect.propagate(task)).isSameAs(task);
+        assertThat(QueryOriginAspect.propagate(stream)).isSameAs(stream);
+    }
+
+    @Test
+    void theOuterOriginIsRestored() {
+        String inner = QueryOriginAspect.withOrigin("Externo.metodo",
+                () -> QueryOriginAspect.withOrigin(ORIGIN, QueryOriginAspect::current));
+
+        assertThat(inner).isEqualTo(ORIGIN);
+        assertThat(QueryOriginAspect.current()).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.proyecto.vdrt.catalogo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * PriceIndex contra un modelo de fuerza bruta (un mapa id -> precio): conteos y top N por rango después de
+ * altas, cambios de precio y bajas, con compactaciones frecuentes (umbral chico) o sin ninguna (muchos obsoletos).
+ */
+class PriceIndexTests {
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 64, 1_000_000})
+    void matchesABruteForceModel(int deltaThreshold) {
+        Random random = new Random(deltaThreshold);
+        Map<String, Double> model = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            model.put("p" + i, price(random));
+        }
+        PriceIndex index = load(model, deltaThreshold);
+        assertMatches(index, model, random);
+
+        for (int operation = 0; operation < 5_000; operation++) {
+            String id = "p" + random.nextInt(800);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                model.remove(id);
+            } else {
+                double price = price(random);
+                index.put(id, price);
+                model.put(id, price);
+            }
+            if (operation % 25 == 0) {
+                assertMatches(index, model, random);
+            }
+        }
+        assertMatches(index, model, random);
+    }
+
+    @Test
+    void writesDuringTheLoadWinOverTheLoadedPrice() {
+        MongoTemplate template = template(Map.of("a", 10.0, "b", 20.0, "c", 30.0));
+        PriceIndex index = new PriceIndex(template, new ProductOrdinals());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "deltaThreshold", 4);
+
+        // Llegan antes de que termine la carga, que todavía lee los valores anteriores
+        index.put("a", 99.0);
+        index.remove("b");
+        index.rebuild();
+
+        assertThat(index.count(0, 100)).isEqualTo(2);
+        assertThat(index.count(10, 10)).isZero();
+        assertThat(index.top(0, 100, 10, true)).extracting(PriceIndex.PricePoint::id).containsExactly("c", "a");
+    }
+
+    @Test
+    void emptyAndInvertedRanges() {
+        PriceIndex index = load(Map.of("a", 10.0, "b", 20.0), 4);
+
+        assertThat(index.count(30, 10)).isZero();
+        assertThat(index.count(11, 19)).isZero();
+        assertThat(index.count(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)).isEqualTo(2);
+        assertThat(index.top(30, 10, 5, true)).isEmpty();
+    }
+
+    private static void assertMatches(PriceIndex index, Map<String, Double> model, Random random) {
+        for (int i = 0; i < 20; i++) {
+            double a = price(random);
+            double b = price(random);
+            double min = Math.min(a, b);
+            double max = Math.max(a, b);
+            List<Double> expected = model.values().stream().filter(p -> p >= min && p <= max).sorted().toList();
+
+            assertThat(index.count(min, max)).as("count(%s, %s)", min, max).isEqualTo(expected.size());
+
+            int limit = 1 + random.nextInt(30);
+            List<PriceIndex.PricePoint> cheapest = index.top(min, max, limit, true);
+            List<PriceIndex.PricePoint> dearest = index.top(min, max, limit, false);
+            assertThat(cheapest).extracting(PriceIndex.PricePoint::price)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(limit, expected.size())));
+            assertThat(dearest).extracting(PriceIndex.PricePoint::price)
+                    .containsExactlyElementsOf(expected.reversed().subList(0, Math.min(limit, expected.size())));
+            // Cada punto es un producto existente con su precio actual, sin repetidos
+            for (List<PriceIndex.PricePoint> points : List.of(cheapest, dearest)) {
+                assertThat(points).allSatisfy(point -> assertThat(model.get(point.id())).isEqualTo(point.price()));
+                assertThat(points).extracting(PriceIndex.PricePoint::id).doesNotHaveDuplicates();
+            }
+        }
+    }
+
+    // Precios con muchos empates, para ejercitar los límites inclusivos del rango
+    private static double price(Random random) {
+        return random.nextInt(200) / 2.0;
+    }
+
+    private static PriceIndex load(Map<String, Double> prices, int deltaThreshold) {
+        PriceIndex index = new PriceIndex(template(prices), new ProductOrdinals());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "deltaThreshold", deltaThreshold);
+        index.rebuild();
+        return index;
+    }
+
+    // La carga recibe los documentos como los devuelve el índice { price, _id }: ordenados por precio
+    private static MongoTemplate template(Map<String, Double> prices) {
+        List<Document> documents = new ArrayList<>();
+        prices.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> documents.add(new Document("_id", entry.getKey()).append("price", entry.getValue())));
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.estimatedCount(Product.class)).thenReturn((long) documents.size());
+        when(template.stream(any(Query.class), eq(Document.class), eq("products"))).thenAnswer(invocation -> documents.stream());
+        return template;
+    }
+}
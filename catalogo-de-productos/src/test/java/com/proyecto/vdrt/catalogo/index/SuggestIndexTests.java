@@ -0,0 +1,238 @@
+package com.proyecto.vdrt.catalogo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.event.ProductViewedEvent;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * SuggestIndex contra un recorrido de fuerza bruta de todos los términos: mismos pesos en el mismo orden
+ * después de altas, cambios, bajas y lecturas, que parten y vuelven a unir las aristas del trie.
+ */
+class SuggestIndexTests {
+
+    private static final List<String> WORDS = List.of("Laptop", "lapiz", "LÁPIZ", "Gamer", "gama", "Cámara", "cama",
+            "PC", "pc-gamer", "mouse", "monitor", "mon", "la");
+    private static final List<String> TAGS = List.of("gamer", "Gamer", "oferta", "ofertas", "cámara", "monitores");
+    private static final int MAX_TERM_LENGTH = 12;
+    private static final int MAX_WORDS = 2;
+
+    private record Item(String name, List<String> tags) {
+    }
+
+    @Test
+    void matchesABruteForceSearch() {
+        Random random = new Random(11);
+        Map<String, Item> model = new LinkedHashMap<>();
+        Map<String, Long> views = new HashMap<>();
+        for (int i = 0; i < 60; i++) {
+            model.put("p" + i, item(random));
+        }
+        SuggestIndex index = load(model);
+        assertMatches(index, model, views, random);
+
+        for (int operation = 0; operation < 2_000; operation++) {
+            String id = "p" + random.nextInt(90);
+            int action = random.nextInt(10);
+            if (action < 2) {
+                index.onProductChanged(ProductChangedEvent.deleted(id));
+                model.remove(id);
+                views.remove(id);
+            } else if (action < 5) {
+                Item item = item(random);
+                index.onProductChanged(model.containsKey(id) ? ProductChangedEvent.updated(product(id, item))
+                        : ProductChangedEvent.created(product(id, item)));
+                model.put(id, item);
+            } else if (model.containsKey(id)) {
+                int count = 1 + random.nextInt(3);
+                for (int i = 0; i < count; i++) {
+                    index.onProductViewed(new ProductViewedEvent(id));
+                }
+                views.merge(id, (long) count, Long::sum);
+            }
+            if (operation % 40 == 0) {
+                assertMatches(index, model, views, random);
+            }
+        }
+        assertMatches(index, model, views, random);
+    }
+
+    @Test
+    void splitsAndMergesEdges() {
+        Map<String, Item> model = new LinkedHashMap<>();
+        model.put("1", new Item("laptop", List.of()));
+        model.put("2", new Item("lapiz", List.of()));
+        model.put("3", new Item("lap", List.of()));
+        SuggestIndex index = load(model);
+        view(index, "1", 3);
+        view(index, "2", 2);
+        view(index, "3", 1);
+
+        assertThat(texts(index.suggest("la", 10))).containsExactly("laptop", "lapiz", "lap");
+        assertThat(texts(index.suggest("lapt", 10))).containsExactly("laptop");
+
+        // Sin "lapiz" ni "lap" el camino vuelve a ser una sola arista y los prefijos intermedios siguen resolviendo
+        index.onProductChanged(ProductChangedEvent.deleted("2"));
+        index.onProductChanged(ProductChangedEvent.deleted("3"));
+        assertThat(texts(index.suggest("lap", 10))).containsExactly("laptop");
+        assertThat(texts(index.suggest("lapto", 10))).containsExactly("laptop");
+        assertThat(index.suggest("lapi", 10)).isEmpty();
+        assertThat(index.termCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findsNamesFromAnyWordWithoutCaseOrAccents() {
+        Map<String, Item> model = new LinkedHashMap<>();
+        model.put("1", new Item("Laptop Gamer", List.of("Cámaras")));
+        model.put("2", new Item("Cámara Réflex", List.of()));
+        SuggestIndex index = load(model);
+
+        assertThat(texts(index.suggest("GAM", 10))).containsExactly("Laptop Gamer");
+        assertThat(texts(index.suggest("cama", 10))).containsExactly("Cámaras", "Cámara Réflex");
+        assertThat(index.suggest("camaras", 10)).singleElement()
+                .satisfies(suggestion -> assertThat(suggestion.type()).isEqualTo(SuggestIndex.TAG));
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void viewsSurviveUpdatesButNotDeletes() {
+        Map<String, Item> model = new LinkedHashMap<>();
+        model.put("1", new Item("monitor", List.of()));
+        SuggestIndex index = load(model);
+        view(index, "1", 5);
+
+        index.onProductChanged(ProductChangedEvent.updated(product("1", new Item("monitor curvo", List.of()))));
+        assertThat(index.suggest("mon", 1)).singleElement().satisfies(s -> assertThat(s.weight()).isEqualTo(5));
+
+        index.onProductChanged(ProductChangedEvent.deleted("1"));
+        index.onProductChanged(ProductChangedEvent.created(product("1", new Item("monitor", List.of()))));
+        assertThat(index.suggest("mon", 1)).singleElement().satisfies(s -> assertThat(s.weight()).isZero());
+    }
+
+    private static void assertMatches(SuggestIndex index, Map<String, Item> model, Map<String, Long> views, Random random) {
+        Map<String, Long> expectedWeights = new HashMap<>();
+        List<String[]> candidates = new ArrayList<>();
+        model.forEach((id, item) -> candidates.add(new String[] { SuggestIndex.PRODUCT, id, item.name() }));
+        Map<String, Long> tagCounts = new LinkedHashMap<>();
+        model.values().forEach(item -> new LinkedHashSet<>(item.tags()).forEach(tag -> tagCounts.merge(tag, 1L, Long::sum)));
+        tagCounts.keySet().forEach(tag -> candidates.add(new String[] { SuggestIndex.TAG, null, tag }));
+
+        for (int i = 0; i < 25; i++) {
+            String prefix = prefix(random);
+            int limit = 1 + random.nextInt(8);
+            List<Long> expected = new ArrayList<>();
+            for (String[] candidate : candidates) {
+                boolean product = candidate[0].equals(SuggestIndex.PRODUCT);
+                List<String> keys = product ? productKeys(candidate[2]) : List.of(truncate(SuggestIndex.normalize(candidate[2])));
+                if (!prefix.isEmpty() && keys.stream().anyMatch(key -> !key.isEmpty() && key.startsWith(prefix))) {
+                    long weight = product ? views.getOrDefault(candidate[1], 0L) : tagCounts.get(candidate[2]);
+                    expected.add(weight);
+                    expectedWeights.put(candidate[0] + ":" + (product ? candidate[1] : candidate[2]), weight);
+                }
+            }
+            expected.sort(Comparator.reverseOrder());
+
+            List<SuggestIndex.Suggestion> suggestions = index.suggest(prefix, limit);
+            assertThat(suggestions).extracting(SuggestIndex.Suggestion::weight).as("pesos de '%s'", prefix)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(limit, expected.size())));
+            // Cada sugerencia es un término que empieza con el prefijo, con su peso actual y una sola vez
+            assertThat(suggestions).allSatisfy(suggestion -> assertThat(expectedWeights.get(suggestion.type() + ":"
+                    + (suggestion.type().equals(SuggestIndex.PRODUCT) ? suggestion.id() : suggestion.text())))
+                    .isEqualTo(suggestion.weight()));
+            assertThat(suggestions).extracting(s -> s.type() + ":" + s.id() + ":" + s.text()).doesNotHaveDuplicates();
+            expectedWeights.clear();
+        }
+    }
+
+    // Las mismas claves que SuggestIndex: el nombre desde cada una de sus primeras MAX_WORDS palabras
+    private static List<String> productKeys(String name) {
+        String normalized = SuggestIndex.normalize(name);
+        List<String> keys = new ArrayList<>();
+        int words = 0;
+        for (int i = 0; i < normalized.length() && words < MAX_WORDS; i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(truncate(normalized.substring(i)));
+                words++;
+            }
+        }
+        return keys;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_TERM_LENGTH ? key.substring(0, MAX_TERM_LENGTH) : key;
+    }
+
+    private static String prefix(Random random) {
+        String word = SuggestIndex.normalize(WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size())));
+        // Como el índice, sin espacios al final del prefijo
+        return word.substring(0, 1 + random.nextInt(word.length())).strip();
+    }
+
+    private static Item item(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            name.append(i == 0 ? "" : " ").append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        List<String> tags = new ArrayList<>();
+        int count = random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            tags.add(TAGS.get(random.nextInt(TAGS.size())));
+        }
+        return new Item(name.toString(), tags);
+    }
+
+    private static void view(SuggestIndex index, String id, int times) {
+        for (int i = 0; i < times; i++) {
+            index.onProductViewed(new ProductViewedEvent(id));
+        }
+    }
+
+    private static List<String> texts(List<SuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestIndex.Suggestion::text).toList();
+    }
+
+    private static Product product(String id, Item item) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(item.name());
+        product.setTags(item.tags());
+        return product;
+    }
+
+    private static SuggestIndex load(Map<String, Item> model) {
+        List<Document> documents = model.entrySet().stream()
+                .map(entry -> new Document("_id", entry.getKey()).append("name", entry.getValue().name())
+                        .append("tags", entry.getValue().tags()))
+                .toList();
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.stream(any(Query.class), eq(Document.class), eq("products"))).thenAnswer(invocation -> documents.stream());
+
+        SuggestIndex index = new SuggestIndex(template);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxTermLength", MAX_TERM_LENGTH);
+        ReflectionTestUtils.setField(index, "maxWords", MAX_WORDS);
+        index.rebuild();
+        return index;
+    }
+}
@@ -0,0 +1,92 @@
+package com.proyecto.vdrt.catalogo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.proyecto.vdrt.catalogo.exception.InvalidQueryException;
+import com.proyecto.vdrt.catalogo.index.TagExpression.And;
+import com.proyecto.vdrt.catalogo.index.TagExpression.Not;
+import com.proyecto.vdrt.catalogo.index.TagExpression.Or;
+import com.proyecto.vdrt.catalogo.index.TagExpression.Tag;
+
+class TagExpressionTests {
+
+    @Test
+    void notBindsTighterThanAndAndAndTighterThanOr() {
+        assertThat(TagExpression.parse("a OR b AND NOT c")).isEqualTo(
+                new Or(List.of(new Tag("a"), new And(List.of(new Tag("b"), new Not(new Tag("c")))))));
+        assertThat(TagExpression.parse("(a | b) & !c")).isEqualTo(
+                new And(List.of(new Or(List.of(new Tag("a"), new Tag("b"))), new Not(new Tag("c")))));
+    }
+
+    @Test
+    void operatorsAreCaseInsensitiveAndChainsAreFlat() {
+        assertThat(TagExpression.parse("a and b AnD c or d")).isEqualTo(new Or(List.of(
+                new And(List.of(new Tag("a"), new Tag("b"), new Tag("c"))), new Tag("d"))));
+        assertThat(TagExpression.parse("not not a")).isEqualTo(new Not(new Not(new Tag("a"))));
+    }
+
+    @Test
+    void quotedTagsKeepSpacesOperatorsAndCase() {
+        assertThat(TagExpression.parse("\"tarjeta grafica\" AND \"OR\" AND \"a(b)\" AND Gamer")).isEqualTo(new And(List.of(
+                new Tag("tarjeta grafica"), new Tag("OR"), new Tag("a(b)"), new Tag("Gamer"))));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "a AND; falta una etiqueta al final",
+            "(a OR b; falta ')'",
+            "a b; se esperaba AND, OR o el final",
+            "a OR ) b; se esperaba una etiqueta",
+            "AND a; se esperaba una etiqueta",
+            "\"sin cerrar; falta cerrar las comillas"
+    })
+    void rejectsMalformedExpressions(String expr, String message) {
+        assertThatThrownBy(() -> TagExpression.parse(expr))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining(message);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   "})
+    void rejectsEmptyExpressions(String expr) {
+        assertThatThrownBy(() -> TagExpression.parse(expr)).isInstanceOf(InvalidQueryException.class);
+    }
+
+    @Test
+    void limitsLengthAndNesting() {
+        assertThatThrownBy(() -> TagExpression.parse("a".repeat(TagExpression.MAX_LENGTH + 1)))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> TagExpression.parse("!".repeat(TagExpression.MAX_DEPTH + 1) + "a"))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("niveles");
+        assertThatThrownBy(() -> TagExpression.parse("(".repeat(TagExpression.MAX_DEPTH + 1) + "a" + ")".repeat(TagExpression.MAX_DEPTH + 1)))
+                .isInstanceOf(InvalidQueryException.class);
+        // Los niveles cuentan el anidamiento, no la cantidad de operadores de la expresión
+        assertThat(TagExpression.parse("!".repeat(TagExpression.MAX_DEPTH) + "a")).isNotNull();
+        assertThat(TagExpression.parse(String.join(" AND ", Collections.nCopies(100, "!(a OR !b)")))).isNotNull();
+    }
+
+    @Test
+    void translatesToMongoCriteria() {
+        Document criteria = TagExpression.parse("gamer AND (laptop OR pc) AND NOT usado").toCriteria().getCriteriaObject();
+
+        assertThat(criteria).isEqualTo(Document.parse("""
+                {"$and": [
+                    {"tags": "gamer"},
+                    {"$or": [{"tags": "laptop"}, {"tags": "pc"}]},
+                    {"$nor": [{"tags": "usado"}]}
+                ]}
+                """));
+        assertThat(TagExpression.parse("\"a b\"").toCriteria().getCriteriaObject()).isEqualTo(new Document("tags", "a b"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.proyecto.vdrt.catalogo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proyecto.vdrt.catalogo.event.ProductChangedEvent;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * TagIndex contra la evaluación directa de la expresión sobre las etiquetas de cada producto:
+ * el conteo y las páginas (en orden de _id) deben coincidir después de altas, cambios y bajas.
+ */
+class TagIndexTests {
+
+    private static final int TAGS = 8;
+
+    @Test
+    void matchesADirectEvaluation() {
+        Random random = new Random(7);
+        Map<String, List<String>> model = new LinkedHashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // IDs ObjectId y de texto, creados en un orden distinto al de _id
+            ids.add(i % 3 == 0 ? "sku-" + random.nextInt(10_000) : new ObjectId().toHexString());
+        }
+        Collections.shuffle(ids, random);
+        for (String id : ids.subList(0, 200)) {
+            model.put(id, tags(random));
+        }
+        TagIndex index = load(model);
+        assertMatches(index, model, random);
+
+        for (int operation = 0; operation < 1_000; operation++) {
+            String id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(4) == 0) {
+                index.onProductChanged(ProductChangedEvent.deleted(id));
+                model.remove(id);
+            } else {
+                List<String> tags = tags(random);
+                index.onProductChanged(model.containsKey(id) ? ProductChangedEvent.updated(product(id, tags))
+                        : ProductChangedEvent.created(product(id, tags)));
+                model.put(id, tags);
+            }
+            if (operation % 50 == 0) {
+                assertMatches(index, model, random);
+            }
+        }
+        assertMatches(index, model, random);
+    }
+
+    @Test
+    void pagesFollowTheIdOrderNotTheArrivalOrder() {
+        Map<String, List<String>> model = new LinkedHashMap<>();
+        model.put("c", List.of("x"));
+        model.put("a", List.of("x"));
+        model.put("000000000000000000000001", List.of("x"));
+        model.put("b", List.of("x", "y"));
+        TagIndex index = load(model);
+        TagExpression x = TagExpression.parse("x");
+
+        // Los String van antes que los ObjectId, igual que el orden de _id en MongoDB
+        assertThat(index.evaluate(x, 0, 10).ids()).containsExactly("a", "b", "c", "000000000000000000000001");
+        assertThat(index.evaluate(x, 1, 2).ids()).containsExactly("b", "c");
+        assertThat(index.evaluate(x, 3, 2).ids()).containsExactly("000000000000000000000001");
+        assertThat(index.evaluate(x, 4, 2).ids()).isEmpty();
+        assertThat(index.evaluate(TagExpression.parse("x AND NOT y"), 0, 10).count()).isEqualTo(3);
+    }
+
+    @Test
+    void changesDuringTheLoadWinOverTheLoadedTags() {
+        MongoTemplate template = template(Map.of("a", List.of("x"), "b", List.of("x")));
+        TagIndex index = new TagIndex(template, new ProductOrdinals());
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        index.onProductChanged(ProductChangedEvent.updated(product("a", List.of("y"))));
+        index.onProductChanged(ProductChangedEvent.deleted("b"));
+        index.rebuild();
+
+        assertThat(index.count(TagExpression.parse("x"))).isZero();
+        assertThat(index.evaluate(TagExpression.parse("y"), 0, 10).ids()).containsExactly("a");
+    }
+
+    private static void assertMatches(TagIndex index, Map<String, List<String>> model, Random random) {
+        for (int i = 0; i < 30; i++) {
+            TagExpression expression = TagExpression.parse(render(random, 3));
+            List<String> expected = model.entrySet().stream()
+                    .filter(entry -> matches(expression, entry.getValue()))
+                    .map(Map.Entry::getKey)
+                    .sorted(TagIndex.ID_ORDER)
+                    .toList();
+            int limit = 1 + random.nextInt(20);
+            int offset = random.nextInt(expected.size() + 5);
+
+            TagIndex.TagMatch match = index.evaluate(expression, offset, limit);
+            assertThat(match.count()).as("count de %s", expression).isEqualTo(expected.size());
+            assertThat(match.ids()).as("página de %s", expression)
+                    .containsExactlyElementsOf(expected.subList(Math.min(offset, expected.size()), Math.min(offset + limit, expected.size())));
+            assertThat(index.count(expression)).isEqualTo(expected.size());
+        }
+    }
+
+    private static boolean matches(TagExpression expression, List<String> tags) {
+        return switch (expression) {
+            case TagExpression.Tag tag -> tags.contains(tag.name());
+            case TagExpression.And and -> and.operands().stream().allMatch(operand -> matches(operand, tags));
+            case TagExpression.Or or -> or.operands().stream().anyMatch(operand -> matches(operand, tags));
+            case TagExpression.Not not -> !matches(not.operand(), tags);
+        };
+    }
+
+    private static String render(Random random, int depth) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            return (random.nextInt(4) == 0 ? "NOT " : "") + "t" + random.nextInt(TAGS);
+        }
+        String operator = random.nextBoolean() ? " AND " : " OR ";
+        String rendered = render(random, depth - 1) + operator + render(random, depth - 1);
+        return switch (random.nextInt(3)) {
+            case 0 -> "(" + rendered + ")";
+            case 1 -> "NOT (" + rendered + ")";
+            default -> rendered;
+        };
+    }
+
+    private static List<String> tags(Random random) {
+        List<String> tags = new ArrayList<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            tags.add("t" + random.nextInt(TAGS));
+        }
+        return tags;
+    }
+
+    private static Product product(String id, List<String> tags) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setTags(tags);
+        return product;
+    }
+
+    private static TagIndex load(Map<String, List<String>> model) {
+        TagIndex index = new TagIndex(template(model), new ProductOrdinals());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+        return index;
+    }
+
+    private static MongoTemplate template(Map<String, List<String>> tags) {
+        List<Document> documents = tags.entrySet().stream()
+                .map(entry -> new Document("_id", entry.getKey()).append("tags", entry.getValue()))
+                .toList();
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.stream(any(Query.class), eq(Document.class), eq("products"))).thenAnswer(invocation -> documents.stream());
+        return template;
+    }
+}
@@ -0,0 +1,71 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import com.proyecto.vdrt.catalogo.model.dto.ProductPatchRequest;
+
+/**
+ * PATCH de especificaciones: specifications y specs se filtran con las mismas claves normalizadas,
+ * así quitar o reemplazar "RAM" también quita "Ram" o "ram " del mapa original.
+ */
+class ProductMapperTests {
+
+    private final ProductMapper productMapper = new ProductMapper();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ram", "RAM", " Ram ", "Memoria RAM", "memoria\tram", "Memoria\u000BRam\n", "Tamaño Pantalla"})
+    void bothSpecificationFormsAreFilteredByTheNormalizedKey(String storedKey) {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setUnsetSpecifications(List.of("RAM", "memoria ram"));
+        patch.setSetSpecifications(Map.of("TAMAÑO pantalla", "15,6\""));
+
+        Document set = set(patch);
+        Document specificationsFilter = set.get("specifications", Document.class).get("$arrayToObject", Document.class)
+                .getList("$concatArrays", Document.class).get(0).get("$filter", Document.class);
+        Document specsFilter = set.get("specs", Document.class).getList("$concatArrays", Document.class).get(0)
+                .get("$filter", Document.class);
+
+        List<Document> conditions = specificationsFilter.get("cond", Document.class).getList("$not", Document.class).get(0)
+                .getList("$or", Document.class);
+        List<?> normalizedIn = conditions.get(1).getList("$in", Object.class);
+        List<?> specsIn = specsFilter.get("cond", Document.class).getList("$not", Document.class).get(0)
+                .getList("$in", Object.class);
+
+        // Las mismas claves normalizadas en los dos filtros
+        Object normKeys = ((Document) normalizedIn.get(1)).get("$literal");
+        assertThat(normKeys).isEqualTo(((Document) specsIn.get(1)).get("$literal"))
+                .isEqualTo(List.of("tamañopantalla", "ram", "memoriaram"));
+
+        // La expresión del servidor normaliza la clave guardada igual que SpecificationNormalizer
+        assertThat(evaluate(normalizedIn.get(0), storedKey)).isEqualTo(SpecificationNormalizer.normalize(storedKey));
+    }
+
+    private Document set(ProductPatchRequest patch) {
+        List<Document> pipeline = productMapper.toPatchUpdate(patch).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        return pipeline.get(0).get("$set", Document.class);
+    }
+
+    // Evalúa $toLower y $replaceAll sobre "$$this.k" como MongoDB ($toLower solo convierte letras ASCII)
+    private static String evaluate(Object expression, String key) {
+        if ("$$this.k".equals(expression)) {
+            return key;
+        }
+        Document document = (Document) expression;
+        if (document.containsKey("$toLower")) {
+            StringBuilder lower = new StringBuilder();
+            evaluate(document.get("$toLower"), key).chars()
+                    .forEach(c -> lower.append(c < 128 ? (char) Character.toLowerCase(c) : (char) c));
+            return lower.toString();
+        }
+        Document replaceAll = document.get("$replaceAll", Document.class);
+        return evaluate(replaceAll.get("input"), key).replace(replaceAll.getString("find"), replaceAll.getString("replacement"));
+    }
+}
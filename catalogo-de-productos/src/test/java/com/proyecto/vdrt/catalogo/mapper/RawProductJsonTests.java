@@ -0,0 +1,161 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.RawProductPageResponse;
+
+/**
+ * RawProductJson debe producir exactamente los mismos bytes que Jackson con ProductResponse: los mismos
+ * documentos se serializan por los dos caminos, con y sin 'fields', con escapes y texto no ASCII.
+ */
+class RawProductJsonTests {
+
+    private static MappingMongoConverter converter;
+    // Misma configuración que el ObjectMapper de Spring Boot (módulos registrados, fechas ISO-8601)
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final ProductMapper PRODUCT_MAPPER = new ProductMapper();
+
+    @BeforeAll
+    static void createConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"id", "name,price", "tags,last_modified", "specifications", "general_description,version",
+            "id,name,price,general_description,specifications,tags,version,last_modified"})
+    void writesTheSameBytesAsJackson(String fields) throws IOException {
+        ProductFields projection = ProductFields.parse(fields);
+        for (Product product : products()) {
+            RawBsonDocument raw = raw(product);
+            byte[] expected = OBJECT_MAPPER.writeValueAsBytes(PRODUCT_MAPPER.toResponse(product, projection));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(bytes)) {
+                RawProductJson.write(raw, projection, generator);
+            }
+            assertThat(bytes.toByteArray()).as("%s con fields=%s", product.getId(), fields).isEqualTo(expected);
+
+            // Con un generador de caracteres (sin writeUTF8String) debe coincidir con writeValueAsString
+            StringWriter text = new StringWriter();
+            try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(text)) {
+                RawProductJson.write(raw, projection, generator);
+            }
+            assertThat(text.toString()).isEqualTo(OBJECT_MAPPER.writeValueAsString(PRODUCT_MAPPER.toResponse(product, projection)));
+        }
+    }
+
+    @Test
+    void pagesAreIdentical() throws IOException {
+        List<Product> products = products();
+        List<RawBsonDocument> raw = products.stream().map(RawProductJsonTests::raw).toList();
+        String cursor = "cursor-" + products.get(products.size() - 1).getId();
+
+        byte[] expected = OBJECT_MAPPER.writeValueAsBytes(new ProductPageResponse(
+                products.stream().map(PRODUCT_MAPPER::toResponse).toList(), cursor));
+        byte[] actual = OBJECT_MAPPER.writeValueAsBytes(new RawProductPageResponse(raw, ProductFields.ALL, cursor));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void readsTheIdOfTheDocument() {
+        for (Product product : products()) {
+            assertThat(RawProductJson.id(raw(product))).isEqualTo(product.getId());
+        }
+    }
+
+    private static RawBsonDocument raw(Product product) {
+        Document document = new Document();
+        converter.write(product, document);
+        return new RawBsonDocument(document, new DocumentCodec());
+    }
+
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<>();
+
+        Product complete = product("Notebook \"Pro\" 15,6″ — edición año ñandú", 1299.99);
+        complete.setGeneralDescription("Línea 1\nLínea 2\t<b>negrita</b> \\ barra \u0001 control, emoji 😀 y 中文");
+        Map<String, String> specifications = new LinkedHashMap<>();
+        specifications.put("Memoria RAM", "16 GB");
+        specifications.put("Pantalla \"táctil\"", "15,6 pulgadas");
+        specifications.put("Batería", "5,000 mAh");
+        complete.setSpecifications(specifications);
+        complete.setSpecs(SpecificationNormalizer.toEntries(specifications));
+        complete.setTags(List.of("electrónica", "oferta \"especial\"", "日本"));
+        complete.setVersion(7L);
+        complete.setLastModified(Instant.parse("2024-05-01T10:15:30.123Z"));
+        products.add(complete);
+
+        // Solo los campos obligatorios: los nulos no se escriben
+        products.add(product("Mínimo", 0.5));
+        products.add(product("Sin precio", null));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            Product product = product(random.nextInt(5) == 0 ? null : "Producto ñ \"" + i + "\" \\ é" + (random.nextBoolean() ? "😀" : ""),
+                    random.nextInt(6) == 0 ? null : random.nextInt(100_000) / 100.0 + (random.nextBoolean() ? 0 : random.nextDouble()));
+            product.setGeneralDescription(random.nextBoolean() ? "Descripción\r\n\t" + i + "  " : null);
+            if (random.nextBoolean()) {
+                Map<String, String> specs = new LinkedHashMap<>();
+                int count = random.nextInt(4);
+                for (int k = 0; k < count; k++) {
+                    specs.put("clave\"" + k + "ñ", random.nextInt(5) == 0 ? null : k * 8 + " GB");
+                }
+                product.setSpecifications(specs);
+                product.setSpecs(SpecificationNormalizer.toEntries(specs));
+            }
+            product.setTags(random.nextBoolean() ? List.of("a", "ñb", "c\"d") : random.nextBoolean() ? List.of() : null);
+            product.setVersion(random.nextBoolean() ? (long) i : null);
+            product.setLastModified(random.nextBoolean() ? Instant.ofEpochMilli(1_700_000_000_000L + random.nextInt(1 << 30)) : null);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static Product product(String name, Double price) {
+        Product product = new Product();
+        product.setId(new ObjectId().toHexString());
+        product.setName(name);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,94 @@
+package com.proyecto.vdrt.catalogo.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.proyecto.vdrt.catalogo.mapper.SpecificationNormalizer.Measure;
+
+class SpecificationNormalizerTests {
+
+    // Coma decimal salvo que la sigan exactamente tres dígitos (separador de miles)
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "15,6 pulgadas; 15.6",
+            "1,5; 1.5",
+            "1,50; 1.5",
+            "1,5000; 1.5",
+            "5,000; 5000",
+            "1,000; 1000",
+            "2.5; 2.5",
+            "-3,25; -3.25"
+    })
+    void commaIsDecimalUnlessFollowedByThreeDigits(String text, double expected) {
+        assertThat(SpecificationNormalizer.measure(text).value()).isEqualTo(expected);
+    }
+
+    @Test
+    void thousandsSeparatorKeepsUnknownUnit() {
+        assertThat(SpecificationNormalizer.measure("5,000 mAh")).isEqualTo(new Measure(5000, "mah"));
+    }
+
+    // Las conversiones dan exactamente el valor esperado, sin residuos de la aritmética binaria
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "2.54 cm; 1; in",
+            "25.4 mm; 1; in",
+            "39.624 cm; 15.6; in",
+            "1 in; 1; in",
+            "15.6\"; 15.6; in",
+            "1 cm; 0.393700787401575; in",
+            "16384 MB; 16; gb",
+            "1048576 KB; 1; gb",
+            "1 TB; 1024; gb",
+            "0,5 GiB; 0.5; gb",
+            "1 lb; 0.45359237; kg",
+            "500 g; 0.5; kg",
+            "2400 MHz; 2.4; ghz",
+            "3,6 GHz; 3.6; ghz",
+            "1500000 kHz; 1.5; ghz"
+    })
+    void convertsToTheCanonicalUnit(String text, double expected, String unit) {
+        assertThat(SpecificationNormalizer.measure(text)).isEqualTo(new Measure(expected, unit));
+    }
+
+    // Un valor guardado y un límite de rango escritos en unidades distintas coinciden exactamente
+    @Test
+    void equivalentValuesAreEqual() {
+        assertThat(SpecificationNormalizer.measure("2.54 cm")).isEqualTo(SpecificationNormalizer.measure("1 pulgada"));
+        assertThat(SpecificationNormalizer.measure("254 mm")).isEqualTo(SpecificationNormalizer.measure("25,4 cm"));
+        assertThat(SpecificationNormalizer.measure("2400 MHz")).isEqualTo(SpecificationNormalizer.measure("2.4 GHz"));
+        assertThat(SpecificationNormalizer.measure("100 lb").value()).isEqualTo(45.359237);
+    }
+
+    // "g" solo es gramo en minúscula: "5G" es una red móvil, no 0.005 kg; las demás unidades ignoran mayúsculas
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "5G; 5; g",
+            "5 G; 5; g",
+            "500 g; 0.5; kg",
+            "500 GR; 0.5; kg",
+            "500 Gramos; 0.5; kg",
+            "16 Gb; 16; gb",
+            "2.4 gHz; 2.4; ghz"
+    })
+    void onlyLowercaseGIsGrams(String text, double expected, String unit) {
+        assertThat(SpecificationNormalizer.measure(text)).isEqualTo(new Measure(expected, unit));
+    }
+
+    @Test
+    void keepsUnknownUnitsAndPlainNumbers() {
+        assertThat(SpecificationNormalizer.measure("8 núcleos")).isEqualTo(new Measure(8, "núcleos"));
+        assertThat(SpecificationNormalizer.measure("8 Núcleos")).isEqualTo(new Measure(8, "núcleos"));
+        assertThat(SpecificationNormalizer.measure("8")).isEqualTo(new Measure(8, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Intel i7", "1920x1080", "GB", "", "1.2.3"})
+    void rejectsValuesThatAreNotMeasures(String text) {
+        assertThat(SpecificationNormalizer.measure(text)).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.proyecto.vdrt.catalogo.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.proyecto.vdrt.catalogo.mapper.ProductFields;
+import com.proyecto.vdrt.catalogo.model.dto.ProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.ProductResponse;
+import com.proyecto.vdrt.catalogo.model.dto.RawProductPageResponse;
+import com.proyecto.vdrt.catalogo.model.dto.TagQueryResponse;
+import com.proyecto.vdrt.catalogo.service.ProductService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cada tipo de página que devuelven los servicios registra su tamaño en catalogo.service.result.size.
+ */
+class ResultSizeMetricsAspectTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProductService target = mock(ProductService.class);
+    private final ProductService service = proxy(target);
+
+    @Test
+    void recordsTheSizeOfEveryKindOfPage() {
+        when(target.getPage(any(), any(), any())).thenReturn(new ProductPageResponse(products(3), null));
+        when(target.getByTagExpression(any(), anyInt(), any(), any())).thenReturn(new TagQueryResponse(products(7), 120, 0, "memory"));
+        when(target.getRawPage(any(), any(), any())).thenReturn(new RawProductPageResponse(
+                Collections.nCopies(5, new RawBsonDocument(new BsonDocument(), new BsonDocumentCodec())), ProductFields.ALL, null));
+
+        service.getPage(null, 3, null);
+        service.getByTagExpression("a AND b", 0, 7, null);
+        service.getRawPage(null, 5, null);
+
+        assertThat(total("getPage")).isEqualTo(3);
+        assertThat(total("getByTagExpression")).isEqualTo(7);
+        assertThat(total("getRawPage")).isEqualTo(5);
+    }
+
+    private double total(String method) {
+        return registry.get("catalogo.service.result.size").tag("method", method).summary().totalAmount();
+    }
+
+    private static List<ProductResponse> products(int count) {
+        return Collections.nCopies(count, new ProductResponse());
+    }
+
+    private ProductService proxy(ProductService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ResultSizeMetricsAspect(registry));
+        return factory.getProxy();
+    }
+}
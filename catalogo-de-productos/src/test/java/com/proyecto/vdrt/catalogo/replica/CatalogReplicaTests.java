@@ -0,0 +1,150 @@
+package com.proyecto.vdrt.catalogo.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+// MongoDBContainer arranca un replica set de un solo nodo, suficiente para los change streams
+@Testcontainers(disabledWithoutDocker = true)
+class CatalogReplicaTests {
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    Path directory;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private CatalogReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(client, "catalogo-replica-test");
+        mongoTemplate.dropCollection(Product.class);
+        mongoTemplate.createCollection(Product.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (replica != null) {
+            replica.stop();
+        }
+        client.close();
+    }
+
+    @Test
+    void loadsTheCatalogAndAppliesChanges() {
+        mongoTemplate.insertAll(List.of(product("a", "Teclado", 10.0), product("b", "Mouse", 5.0)));
+
+        replica = start();
+
+        assertThat(replica.snapshot().size()).isEqualTo(2);
+        assertThat(replica.snapshot().get("a").getName()).isEqualTo("Teclado");
+
+        mongoTemplate.insert(product("c", "Monitor", 200.0));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is("a")), Update.update("price", 12.5), Product.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is("b")), Product.class);
+
+        await().atMost(TIMEOUT).untilAsserted(() -> {
+            CatalogSnapshot snapshot = replica.snapshot();
+            assertThat(snapshot.size()).isEqualTo(2);
+            assertThat(snapshot.get("a").getPrice()).isEqualTo(12.5);
+            assertThat(snapshot.get("b")).isNull();
+            assertThat(snapshot.get("c").getName()).isEqualTo("Monitor");
+        });
+    }
+
+    @Test
+    void resumesFromTheCheckpointToken() throws IOException {
+        mongoTemplate.insert(product("a", "Teclado", 10.0));
+        replica = start();
+        mongoTemplate.insert(product("b", "Mouse", 5.0));
+        await().atMost(TIMEOUT).until(() -> replica.snapshot().get("b") != null);
+
+        // Al detenerse guarda el checkpoint con el resume token
+        replica.stop();
+        replica = null;
+        Path file = directory.resolve("replica.bson.gz");
+        assertThat(file).exists();
+
+        // Cambios mientras la réplica está detenida: deben llegar por el stream, desde el token
+        mongoTemplate.insert(product("c", "Monitor", 200.0));
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is("a")), Product.class);
+        // Un producto que solo está en el checkpoint: con una carga completa desaparecería
+        appendToCheckpoint(file, product("solo-checkpoint", "Fantasma", 1.0));
+
+        replica = start();
+
+        // Lista recién cuando el stream aplicó lo ocurrido desde el token, nunca con el checkpoint atrasado
+        CatalogSnapshot snapshot = replica.snapshot();
+        assertThat(snapshot.get("a")).isNull();
+        assertThat(snapshot.get("b")).isNotNull();
+        assertThat(snapshot.get("c").getName()).isEqualTo("Monitor");
+        assertThat(snapshot.get("solo-checkpoint")).isNotNull();
+    }
+
+    private CatalogReplica start() {
+        CatalogReplica started = new CatalogReplica(mongoTemplate, new CatalogVersion());
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "snapshotFile", directory.resolve("replica.bson.gz").toString());
+        ReflectionTestUtils.setField(started, "checkpointInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(started, "batchSize", 100);
+        ReflectionTestUtils.setField(started, "retryInterval", Duration.ofMillis(100));
+        started.onApplicationReady();
+        await().atMost(TIMEOUT).until(started::isReady);
+        return started;
+    }
+
+    // GZIPInputStream lee miembros gzip concatenados: alcanza con agregar uno con el documento extra
+    private void appendToCheckpoint(Path file, Product product) throws IOException {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(product, document);
+        ByteBuffer buffer = new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().asNIO();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+    }
+
+    private static Product product(String id, String name, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setTags(List.of("demo"));
+        return product;
+    }
+}
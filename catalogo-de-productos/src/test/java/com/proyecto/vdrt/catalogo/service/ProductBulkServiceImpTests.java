@@ -0,0 +1,158 @@
+package com.proyecto.vdrt.catalogo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.exception.ProductAlreadyExistException;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.model.dto.BulkItemResult;
+import com.proyecto.vdrt.catalogo.model.dto.BulkItemStatus;
+import com.proyecto.vdrt.catalogo.model.dto.BulkResultResponse;
+
+import jakarta.validation.Validation;
+
+/**
+ * Lectura del cuerpo de las operaciones masivas: un elemento con un valor del tipo equivocado se reporta
+ * como inválido sin detener el resto, y solo un JSON ilegible corta la lectura. Los errores de clave duplicada
+ * se atribuyen al nombre solo si los rechazó su índice.
+ */
+class ProductBulkServiceImpTests {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private ProductBulkServiceImp service;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Product.class)))
+                .thenAnswer(invocation -> mock(BulkOperations.class));
+        service = new ProductBulkServiceImp(mongoTemplate, new ProductMapper(), mock(ProductCache.class), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedSuccesses", 10);
+    }
+
+    @Test
+    void aValueOfTheWrongTypeOnlyInvalidatesItsItem() {
+        BulkResultResponse result = service.createAll(body("""
+                [
+                  {"name": "Teclado", "price": 10, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]},
+                  {"name": "Mouse", "price": "abc", "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a", {"x": [1, 2]}]},
+                  {"name": "Monitor", "price": 20, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]},
+                  {"name": "Cable", "price": 5, "general_description": "d", "specifications": "negro", "tags": ["a"]},
+                  {"name": "Parlante", "price": 30, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]}
+                ]
+                """));
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems()).filteredOn(item -> item.getStatus() == BulkItemStatus.CREATED)
+                .extracting(BulkItemResult::getIndex).containsExactlyInAnyOrder(0, 2, 4);
+        assertThat(result.getItems()).filteredOn(item -> item.getStatus() == BulkItemStatus.INVALID)
+                .satisfiesExactly(
+                        item -> {
+                            assertThat(item.getIndex()).isEqualTo(1);
+                            assertThat(item.getErrors()).singleElement().asString().startsWith("price: ");
+                        },
+                        item -> {
+                            assertThat(item.getIndex()).isEqualTo(3);
+                            assertThat(item.getErrors()).singleElement().asString().startsWith("specifications: ");
+                        });
+    }
+
+    @Test
+    void malformedJsonStopsTheReading() {
+        BulkResultResponse result = service.createAll(body("""
+                {"name": "Teclado", "price": 10, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]}
+                {"name": "Mouse", "price": 10, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]
+                {"name": "Monitor", "price": 20, "general_description": "d", "specifications": {"color": "negro"}, "tags": ["a"]}
+                """));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getItems()).filteredOn(item -> item.getStatus() == BulkItemStatus.INVALID)
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getIndex()).isEqualTo(1);
+                    assertThat(item.getErrors()).singleElement().asString().startsWith("JSON mal formado: ");
+                });
+    }
+
+    @Test
+    void onlyTheFirstSuccessesAreListed() {
+        String items = IntStream.range(0, 25)
+                .mapToObj(i -> "{\"name\": \"" + (i == 20 ? "" : "Producto " + i) + "\", \"price\": 1,"
+                        + " \"general_description\": \"d\", \"specifications\": {\"color\": \"negro\"}, \"tags\": [\"a\"]}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        BulkResultResponse result = service.createAll(body(items));
+
+        assertThat(result.getTotal()).isEqualTo(25);
+        assertThat(result.getSucceeded()).isEqualTo(24);
+        assertThat(result.getOmitted()).isEqualTo(14);
+        // Los 10 primeros exitosos y todos los errores, aunque lleguen después del límite
+        assertThat(result.getItems()).hasSize(11);
+        assertThat(result.getItems()).filteredOn(item -> item.getStatus() == BulkItemStatus.INVALID)
+                .extracting(BulkItemResult::getIndex).containsExactly(20);
+    }
+
+    @Test
+    void onlyTheNameIndexIsReportedAsAnExistingName() {
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+        BulkOperationException duplicates = new BulkOperationException("E11000", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(
+                        duplicateKey(0, ProductIndexRegistry.NAME_INDEX_NAME),
+                        duplicateKey(1, "products_sku_unique")),
+                null, new ServerAddress(), Set.of()));
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Product.class))).thenAnswer(invocation -> {
+            BulkOperations bulk = mock(BulkOperations.class);
+            when(bulk.execute()).thenThrow(duplicates);
+            return bulk;
+        });
+
+        BulkResultResponse result = service.createAll(body(IntStream.range(0, 3)
+                .mapToObj(i -> "{\"name\": \"Producto " + i + "\", \"price\": 1, \"general_description\": \"d\","
+                        + " \"specifications\": {\"color\": \"negro\"}, \"tags\": [\"a\"]}")
+                .collect(Collectors.joining("\n"))));
+
+        assertThat(result.getItems()).extracting(BulkItemResult::getStatus)
+                .containsExactly(BulkItemStatus.CONFLICT, BulkItemStatus.CONFLICT, BulkItemStatus.CREATED);
+        assertThat(result.getItems().get(0).getErrors()).containsExactly(new ProductAlreadyExistException().getMessage());
+        assertThat(result.getItems().get(1).getErrors()).singleElement().asString().contains("products_sku_unique");
+    }
+
+    private static BulkWriteError duplicateKey(int index, String indexName) {
+        return new BulkWriteError(11000, "E11000 duplicate key error collection: catalogo.products index: " + indexName
+                + " dup key: { name: \"x\" }", new BsonDocument(), index);
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
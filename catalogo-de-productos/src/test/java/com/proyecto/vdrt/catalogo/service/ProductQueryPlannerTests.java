@@ -0,0 +1,177 @@
+package com.proyecto.vdrt.catalogo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proyecto.vdrt.catalogo.cache.CatalogVersion;
+import com.proyecto.vdrt.catalogo.config.ProductIndexRegistry;
+import com.proyecto.vdrt.catalogo.index.PriceIndex;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+
+/**
+ * ProductQueryPlanner con conteos simulados: orden de los criterios por selectividad, conteos saturados al final,
+ * elección del hint y estimaciones cacheadas por versión del catálogo.
+ */
+class ProductQueryPlannerTests {
+
+    private static final long TOTAL = 1_000;
+    private static final int SAMPLE_LIMIT = 500;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final PriceIndex priceIndex = mock(PriceIndex.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    // Valor del criterio 'campo = valor' -> cantidad de productos que lo cumplen
+    private final Map<String, Long> counts = new HashMap<>();
+    private ProductQueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.estimatedCount(Product.class)).thenReturn(TOTAL);
+        // Como MongoDB, count con limit nunca devuelve más que el límite
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            String value = query.getQueryObject().values().iterator().next().toString();
+            return Math.min(counts.get(value), query.getLimit());
+        });
+        indexes(ProductIndexRegistry.TAGS_INDEX_NAME, ProductIndexRegistry.SPECS_INDEX_NAME, ProductIndexRegistry.PRICE_INDEX_NAME);
+
+        planner = planner();
+    }
+
+    @Test
+    void ordersFromTheMostSelectiveAndLeavesSaturatedCountsLast() {
+        counts.putAll(Map.of("comun", 150L, "raro", 20L, "masivo", 900L, "sin-indice", 5L));
+
+        ProductQueryPlanner.Plan plan = planner.plan(List.of(
+                predicate("comun", ProductIndexRegistry.TAGS_INDEX_NAME),
+                predicate("masivo", ProductIndexRegistry.TAGS_INDEX_NAME),
+                predicate("raro", ProductIndexRegistry.SPECS_INDEX_NAME),
+                predicate("sin-indice", null)), false, false);
+
+        assertThat(plan.predicates()).extracting(e -> e.predicate().description())
+                .containsExactly("sin-indice", "raro", "comun", "masivo");
+        assertThat(plan.predicates()).extracting(ProductQueryPlanner.Estimated::selectivity)
+                .containsExactly(0.005, 0.02, 0.15, 0.5);
+        assertThat(plan.predicates()).extracting(ProductQueryPlanner.Estimated::lowerBound)
+                .containsExactly(false, false, false, true);
+        // El más selectivo con índice
+        assertThat(plan.hint()).isEqualTo(ProductIndexRegistry.SPECS_INDEX_NAME);
+    }
+
+    @Test
+    void noHintWhenNothingIsSelectiveEnoughOrWithText() {
+        counts.putAll(Map.of("amplio", 600L, "raro", 20L));
+
+        assertThat(planner.plan(List.of(predicate("amplio", ProductIndexRegistry.TAGS_INDEX_NAME)), false, false).hint())
+                .isNull();
+        assertThat(planner.plan(List.of(predicate("raro", ProductIndexRegistry.TAGS_INDEX_NAME)), true, false).hint())
+                .isNull();
+    }
+
+    @Test
+    void aSaturatedCountIsNeverForced() {
+        // Con el límite, 'masivo' parece la mitad del catálogo, pero el conteo solo prueba que hay al menos 500
+        counts.put("masivo", 800L);
+        ReflectionTestUtils.setField(planner, "maxHintSelectivity", 0.9);
+
+        assertThat(planner.plan(List.of(predicate("masivo", ProductIndexRegistry.TAGS_INDEX_NAME)), false, false).hint())
+                .isNull();
+    }
+
+    @Test
+    void sortingByPriceWalksThePriceIndexUnlessSomethingIsSelective() {
+        counts.putAll(Map.of("comun", 300L, "raro", 20L));
+
+        assertThat(planner.plan(List.of(predicate("comun", ProductIndexRegistry.TAGS_INDEX_NAME)), false, true).hint())
+                .isEqualTo(ProductIndexRegistry.PRICE_INDEX_NAME);
+        assertThat(planner.plan(List.of(predicate("raro", ProductIndexRegistry.TAGS_INDEX_NAME)), false, true).hint())
+                .isEqualTo(ProductIndexRegistry.TAGS_INDEX_NAME);
+    }
+
+    @Test
+    void neverHintsAnIndexThatDoesNotExistYet() {
+        indexes(ProductIndexRegistry.TAGS_INDEX_NAME);
+        planner = planner();
+        counts.put("raro", 20L);
+
+        assertThat(planner.plan(List.of(predicate("raro", ProductIndexRegistry.SPECS_INDEX_NAME)), false, false).hint())
+                .isNull();
+    }
+
+    @Test
+    void estimatesPriceRangesInMemory() {
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.count(10, 20)).thenReturn(30L);
+        counts.put("comun", 150L);
+        PriceRangeQuery.Range range = PriceRangeQuery.Range.of(10.0, 20.0);
+
+        ProductQueryPlanner.Plan plan = planner.plan(List.of(
+                predicate("comun", ProductIndexRegistry.TAGS_INDEX_NAME),
+                new ProductQueryPlanner.Predicate("price 10-20", Criteria.where("price").gte(10).lte(20),
+                        ProductIndexRegistry.PRICE_INDEX_NAME, range)), false, false);
+
+        assertThat(plan.predicates()).extracting(e -> e.predicate().description()).containsExactly("price 10-20", "comun");
+        assertThat(plan.predicates().get(0).selectivity()).isEqualTo(0.03);
+        assertThat(plan.hint()).isEqualTo(ProductIndexRegistry.PRICE_INDEX_NAME);
+        // Solo se contó el criterio de tags
+        verify(mongoTemplate, times(1)).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void estimatesAreReusedUntilTheCatalogChanges() {
+        counts.put("raro", 20L);
+        List<ProductQueryPlanner.Predicate> predicates = List.of(predicate("raro", ProductIndexRegistry.TAGS_INDEX_NAME));
+
+        planner.plan(predicates, false, false);
+        planner.plan(predicates, false, false);
+        verify(mongoTemplate, times(1)).count(any(Query.class), eq(Product.class));
+        verify(mongoTemplate, times(1)).estimatedCount(Product.class);
+
+        // Después de una escritura el plan ya no muestra la estimación anterior
+        counts.put("raro", 40L);
+        catalogVersion.increment();
+        assertThat(planner.plan(predicates, false, false).predicates().get(0).selectivity()).isEqualTo(0.04);
+        verify(mongoTemplate, times(2)).count(any(Query.class), eq(Product.class));
+        verify(mongoTemplate, times(2)).estimatedCount(Product.class);
+    }
+
+    private ProductQueryPlanner planner() {
+        ProductQueryPlanner planner = new ProductQueryPlanner(mongoTemplate, priceIndex, catalogVersion, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(planner, "sampleLimit", SAMPLE_LIMIT);
+        ReflectionTestUtils.setField(planner, "sortIndexThreshold", 0.2);
+        ReflectionTestUtils.setField(planner, "maxHintSelectivity", 0.5);
+        return planner;
+    }
+
+    private static ProductQueryPlanner.Predicate predicate(String value, String index) {
+        return new ProductQueryPlanner.Predicate(value, Criteria.where("tags").is(value), index, null);
+    }
+
+    private void indexes(String... names) {
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(indexOperations.getIndexInfo()).thenReturn(Arrays.stream(names)
+                .map(name -> new IndexInfo(List.of(), name, false, false, null))
+                .toList());
+        when(mongoTemplate.indexOps(Product.class)).thenReturn(indexOperations);
+    }
+}
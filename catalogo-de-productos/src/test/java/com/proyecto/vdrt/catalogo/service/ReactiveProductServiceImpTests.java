@@ -0,0 +1,61 @@
+package com.proyecto.vdrt.catalogo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.vdrt.catalogo.cache.ProductCache;
+import com.proyecto.vdrt.catalogo.config.ReadRouting;
+import com.proyecto.vdrt.catalogo.event.ProductViewedEvent;
+import com.proyecto.vdrt.catalogo.exception.ProductNotFoundException;
+import com.proyecto.vdrt.catalogo.index.PriceIndex;
+import com.proyecto.vdrt.catalogo.index.TagIndex;
+import com.proyecto.vdrt.catalogo.mapper.ProductMapper;
+import com.proyecto.vdrt.catalogo.model.document.Product;
+import com.proyecto.vdrt.catalogo.repository.ReactiveProductRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Las lecturas por ID del modo reactivo cuentan para la popularidad del autocompletado, igual que en el modo servlet.
+ */
+class ReactiveProductServiceImpTests {
+
+    private final ReactiveProductRepository repository = mock(ReactiveProductRepository.class);
+    private final List<Object> events = new ArrayList<>();
+    private final ReactiveProductServiceImp service = new ReactiveProductServiceImp(repository, mock(ReactiveMongoTemplate.class),
+            new ProductMapper(), new ProductCache(new ObjectMapper(), 100, Duration.ofMinutes(1), false),
+            mock(PriceIndex.class), mock(TagIndex.class), mock(ReadRouting.class), events::add);
+
+    @Test
+    void everyReadOfAnExistingProductIsAView() {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Teclado");
+        when(repository.findById("1")).thenReturn(Mono.just(product));
+
+        // La segunda lectura sale del caché y también cuenta
+        assertThat(service.getById("1").block().getName()).isEqualTo("Teclado");
+        assertThat(service.getById("1").block().getName()).isEqualTo("Teclado");
+
+        assertThat(events).hasSize(2).allSatisfy(event ->
+                assertThat(event).isInstanceOfSatisfying(ProductViewedEvent.class, viewed -> assertThat(viewed.id()).isEqualTo("1")));
+    }
+
+    @Test
+    void missingProductsAreNotViews() {
+        when(repository.findById("2")).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> service.getById("2").block()).isInstanceOf(ProductNotFoundException.class);
+        assertThat(events).isEmpty();
+    }
+}